@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import jdk.internal.misc.Unsafe;
+import jdk.internal.org.objectweb.asm.ClassWriter;
+import jdk.internal.org.objectweb.asm.MethodVisitor;
+import static jdk.internal.org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates the field accessors of serializable classes.  A field accessor
+ * is an anonymous class, hosted by ObjectStreamClass, whose methods get and
+ * set the serializable fields of an object with one unrolled sequence of
+ * unsafe accesses per field, at constant field offsets, in place of the
+ * loops over field type codes of the FieldReflector which compiles it.
+ *
+ * @since 12
+ */
+final class FieldAccessorGenerator {
+
+    /** handle for performing unsafe operations */
+    private static final Unsafe unsafe = Unsafe.getUnsafe();
+
+    private static final String ACCESSOR = "java/io/ObjectStreamClass$FieldAccessor";
+    private static final String NAME = "java/io/ObjectStreamClass$FieldAccessorImpl";
+    private static final String UNSAFE = "jdk/internal/misc/Unsafe";
+    private static final String UNSAFE_DESC = "Ljdk/internal/misc/Unsafe;";
+    private static final String BITS = "java/io/Bits";
+
+    private FieldAccessorGenerator() {}
+
+    /**
+     * Returns a new field accessor for the given fields, of which the first
+     * numPrimFields are primitive, described as by FieldReflector.  Fields
+     * whose write key is Unsafe.INVALID_FIELD_OFFSET are not set.
+     */
+    static ObjectStreamClass.FieldAccessor generate(long[] readKeys,
+                                                    long[] writeKeys,
+                                                    int[] offsets,
+                                                    char[] typeCodes,
+                                                    int numPrimFields)
+    {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, NAME, null,
+                 "java/lang/Object", new String[] { ACCESSOR });
+        cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "UNSAFE",
+                      UNSAFE_DESC, null, null).visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+        mv.visitCode();
+        mv.visitMethodInsn(INVOKESTATIC, UNSAFE, "getUnsafe", "()" + UNSAFE_DESC, false);
+        mv.visitFieldInsn(PUTSTATIC, NAME, "UNSAFE", UNSAFE_DESC);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+
+        // void getPrimFieldValues(Object obj, byte[] buf)
+        mv = method(cw, "getPrimFieldValues", "(Ljava/lang/Object;[B)V");
+        for (int i = 0; i < numPrimFields; i++) {
+            char tc = typeCodes[i];
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitLdcInsn(offsets[i]);
+            getField(mv, readKeys[i], "get" + typeName(tc), "(Ljava/lang/Object;J)" + tc);
+            if (tc == 'B') {
+                mv.visitInsn(BASTORE);
+            } else {
+                mv.visitMethodInsn(INVOKESTATIC, BITS, "put" + typeName(tc),
+                                   "([BI" + tc + ")V", false);
+            }
+        }
+        end(mv);
+
+        // void setPrimFieldValues(Object obj, byte[] buf)
+        mv = method(cw, "setPrimFieldValues", "(Ljava/lang/Object;[B)V");
+        for (int i = 0; i < numPrimFields; i++) {
+            long key = writeKeys[i];
+            if (key == Unsafe.INVALID_FIELD_OFFSET) {
+                continue;           // discard value
+            }
+            char tc = typeCodes[i];
+            mv.visitFieldInsn(GETSTATIC, NAME, "UNSAFE", UNSAFE_DESC);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitLdcInsn(key);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitLdcInsn(offsets[i]);
+            if (tc == 'B') {
+                mv.visitInsn(BALOAD);
+            } else {
+                mv.visitMethodInsn(INVOKESTATIC, BITS, "get" + typeName(tc),
+                                   "([BI)" + tc, false);
+            }
+            mv.visitMethodInsn(INVOKEVIRTUAL, UNSAFE, "put" + typeName(tc),
+                               "(Ljava/lang/Object;J" + tc + ")V", false);
+        }
+        end(mv);
+
+        // void getObjFieldValues(Object obj, Object[] vals)
+        mv = method(cw, "getObjFieldValues", "(Ljava/lang/Object;[Ljava/lang/Object;)V");
+        for (int i = numPrimFields; i < typeCodes.length; i++) {
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitLdcInsn(offsets[i]);
+            getField(mv, readKeys[i], "getReference",
+                     "(Ljava/lang/Object;J)Ljava/lang/Object;");
+            mv.visitInsn(AASTORE);
+        }
+        end(mv);
+
+        cw.visitEnd();
+        Class<?> cl = unsafe.defineAnonymousClass(ObjectStreamClass.class,
+                                                  cw.toByteArray(), null);
+        try {
+            return (ObjectStreamClass.FieldAccessor) unsafe.allocateInstance(cl);
+        } catch (InstantiationException ex) {
+            throw new InternalError(ex);
+        }
+    }
+
+    private static MethodVisitor method(ClassWriter cw, String name, String desc) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_FINAL, name, desc, null, null);
+        mv.visitCode();
+        return mv;
+    }
+
+    private static void end(MethodVisitor mv) {
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    /**
+     * Pushes the value of the field of the object in local 1 at the given
+     * offset, with the given Unsafe method.
+     */
+    private static void getField(MethodVisitor mv, long key, String name, String desc) {
+        mv.visitFieldInsn(GETSTATIC, NAME, "UNSAFE", UNSAFE_DESC);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitLdcInsn(key);
+        mv.visitMethodInsn(INVOKEVIRTUAL, UNSAFE, name, desc, false);
+    }
+
+    /**
+     * Returns the name of the primitive type of the given type code, as
+     * used by the Unsafe and Bits methods.
+     */
+    private static String typeName(char tc) {
+        switch (tc) {
+            case 'Z': return "Boolean";
+            case 'B': return "Byte";
+            case 'C': return "Char";
+            case 'S': return "Short";
+            case 'I': return "Int";
+            case 'F': return "Float";
+            case 'J': return "Long";
+            case 'D': return "Double";
+            default:  throw new InternalError();
+        }
+    }
+}
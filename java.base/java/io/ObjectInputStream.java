@@ -297,6 +297,11 @@ public class ObjectInputStream
     /** flag set when at end of field value block with no TC_ENDBLOCKDATA */
     private boolean defaultDataEnd = false;
 
+    /** class descriptor dictionary of the connection, or null */
+    private final ObjectStreamDictionary dictionary;
+    /** if true, read primitive field values in the compact encoding */
+    private final boolean compactFields;
+
     /** if true, invoke readObjectOverride() instead of readObject() */
     private final boolean enableOverride;
     /** if true, invoke resolveObject() */
@@ -341,13 +346,57 @@ public class ObjectInputStream
      * @see     ObjectOutputStream#ObjectOutputStream(OutputStream)
      */
     public ObjectInputStream(InputStream in) throws IOException {
+        this(in, null);
+    }
+
+    /**
+     * Creates an ObjectInputStream that reads from the specified InputStream
+     * a stream written by an ObjectOutputStream with a class descriptor
+     * dictionary, and maps the class descriptor identifiers of the stream
+     * with the specified dictionary, which is shared by the successive
+     * streams of a connection.  The serialization stream header is followed
+     * by the flags of the writer's dictionary, which select the encoding of
+     * primitive field values.  Class descriptors are read by the dictionary,
+     * and the <code>readClassDescriptor</code> method is not invoked:
+     * a subclass which overrides it to read descriptors in a custom format
+     * is silently bypassed when a non-null dictionary is specified.
+     *
+     * <p>The dictionary must have read all the streams previously written
+     * with the writer's dictionary, in order.  Otherwise, this constructor
+     * behaves as the {@link #ObjectInputStream(InputStream)} constructor.
+     *
+     * @param   in input stream to read from
+     * @param   dictionary class descriptor dictionary of the connection, or
+     *          <code>null</code> to read a stream in the standard format
+     * @throws  StreamCorruptedException if the stream header is incorrect
+     * @throws  IOException if an I/O error occurs while reading stream header
+     * @throws  SecurityException if untrusted subclass illegally overrides
+     *          security-sensitive methods
+     * @throws  NullPointerException if <code>in</code> is <code>null</code>
+     * @since   12
+     * @see     ObjectOutputStream#ObjectOutputStream(OutputStream, ObjectStreamDictionary)
+     */
+    public ObjectInputStream(InputStream in, ObjectStreamDictionary dictionary)
+        throws IOException
+    {
         verifySubclass();
         bin = new BlockDataInputStream(in);
         handles = new HandleTable(10);
         vlist = new ValidationList();
         serialFilter = ObjectInputFilter.Config.getSerialFilter();
         enableOverride = false;
+        this.dictionary = dictionary;
         readStreamHeader();
+        if (dictionary != null) {
+            int flags = bin.readByte();
+            if ((flags & ~ObjectStreamDictionary.COMPACT_FIELDS) != 0) {
+                throw new StreamCorruptedException(
+                    String.format("invalid dictionary flags %02X", flags));
+            }
+            compactFields = (flags & ObjectStreamDictionary.COMPACT_FIELDS) != 0;
+        } else {
+            compactFields = false;
+        }
         bin.setBlockDataMode(true);
     }
 
@@ -381,6 +430,8 @@ public class ObjectInputStream
         vlist = null;
         serialFilter = ObjectInputFilter.Config.getSerialFilter();
         enableOverride = true;
+        dictionary = null;
+        compactFields = false;
     }
 
     /**
@@ -1872,7 +1923,8 @@ public class ObjectInputStream
 
         ObjectStreamClass readDesc;
         try {
-            readDesc = readClassDescriptor();
+            readDesc = (dictionary != null) ?
+                dictionary.readClassDescriptor(this) : readClassDescriptor();
         } catch (ClassNotFoundException ex) {
             throw (IOException) new InvalidClassException(
                 "failed to read class descriptor").initCause(ex);
@@ -2340,7 +2392,7 @@ public class ObjectInputStream
         int primDataSize = desc.getPrimDataSize();
         if (primDataSize > 0) {
             primVals = new byte[primDataSize];
-            bin.readFully(primVals, 0, primDataSize, false);
+            readPrimFieldValues(desc, primVals, primDataSize);
         }
 
         Object[] objVals = null;
@@ -2363,6 +2415,23 @@ public class ObjectInputStream
         return new FieldValues(primVals, objVals);
     }
 
+    /**
+     * Reads the primitive field values of the given class descriptor into
+     * the given buffer, in the compact encoding if the stream header
+     * selected it.
+     */
+    private void readPrimFieldValues(ObjectStreamClass desc, byte[] vals,
+                                     int len)
+        throws IOException
+    {
+        if (compactFields) {
+            ObjectStreamDictionary.readCompactFields(bin,
+                desc.getFields(false), vals);
+        } else {
+            bin.readFully(vals, 0, len, false);
+        }
+    }
+
     /** Throws ClassCastException if any value is not assignable. */
     private void defaultCheckFieldValues(Object obj, ObjectStreamClass desc,
                                          FieldValues values) {
@@ -2524,7 +2593,7 @@ public class ObjectInputStream
          * Reads primitive and object field values from stream.
          */
         void readFields() throws IOException {
-            bin.readFully(primVals, 0, primVals.length, false);
+            readPrimFieldValues(desc, primVals, primVals.length);
 
             int oldHandle = passHandle;
             ObjectStreamField[] fields = desc.getFields(false);
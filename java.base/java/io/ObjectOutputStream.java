@@ -188,6 +188,11 @@ public class ObjectOutputStream
     /** buffer for writing primitive field values */
     private byte[] primVals;
 
+    /** class descriptor dictionary of the connection, or null */
+    private final ObjectStreamDictionary dictionary;
+    /** if true, write primitive field values in the compact encoding */
+    private final boolean compactFields;
+
     /** if true, invoke writeObjectOverride() instead of writeObject() */
     private final boolean enableOverride;
     /** if true, invoke replaceObject() */
@@ -239,12 +244,56 @@ public class ObjectOutputStream
      * @see     ObjectInputStream#ObjectInputStream(InputStream)
      */
     public ObjectOutputStream(OutputStream out) throws IOException {
+        this(out, null);
+    }
+
+    /**
+     * Creates an ObjectOutputStream that writes to the specified OutputStream,
+     * and references the class descriptors of the specified dictionary, which
+     * is shared by the successive streams of a connection, by their
+     * identifiers.  The serialization stream header is followed by the
+     * flags of the dictionary, which may select the compact encoding of
+     * primitive field values.  Class descriptors are written by the
+     * dictionary, whatever the protocol version of the stream, and the
+     * <code>writeClassDescriptor</code> method is not invoked: a subclass
+     * which overrides it to write descriptors in a custom format is
+     * silently bypassed when a non-null dictionary is specified.  If the
+     * dictionary selects the compact encoding, the deprecated
+     * {@link PutField#write PutField.write} method throws an
+     * <code>IOException</code> when the fields include primitive fields.
+     *
+     * <p>The stream can be read only by an ObjectInputStream created with a
+     * dictionary that has read the previous streams written with this
+     * dictionary.  Otherwise, this constructor behaves as the
+     * {@link #ObjectOutputStream(OutputStream)} constructor.
+     *
+     * @param   out output stream to write to
+     * @param   dictionary class descriptor dictionary of the connection, or
+     *          <code>null</code> to write a stream in the standard format
+     * @throws  IOException if an I/O error occurs while writing stream header
+     * @throws  SecurityException if untrusted subclass illegally overrides
+     *          security-sensitive methods
+     * @throws  NullPointerException if <code>out</code> is <code>null</code>
+     * @since   12
+     * @see     ObjectInputStream#ObjectInputStream(InputStream, ObjectStreamDictionary)
+     */
+    public ObjectOutputStream(OutputStream out, ObjectStreamDictionary dictionary)
+        throws IOException
+    {
         verifySubclass();
         bout = new BlockDataOutputStream(out);
         handles = new HandleTable(10, (float) 3.00);
         subs = new ReplaceTable(10, (float) 3.00);
         enableOverride = false;
+        this.dictionary = dictionary;
         writeStreamHeader();
+        if (dictionary != null) {
+            int flags = dictionary.flags();
+            bout.writeByte(flags);
+            compactFields = (flags & ObjectStreamDictionary.COMPACT_FIELDS) != 0;
+        } else {
+            compactFields = false;
+        }
         bout.setBlockDataMode(true);
         if (extendedDebugInfo) {
             debugInfoStack = new DebugTraceInfoStack();
@@ -279,6 +328,8 @@ public class ObjectOutputStream
         handles = null;
         subs = null;
         enableOverride = true;
+        dictionary = null;
+        compactFields = false;
         debugInfoStack = null;
     }
 
@@ -1276,7 +1327,9 @@ public class ObjectOutputStream
         bout.writeByte(TC_CLASSDESC);
         handles.assign(unshared ? null : desc);
 
-        if (protocol == PROTOCOL_VERSION_1) {
+        if (dictionary != null) {
+            dictionary.writeClassDescriptor(this, desc);
+        } else if (protocol == PROTOCOL_VERSION_1) {
             // do not invoke class descriptor write hook with old protocol
             desc.writeNonProxy(this);
         } else {
@@ -1533,7 +1586,7 @@ public class ObjectOutputStream
                 primVals = new byte[primDataSize];
             }
             desc.getPrimFieldValues(obj, primVals);
-            bout.write(primVals, 0, primDataSize, false);
+            writePrimFieldValues(desc, primVals, primDataSize);
         }
 
         int numObjFields = desc.getNumObjFields();
@@ -1561,6 +1614,23 @@ public class ObjectOutputStream
         }
     }
 
+    /**
+     * Writes the primitive field values of the given class descriptor from
+     * the given buffer, in the compact encoding if the stream header selected
+     * it.
+     */
+    private void writePrimFieldValues(ObjectStreamClass desc, byte[] vals,
+                                      int len)
+        throws IOException
+    {
+        if (compactFields) {
+            ObjectStreamDictionary.writeCompactFields(bout,
+                desc.getFields(false), vals);
+        } else {
+            bout.write(vals, 0, len, false);
+        }
+    }
+
     /**
      * Attempts to write to stream fatal IOException that has caused
      * serialization to abort.
@@ -1681,6 +1751,12 @@ public class ObjectOutputStream
             if (ObjectOutputStream.this != out) {
                 throw new IllegalArgumentException("wrong stream");
             }
+            if (compactFields && primVals.length > 0) {
+                // the reader expects the compact encoding, which this
+                // method cannot produce in block data mode
+                throw new IOException(
+                    "cannot write primitive fields to a compact stream");
+            }
             out.write(primVals, 0, primVals.length);
 
             ObjectStreamField[] fields = desc.getFields(false);
@@ -1698,7 +1774,7 @@ public class ObjectOutputStream
          * Writes buffered primitive data and object fields to stream.
          */
         void writeFields() throws IOException {
-            bout.write(primVals, 0, primVals.length, false);
+            writePrimFieldValues(desc, primVals, primVals.length);
 
             ObjectStreamField[] fields = desc.getFields(false);
             int numPrimFields = fields.length - objVals.length;
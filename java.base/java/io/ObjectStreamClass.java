@@ -93,6 +93,15 @@ public class ObjectStreamClass implements Serializable {
         AccessController.doPrivileged(
             new ReflectionFactory.GetReflectionFactoryAction());
 
+    /**
+     * true if the field reflectors compile field accessors, as selected by
+     * the "jdk.serialCompileFieldAccessors" property
+     */
+    private static final boolean compileFieldAccessors =
+        AccessController.doPrivileged(
+            new sun.security.action.GetBooleanAction(
+                "jdk.serialCompileFieldAccessors")).booleanValue();
+
     private static class Caches {
         /** cache mapping local classes -> descriptors */
         static final ConcurrentMap<WeakClassKey,Reference<?>> localDescs =
@@ -1961,6 +1970,8 @@ public class ObjectStreamClass implements Serializable {
         private final char[] typeCodes;
         /** field types */
         private final Class<?>[] types;
+        /** compiled field accessor, if any */
+        private final FieldAccessor accessor;
 
         /**
          * Constructs FieldReflector capable of setting/getting values from the
@@ -1997,6 +2008,29 @@ public class ObjectStreamClass implements Serializable {
 
             types = typeList.toArray(new Class<?>[typeList.size()]);
             numPrimFields = nfields - types.length;
+            accessor = compileFieldAccessors ? compile() : null;
+        }
+
+        /**
+         * Returns a field accessor compiled for the fields of this reflector,
+         * or null if they cannot all be read, or the accessor cannot be
+         * generated.
+         */
+        private FieldAccessor compile() {
+            if (fields.length == 0) {
+                return null;
+            }
+            for (long key : readKeys) {
+                if (key == Unsafe.INVALID_FIELD_OFFSET) {
+                    return null;
+                }
+            }
+            try {
+                return FieldAccessorGenerator.generate(readKeys, writeKeys,
+                    offsets, typeCodes, numPrimFields);
+            } catch (RuntimeException | LinkageError ex) {
+                return null;
+            }
         }
 
         /**
@@ -2018,6 +2052,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.getPrimFieldValues(obj, buf);
+                return;
+            }
             /* assuming checkDefaultSerialize() has been called on the class
              * descriptor this FieldReflector was obtained from, no field keys
              * in array should be equal to Unsafe.INVALID_FIELD_OFFSET.
@@ -2073,6 +2111,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.setPrimFieldValues(obj, buf);
+                return;
+            }
             for (int i = 0; i < numPrimFields; i++) {
                 long key = writeKeys[i];
                 if (key == Unsafe.INVALID_FIELD_OFFSET) {
@@ -2127,6 +2169,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.getObjFieldValues(obj, vals);
+                return;
+            }
             /* assuming checkDefaultSerialize() has been called on the class
              * descriptor this FieldReflector was obtained from, no field keys
              * in array should be equal to Unsafe.INVALID_FIELD_OFFSET.
@@ -2269,6 +2315,31 @@ public class ObjectStreamClass implements Serializable {
         }
     }
 
+    /**
+     * Accessor for the serializable fields of a class, compiled by
+     * FieldAccessorGenerator for a FieldReflector, which checks the
+     * arguments before calling it.
+     */
+    interface FieldAccessor {
+        /**
+         * Fetches the serializable primitive field values of object obj and
+         * marshals them into byte array buf starting at offset 0.
+         */
+        void getPrimFieldValues(Object obj, byte[] buf);
+
+        /**
+         * Sets the serializable primitive fields of object obj using values
+         * unmarshalled from byte array buf starting at offset 0.
+         */
+        void setPrimFieldValues(Object obj, byte[] buf);
+
+        /**
+         * Fetches the serializable object field values of object obj and
+         * stores them in array vals starting at offset 0.
+         */
+        void getObjFieldValues(Object obj, Object[] vals);
+    }
+
     /**
      * FieldReflector cache lookup key.  Keys are considered equal if they
      * refer to the same class and equivalent field formats.
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A dictionary of class descriptors shared by the successive serialization
+ * streams of one connection.  Both ends of a connection create a dictionary,
+ * and pass it to each {@link ObjectOutputStream} or {@link ObjectInputStream}
+ * which they create for the connection, in the same order.  The first time a
+ * class descriptor is written to one of the streams, it is written in full
+ * and assigned the next identifier of the dictionary; every later stream
+ * writes the identifier alone, which the receiving dictionary maps back to
+ * the descriptor it read first.
+ *
+ * <p>The writer of a stream may also choose to write the values of primitive
+ * fields in a compact encoding, in which {@code short}, {@code char},
+ * {@code int} and {@code long} values are written as variable-length
+ * integers, of one byte for small values.  The choice is recorded in the
+ * stream header, so that the reader needs no configuration.
+ *
+ * <p>Streams created with a dictionary are not in the format defined by the
+ * Object Serialization specification, and can be read only by an
+ * {@code ObjectInputStream} with a dictionary which has read all the
+ * streams previously written with the writer's dictionary, in the order in
+ * which they were written.  A dictionary serves one direction of a
+ * connection, for either output or input streams, and is not safe for use
+ * by multiple concurrent streams.
+ *
+ * <p>The dictionary holds the class descriptors it has seen, and so their
+ * classes, until it is no longer referenced.
+ *
+ * @see     ObjectOutputStream#ObjectOutputStream(OutputStream, ObjectStreamDictionary)
+ * @see     ObjectInputStream#ObjectInputStream(InputStream, ObjectStreamDictionary)
+ * @since 12
+ */
+public final class ObjectStreamDictionary {
+
+    /** stream header flag: primitive field values are compact */
+    static final int COMPACT_FIELDS = 0x01;
+
+    /** whether output streams write compact primitive field values */
+    private final boolean compactFields;
+
+    /** identifiers of the descriptors written, for output */
+    private HashMap<ObjectStreamClass, Integer> ids;
+    /** descriptors read, indexed by identifier, for input */
+    private ArrayList<ObjectStreamClass> descs;
+
+    /**
+     * Creates an empty dictionary, for streams which write the values of
+     * primitive fields in the standard encoding.
+     */
+    public ObjectStreamDictionary() {
+        this(false);
+    }
+
+    /**
+     * Creates an empty dictionary.
+     *
+     * @param   compactFields whether the output streams created with this
+     *          dictionary write the values of primitive fields in the
+     *          compact encoding; ignored by input streams, which follow the
+     *          writer's choice
+     */
+    public ObjectStreamDictionary(boolean compactFields) {
+        this.compactFields = compactFields;
+    }
+
+    /**
+     * Returns the number of class descriptors in this dictionary.
+     *
+     * @return  the number of class descriptors written or read
+     */
+    public int size() {
+        return (ids != null) ? ids.size() : (descs != null) ? descs.size() : 0;
+    }
+
+    /**
+     * Returns the stream header flags of output streams.
+     */
+    int flags() {
+        return compactFields ? COMPACT_FIELDS : 0;
+    }
+
+    /**
+     * Writes the given non-proxy class descriptor, in full if it is not yet
+     * in the dictionary, as a varint of its identifier shifted left by one,
+     * with the low bit set if the descriptor follows.
+     */
+    void writeClassDescriptor(ObjectOutputStream out, ObjectStreamClass desc)
+        throws IOException
+    {
+        if (ids == null) {
+            if (descs != null) {
+                throw new IllegalStateException("dictionary used for input");
+            }
+            ids = new HashMap<>();
+        }
+        Integer id = ids.get(desc);
+        if (id != null) {
+            writeVarLong(out, (long) id << 1);
+        } else {
+            id = ids.size();
+            writeVarLong(out, ((long) id << 1) | 1);
+            desc.writeNonProxy(out);
+            ids.put(desc, id);
+        }
+    }
+
+    /**
+     * Reads a non-proxy class descriptor written by writeClassDescriptor.
+     */
+    ObjectStreamClass readClassDescriptor(ObjectInputStream in)
+        throws IOException, ClassNotFoundException
+    {
+        if (descs == null) {
+            if (ids != null) {
+                throw new IllegalStateException("dictionary used for output");
+            }
+            descs = new ArrayList<>();
+        }
+        long v = readVarLong(in);
+        long id = v >>> 1;
+        if ((v & 1) != 0) {
+            if (id != descs.size()) {
+                throw new StreamCorruptedException(
+                    "class descriptor dictionary out of sync");
+            }
+            ObjectStreamClass desc = new ObjectStreamClass();
+            desc.readNonProxy(in);
+            descs.add(desc);
+            return desc;
+        } else if (id < descs.size()) {
+            return descs.get((int) id);
+        } else {
+            throw new StreamCorruptedException(
+                "invalid class descriptor id " + id);
+        }
+    }
+
+    /**
+     * Writes the values of the given primitive fields, at their offsets in
+     * the given buffer, in the compact encoding.
+     */
+    static void writeCompactFields(DataOutput out, ObjectStreamField[] fields,
+                                   byte[] buf)
+        throws IOException
+    {
+        for (ObjectStreamField f : fields) {
+            int off = f.getOffset();
+            switch (f.getTypeCode()) {
+                case 'Z':
+                case 'B':
+                    out.writeByte(buf[off]);
+                    break;
+                case 'C':
+                    writeVarLong(out, Bits.getChar(buf, off));
+                    break;
+                case 'S':
+                    writeVarLong(out, zigZag(Bits.getShort(buf, off)));
+                    break;
+                case 'I':
+                    writeVarLong(out, zigZag(Bits.getInt(buf, off)));
+                    break;
+                case 'J':
+                    writeVarLong(out, zigZag(Bits.getLong(buf, off)));
+                    break;
+                case 'F':
+                    out.write(buf, off, 4);
+                    break;
+                case 'D':
+                    out.write(buf, off, 8);
+                    break;
+                default:
+                    return;         // object fields follow
+            }
+        }
+    }
+
+    /**
+     * Reads the values of the given primitive fields in the compact
+     * encoding, into the given buffer at their offsets.
+     */
+    static void readCompactFields(DataInput in, ObjectStreamField[] fields,
+                                  byte[] buf)
+        throws IOException
+    {
+        for (ObjectStreamField f : fields) {
+            int off = f.getOffset();
+            switch (f.getTypeCode()) {
+                case 'Z':
+                case 'B':
+                    buf[off] = in.readByte();
+                    break;
+                case 'C':
+                    Bits.putChar(buf, off, (char) readVarLong(in));
+                    break;
+                case 'S':
+                    Bits.putShort(buf, off, (short) unZigZag(readVarLong(in)));
+                    break;
+                case 'I':
+                    Bits.putInt(buf, off, (int) unZigZag(readVarLong(in)));
+                    break;
+                case 'J':
+                    Bits.putLong(buf, off, unZigZag(readVarLong(in)));
+                    break;
+                case 'F':
+                    in.readFully(buf, off, 4);
+                    break;
+                case 'D':
+                    in.readFully(buf, off, 8);
+                    break;
+                default:
+                    return;         // object fields follow
+            }
+        }
+    }
+
+    /**
+     * Maps signed values to unsigned ones, small magnitudes to small values.
+     */
+    private static long zigZag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unZigZag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Writes an unsigned value in seven-bit groups, least significant group
+     * first, with the high bit of each byte set if another byte follows.
+     */
+    private static void writeVarLong(DataOutput out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) (v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        throw new StreamCorruptedException("malformed varint");
+    }
+}
@@ -0,0 +1,608 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A growable list of primitive {@code double} values. This class provides the
+ * operations of an {@link ArrayList} of {@code Double} that make sense for
+ * primitive elements, without boxing them.
+ *
+ * <p>The elements are held in a sequence of arrays, or chunks, with the
+ * same growth strategy as the spined buffers that streams collect their
+ * elements into: the first two chunks have the initial capacity and each
+ * subsequent chunk is twice as large as the one before it. Growing the
+ * list therefore never copies elements, and the memory it holds is never
+ * more than about twice what its elements need. Because the chunk sizes
+ * are powers of two, the chunk and the offset of any index are found with
+ * a few bit operations, and the {@code get} and {@code set} operations run
+ * in constant time.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a {@code DoubleArrayList} concurrently, and at
+ * least one of the threads modifies the list structurally, it <i>must</i> be
+ * synchronized externally.
+ *
+ * <p>The iterators and spliterators returned by this class are
+ * <em>fail-fast</em>, in the same way as those of {@code ArrayList}.
+ *
+ * @see ArrayList
+ * @since 12
+ */
+public class DoubleArrayList {
+
+    /**
+     * The power of two of the capacity of the first two chunks.
+     */
+    private final int chunkPower;
+
+    /**
+     * The chunks, allocated on demand. The first one is always allocated.
+     */
+    private double[][] spine;
+
+    /**
+     * The number of elements in this list.
+     */
+    private int size;
+
+    /**
+     * The number of times this list has been structurally modified.
+     */
+    private int modCount;
+
+    /**
+     * Constructs an empty list with an initial capacity of sixteen.
+     */
+    public DoubleArrayList() {
+        this(1 << MIN_CHUNK_POWER);
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     *
+     * @param  initialCapacity  the initial capacity of the list
+     * @throws IllegalArgumentException if the specified initial capacity
+     *         is negative
+     */
+    public DoubleArrayList(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal Capacity: "+
+                                               initialCapacity);
+        // at most 1 << 30, the largest power of two array size
+        chunkPower = Math.min(Integer.SIZE - 2,
+                Math.max(MIN_CHUNK_POWER,
+                         Integer.SIZE - Integer.numberOfLeadingZeros(
+                                 Math.max(initialCapacity, 1) - 1)));
+        spine = new double[MIN_SPINE_SIZE][];
+        spine[0] = new double[1 << chunkPower];
+    }
+
+    /**
+     * Constructs a list containing the elements of the specified array, in
+     * order.
+     *
+     * @param a the array whose elements are to be placed into this list
+     * @throws NullPointerException if the specified array is null
+     */
+    public DoubleArrayList(double[] a) {
+        this(a.length);
+        addAll(a);
+    }
+
+    /**
+     * Returns the chunk holding the element at the given index.
+     */
+    private int chunkOf(int index) {
+        return index < (1 << chunkPower)
+                ? 0
+                : Integer.SIZE - Integer.numberOfLeadingZeros(index) - chunkPower;
+    }
+
+    /**
+     * Returns the offset of the given index within the given chunk.
+     */
+    private static int offsetOf(int index, int chunk) {
+        return chunk == 0 ? index : index - Integer.highestOneBit(index);
+    }
+
+    /**
+     * Allocates the given chunk, growing the spine if needed.
+     */
+    private double[] inflate(int chunk) {
+        if (chunk >= spine.length)
+            spine = Arrays.copyOf(spine, spine.length << 1);
+        int power = chunkPower + chunk - 1;
+        if (power >= Integer.SIZE - 1)
+            throw new OutOfMemoryError("Required array size too large");
+        return spine[chunk] = new double[1 << power];
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: "+index+", Size: "+size;
+    }
+
+    /**
+     * Returns the number of elements in this list.
+     *
+     * @return the number of elements in this list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this list contains no elements.
+     *
+     * @return {@code true} if this list contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the element at the specified position in this list.
+     *
+     * @param  index index of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public double get(int index) {
+        rangeCheck(index);
+        int c = chunkOf(index);
+        return spine[c][offsetOf(index, c)];
+    }
+
+    /**
+     * Replaces the element at the specified position in this list with
+     * the specified element.
+     *
+     * @param index index of the element to replace
+     * @param element element to be stored at the specified position
+     * @return the element previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public double set(int index, double element) {
+        rangeCheck(index);
+        int c = chunkOf(index);
+        double[] chunk = spine[c];
+        int i = offsetOf(index, c);
+        double old = chunk[i];
+        chunk[i] = element;
+        return old;
+    }
+
+    /**
+     * Appends the specified element to the end of this list.
+     *
+     * @param e element to be appended to this list
+     */
+    public void add(double e) {
+        int index = size;
+        if (index == Integer.MAX_VALUE)
+            throw new OutOfMemoryError("Required array size too large");
+        int c = chunkOf(index);
+        double[] chunk = c < spine.length ? spine[c] : null;
+        if (chunk == null)
+            chunk = inflate(c);
+        chunk[offsetOf(index, c)] = e;
+        size = index + 1;
+        modCount++;
+    }
+
+    /**
+     * Appends all of the elements in the specified array to the end of this
+     * list, in order.
+     *
+     * @param a the elements to be appended to this list
+     * @throws NullPointerException if the specified array is null
+     */
+    public void addAll(double... a) {
+        addAll(a, 0, a.length);
+    }
+
+    /**
+     * Appends the elements of the specified array in the range
+     * {@code [from, to)} to the end of this list, in order. The elements are
+     * copied a chunk at a time.
+     */
+    private void addAll(double[] a, int from, int to) {
+        if (to - from > Integer.MAX_VALUE - size)
+            throw new OutOfMemoryError("Required array size too large");
+        while (from < to) {
+            int index = size;
+            int c = chunkOf(index);
+            double[] chunk = c < spine.length ? spine[c] : null;
+            if (chunk == null)
+                chunk = inflate(c);
+            int offset = offsetOf(index, c);
+            int n = Math.min(to - from, chunk.length - offset);
+            System.arraycopy(a, from, chunk, offset, n);
+            from += n;
+            size = index + n;
+        }
+        modCount++;
+    }
+
+    /**
+     * Appends all of the elements in the specified list to the end of this
+     * list, in order.
+     *
+     * @param l the list whose elements are to be appended to this list
+     * @throws NullPointerException if the specified list is null
+     */
+    public void addAll(DoubleArrayList l) {
+        double[][] s = l.spine;
+        for (int c = 0, remaining = l.size; remaining > 0; c++) {
+            int n = Math.min(remaining, s[c].length);
+            addAll(s[c], 0, n);
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Appends all of the elements of the specified stream to the end of this
+     * list, in encounter order if the stream has one. This is a terminal
+     * operation on the stream.
+     *
+     * @param stream the stream whose elements are to be appended to this list
+     * @throws NullPointerException if the specified stream is null
+     */
+    public void addAll(DoubleStream stream) {
+        stream.forEachOrdered(this::add);
+    }
+
+    /**
+     * Removes the element at the specified position in this list.
+     * Shifts any subsequent elements to the left (subtracts one from their
+     * indices).
+     *
+     * @param index the index of the element to be removed
+     * @return the element that was removed from the list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public double removeAt(int index) {
+        rangeCheck(index);
+        double old = get(index);
+        int last = size - 1;
+        for (int i = index, c = chunkOf(i); i < last; c++) {
+            // shift the rest of chunk c, then its first element into the
+            // last slot of the chunk before it
+            double[] chunk = spine[c];
+            int offset = offsetOf(i, c);
+            int n = Math.min(last - i, chunk.length - offset - 1);
+            System.arraycopy(chunk, offset + 1, chunk, offset, n);
+            i += n;
+            if (i < last) {
+                chunk[chunk.length - 1] = spine[c + 1][0];
+                i++;
+            }
+        }
+        size = last;
+        modCount++;
+        return old;
+    }
+
+    /**
+     * Removes all of the elements from this list. The list will be empty
+     * after this call returns. As with spined buffers, all the chunks but the
+     * first are released.
+     */
+    public void clear() {
+        modCount++;
+        size = 0;
+        if (spine.length > MIN_SPINE_SIZE)
+            spine = Arrays.copyOf(spine, MIN_SPINE_SIZE);
+        Arrays.fill(spine, 1, spine.length, null);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element
+     * in this list, or -1 if this list does not contain the element.
+     *
+     * @param o element to search for
+     * @return the index of the first occurrence of the specified element in
+     *         this list, or -1 if this list does not contain the element
+     */
+    public int indexOf(double o) {
+        double[][] s = spine;
+        for (int c = 0, base = 0; base < size; c++) {
+            double[] chunk = s[c];
+            for (int i = 0, n = Math.min(size - base, chunk.length); i < n; i++) {
+                if (Double.doubleToLongBits(chunk[i]) == Double.doubleToLongBits(o))
+                    return base + i;
+            }
+            base += chunk.length;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if this list contains the specified element.
+     *
+     * @param o element whose presence in this list is to be tested
+     * @return {@code true} if this list contains the specified element
+     */
+    public boolean contains(double o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Sorts this list into ascending numerical order, as by
+     * {@link Arrays#sort(double[])}.
+     */
+    public void sort() {
+        double[] a = toArray();
+        Arrays.sort(a);
+        double[][] s = spine;
+        for (int c = 0, base = 0; base < a.length; c++) {
+            int n = Math.min(a.length - base, s[c].length);
+            System.arraycopy(a, base, s[c], 0, n);
+            base += n;
+        }
+        modCount++;
+    }
+
+    /**
+     * Searches this list for the specified value using the binary search
+     * algorithm. The list must be sorted, as by {@link #sort()}, prior to
+     * making this call. If it is not sorted, the results are undefined.
+     *
+     * @param key the value to be searched for
+     * @return index of the search key, if it is contained in the list;
+     *         otherwise, <code>(-(<i>insertion point</i>) - 1)</code>, with
+     *         the insertion point defined as in
+     *         {@link Arrays#binarySearch(double[], double)}
+     */
+    public int binarySearch(double key) {
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = chunkOf(mid);
+            int cmp = Double.compare(spine[c][offsetOf(mid, c)], key);
+
+            if (cmp < 0)
+                low = mid + 1;
+            else if (cmp > 0)
+                high = mid - 1;
+            else
+                return mid; // key found
+        }
+        return -(low + 1);  // key not found.
+    }
+
+    /**
+     * Returns an array containing all of the elements in this list in
+     * proper sequence (from first to last element).
+     *
+     * @return an array containing all of the elements in this list in
+     *         proper sequence
+     */
+    public double[] toArray() {
+        double[] a = new double[size];
+        double[][] s = spine;
+        for (int c = 0, base = 0; base < a.length; c++) {
+            int n = Math.min(a.length - base, s[c].length);
+            System.arraycopy(s[c], 0, a, base, n);
+            base += n;
+        }
+        return a;
+    }
+
+    /**
+     * Performs the given action for each element of this list, in order,
+     * until all elements have been processed or the action throws an
+     * exception.
+     *
+     * @param action The action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if the list is structurally
+     *         modified during iteration
+     */
+    public void forEach(DoubleConsumer action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        final int size = this.size;
+        double[][] s = spine;
+        for (int c = 0, base = 0; base < size && modCount == expectedModCount; c++) {
+            double[] chunk = s[c];
+            for (int i = 0, n = Math.min(size - base, chunk.length); i < n; i++)
+                action.accept(chunk[i]);
+            base += chunk.length;
+        }
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     *
+     * @return an iterator over the elements in this list in proper sequence
+     */
+    public PrimitiveIterator.OfDouble iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Creates a <em>late-binding</em> and <em>fail-fast</em>
+     * {@link Spliterator.OfDouble} over the elements in this list.
+     *
+     * <p>The {@code Spliterator} reports {@link Spliterator#SIZED},
+     * {@link Spliterator#SUBSIZED}, and {@link Spliterator#ORDERED}.
+     *
+     * @return a {@code Spliterator.OfDouble} over the elements in this list
+     */
+    public Spliterator.OfDouble spliterator() {
+        return new DoubleListSpliterator(0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential {@code DoubleStream} with this list as its source.
+     *
+     * @return a sequential {@code DoubleStream} over the elements in this list
+     */
+    public DoubleStream stream() {
+        return StreamSupport.doubleStream(spliterator(), false);
+    }
+
+    /**
+     * Compares the specified object with this list for equality. Returns
+     * {@code true} if the specified object is also a {@code DoubleArrayList},
+     * both lists have the same size, and all corresponding pairs of elements
+     * are equal in the sense of {@link Double#equals(Object)}.
+     *
+     * @param o the object to be compared for equality with this list
+     * @return {@code true} if the specified object is equal to this list
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof DoubleArrayList))
+            return false;
+        DoubleArrayList l = (DoubleArrayList) o;
+        if (l.size != size)
+            return false;
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(get(i)) != Double.doubleToLongBits(l.get(i)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this list. It is the same as the hash
+     * code of a {@code List<Double>} holding the same elements.
+     *
+     * @return the hash code value for this list
+     */
+    @Override
+    public int hashCode() {
+        int[] hash = { 1 };
+        forEach(e -> hash[0] = 31 * hash[0] + Double.hashCode(e));
+        return hash[0];
+    }
+
+    /**
+     * Returns a string representation of this list, in the same form as
+     * {@link AbstractCollection#toString()}.
+     *
+     * @return a string representation of this list
+     */
+    @Override
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ", "[", "]");
+        forEach(e -> sj.add(String.valueOf(e)));
+        return sj.toString();
+    }
+
+    /** Index-based split-by-two, lazily initialized Spliterator */
+    final class DoubleListSpliterator implements Spliterator.OfDouble {
+
+        private int index; // current index, modified on advance/split
+        private int fence; // -1 until used; then one past last index
+        private int expectedModCount; // initialized when fence set
+
+        /** Creates new spliterator covering the given range. */
+        DoubleListSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() { // initialize fence to size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                expectedModCount = modCount;
+                hi = fence = size;
+            }
+            return hi;
+        }
+
+        public DoubleListSpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null : // divide range in half unless too small
+                new DoubleListSpliterator(lo, index = mid, expectedModCount);
+        }
+
+        public boolean tryAdvance(DoubleConsumer action) {
+            Objects.requireNonNull(action);
+            int hi = getFence(), i = index;
+            if (i < hi) {
+                index = i + 1;
+                int c = chunkOf(i);
+                action.accept(spine[c][offsetOf(i, c)]);
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(DoubleConsumer action) {
+            Objects.requireNonNull(action);
+            int hi = getFence(), i = index;
+            index = hi;
+            while (i < hi) {
+                // traverse a chunk at a time
+                int c = chunkOf(i);
+                double[] chunk = spine[c];
+                int offset = offsetOf(i, c);
+                int end = offset + Math.min(hi - i, chunk.length - offset);
+                for (int j = offset; j < end; j++)
+                    action.accept(chunk[j]);
+                i += end - offset;
+            }
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    // The chunk sizes of spined buffers; see AbstractSpinedBuffer
+    private static final int MIN_CHUNK_POWER = 4;
+    private static final int MIN_SPINE_SIZE = 8;
+}
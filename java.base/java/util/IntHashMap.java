@@ -0,0 +1,734 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.util.function.BiFunction;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A hash table mapping primitive {@code int} keys to object values. This
+ * class provides the same operations as {@link HashMap}, for the subset
+ * of them that apply to a map whose keys are {@code int} values, without
+ * boxing the keys. It permits {@code null} values. This class makes no
+ * guarantees as to the order of the map.
+ *
+ * <p>The map is an open-addressing table with linear probing, which keeps
+ * the keys in a single {@code int} array and the values in a parallel
+ * array. Removal shifts the following entries back rather than leaving
+ * deleted markers behind, so lookups do not degrade as entries are
+ * removed. The table is kept at most half full, and is doubled when
+ * that threshold is exceeded. The {@code get} and {@code put} operations
+ * run in constant time on average.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access an {@code IntHashMap} concurrently, and at
+ * least one of the threads modifies the map structurally, it <i>must</i> be
+ * synchronized externally.
+ *
+ * <p>The spliterators returned by {@link #keySpliterator()} and the streams
+ * returned by {@link #keys()} are <em>fail-fast</em> in the same way as the
+ * iterators of {@code HashMap}: if the map is structurally modified during
+ * the traversal, they throw a {@link ConcurrentModificationException} on a
+ * best-effort basis.
+ *
+ * @param <V> the type of mapped values
+ *
+ * @see LongHashMap
+ * @see IntHashSet
+ * @see HashMap
+ * @since 12
+ */
+public class IntHashMap<V> {
+
+    /**
+     * The default initial capacity.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * The maximum capacity. The table must be a power of two that is at most
+     * twice this, so that it can never be more than half full.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 29;
+
+    /**
+     * The keys, 0 marking a free slot. Key 0 itself is held out of the table.
+     */
+    private int[] keys;
+
+    /**
+     * The values, parallel to keys.
+     */
+    private Object[] values;
+
+    /**
+     * Whether key 0 is mapped, and the value it is mapped to.
+     */
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    private int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    private int modCount;
+
+    /**
+     * Constructs an empty {@code IntHashMap} with the default initial
+     * capacity (16).
+     */
+    public IntHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty {@code IntHashMap} that can hold the specified
+     * number of mappings without being resized.
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public IntHashMap(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        int length = tableSizeFor(initialCapacity);
+        keys = new int[length];
+        values = new Object[length];
+    }
+
+    /**
+     * Constructs a new {@code IntHashMap} with the same mappings as the
+     * specified {@code IntHashMap}.
+     *
+     * @param  m the map whose mappings are to be placed in this map
+     * @throws NullPointerException if the specified map is null
+     */
+    public IntHashMap(IntHashMap<? extends V> m) {
+        keys = m.keys.clone();
+        values = m.values.clone();
+        hasZeroKey = m.hasZeroKey;
+        zeroValue = m.zeroValue;
+        size = m.size;
+    }
+
+    /**
+     * Returns the length of a table that can hold the given number of
+     * entries while at most half full.
+     */
+    static int tableSizeFor(int capacity) {
+        int c = Math.min(Math.max(capacity, 2), MAXIMUM_CAPACITY);
+        return Integer.highestOneBit(c - 1) << 2;
+    }
+
+    /**
+     * Spreads the bits of a key so that keys that differ only in their high
+     * bits, or that follow each other, do not cluster in the table.
+     */
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the slot holding the given non-zero key, or the complement of
+     * the free slot where it would be inserted.
+     */
+    private int slotOf(int key) {
+        int[] ks = keys;
+        int mask = ks.length - 1;
+        int i = hash(key) & mask;
+        int k;
+        while ((k = ks[i]) != 0) {
+            if (k == key)
+                return i;
+            i = (i + 1) & mask;
+        }
+        return ~i;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key.
+     *
+     * <p>A return value of {@code null} does not <i>necessarily</i> indicate
+     * that the map contains no mapping for the key; it's also possible that
+     * the map explicitly maps the key to {@code null}. The {@link
+     * #containsKey containsKey} operation may be used to distinguish these
+     * two cases.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     */
+    public V get(int key) {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     *         {@code defaultValue} if this map contains no mapping for the key
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(int key, V defaultValue) {
+        if (key == 0)
+            return hasZeroKey ? zeroValue : defaultValue;
+        int i = slotOf(key);
+        return i >= 0 ? (V) values[i] : defaultValue;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param   key   The key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key.
+     */
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : slotOf(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(Object value) {
+        if (hasZeroKey && Objects.equals(zeroValue, value))
+            return true;
+        int[] ks = keys;
+        Object[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != 0 && Objects.equals(vs[i], value))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     *         (A {@code null} return can also indicate that the map
+     *         previously associated {@code null} with {@code key}.)
+     */
+    public V put(int key, V value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is
+     * mapped to {@code null}) associates it with the given value and returns
+     * {@code null}, else returns the current value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key.
+     */
+    public V putIfAbsent(int key, V value) {
+        return put(key, value, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V put(int key, V value, boolean onlyIfAbsent) {
+        if (key == 0) {
+            V old = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+                modCount++;
+            } else if (onlyIfAbsent && old != null) {
+                return old;
+            }
+            zeroValue = value;
+            return old;
+        }
+        int i = slotOf(key);
+        if (i >= 0) {
+            V old = (V) values[i];
+            if (!onlyIfAbsent || old == null)
+                values[i] = value;
+            return old;
+        }
+        insert(~i, key, value);
+        return null;
+    }
+
+    /**
+     * Inserts a new mapping at the given free slot, growing the table
+     * if it would then be more than half full. A table which cannot grow
+     * is rejected before the map is changed.
+     */
+    private void insert(int i, int key, Object value) {
+        if (size >= keys.length >>> 1 && keys.length >= MAXIMUM_CAPACITY << 1)
+            throw new IllegalStateException("IntHashMap is full");
+        keys[i] = key;
+        values[i] = value;
+        modCount++;
+        if (++size > keys.length >>> 1)
+            resize();
+    }
+
+    /**
+     * Doubles the table, reinserting every entry.
+     */
+    private void resize() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int length = oldKeys.length << 1;
+        int mask = length - 1;
+        int[] ks = new int[length];
+        Object[] vs = new Object[length];
+        for (int j = 0; j < oldKeys.length; j++) {
+            int k = oldKeys[j];
+            if (k != 0) {
+                int i = hash(k) & mask;
+                while (ks[i] != 0)
+                    i = (i + 1) & mask;
+                ks[i] = k;
+                vs[i] = oldValues[j];
+            }
+        }
+        keys = ks;
+        values = vs;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     *         (A {@code null} return can also indicate that the map
+     *         previously associated {@code null} with {@code key}.)
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key == 0) {
+            V old = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = null;
+                size--;
+                modCount++;
+            }
+            return old;
+        }
+        int i = slotOf(key);
+        if (i < 0)
+            return null;
+        V old = (V) values[i];
+        removeAt(i);
+        return old;
+    }
+
+    /**
+     * Empties the given slot, then moves back any entry of the cluster
+     * that follows it which would no longer be reachable from its home slot.
+     */
+    private void removeAt(int i) {
+        int[] ks = keys;
+        Object[] vs = values;
+        int mask = ks.length - 1;
+        int j = i;
+        int k;
+        while ((k = ks[j = (j + 1) & mask]) != 0) {
+            int home = hash(k) & mask;
+            // move the entry at j to i unless its home lies cyclically
+            // in (i, j]
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                ks[i] = k;
+                vs[i] = vs[j];
+                i = j;
+            }
+        }
+        ks[i] = 0;
+        vs[i] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        modCount++;
+        if (size > 0) {
+            size = 0;
+            hasZeroKey = false;
+            zeroValue = null;
+            Arrays.fill(keys, 0);
+            Arrays.fill(values, null);
+        }
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is
+     * mapped to {@code null}), attempts to compute its value using the given
+     * mapping function and enters it into this map unless {@code null}.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the mapping function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int key,
+                             IntFunction<? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        V v = get(key);
+        if (v != null)
+            return v;
+        int mc = modCount;
+        v = mappingFunction.apply(key);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        if (v != null)
+            put(key, v);
+        return v;
+    }
+
+    /**
+     * If the specified key is not already associated with a value or is
+     * associated with null, associates it with the given non-null value.
+     * Otherwise, replaces the associated value with the results of the given
+     * remapping function, or removes if the result is {@code null}.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the non-null value to be merged with the existing value
+     *        associated with the key or, if no existing value or a null value
+     *        is associated with the key, to be associated with the key
+     * @param remappingFunction the remapping function to recompute a value if
+     *        present
+     * @return the new value associated with the specified key, or null if no
+     *         value is associated with the key
+     * @throws NullPointerException if the value or the remapping function is
+     *         null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         remapping function modified this map
+     */
+    public V merge(int key, V value,
+                   BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        V old = get(key);
+        V v;
+        if (old == null) {
+            v = value;
+        } else {
+            int mc = modCount;
+            v = remappingFunction.apply(old, value);
+            if (mc != modCount)
+                throw new ConcurrentModificationException();
+        }
+        if (v == null)
+            remove(key);
+        else
+            put(key, v);
+        return v;
+    }
+
+    /**
+     * Performs the given action for each mapping in this map until all
+     * mappings have been processed or the action throws an exception.
+     * The action is passed the value and then the key of each mapping.
+     *
+     * @param action The action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if a mapping is found to be
+     *         added or removed during iteration
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjIntConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        int mc = modCount;
+        if (hasZeroKey)
+            action.accept(zeroValue, 0);
+        int[] ks = keys;
+        Object[] vs = values;
+        for (int i = 0; i < ks.length && mc == modCount; i++) {
+            if (ks[i] != 0)
+                action.accept((V) vs[i], ks[i]);
+        }
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an array containing the keys of this map, in no particular
+     * order.
+     *
+     * @return an array containing the keys of this map
+     */
+    public int[] keysToArray() {
+        int[] a = new int[size];
+        int n = 0;
+        if (hasZeroKey)
+            a[n++] = 0;
+        for (int k : keys) {
+            if (k != 0)
+                a[n++] = k;
+        }
+        return a;
+    }
+
+    /**
+     * Creates a <em>late-binding</em> and <em>fail-fast</em>
+     * {@link Spliterator.OfInt} over the keys of this map.
+     *
+     * <p>The spliterator reports {@link Spliterator#SIZED} and
+     * {@link Spliterator#DISTINCT}, and splits into parts whose sizes are
+     * estimates.
+     *
+     * @return a {@code Spliterator.OfInt} over the keys of this map
+     */
+    public Spliterator.OfInt keySpliterator() {
+        return new KeySpliterator(this, -1, 0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} of the keys of this map.
+     *
+     * @return a sequential {@code IntStream} of the keys of this map
+     */
+    public IntStream keys() {
+        return StreamSupport.intStream(keySpliterator(), false);
+    }
+
+    /**
+     * Compares the specified object with this map for equality. Returns
+     * {@code true} if the given object is also an {@code IntHashMap} and the
+     * two maps contain the same mappings.
+     *
+     * @param o object to be compared for equality with this map
+     * @return {@code true} if the specified object is equal to this map
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof IntHashMap))
+            return false;
+        IntHashMap<?> m = (IntHashMap<?>) o;
+        if (m.size != size || m.hasZeroKey != hasZeroKey)
+            return false;
+        if (hasZeroKey && !Objects.equals(zeroValue, m.zeroValue))
+            return false;
+        int[] ks = keys;
+        Object[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            int k = ks[i];
+            if (k != 0) {
+                int j = m.slotOf(k);
+                if (j < 0 || !Objects.equals(vs[i], m.values[j]))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this map. It is the sum of
+     * {@code Integer.hashCode(key) ^ Objects.hashCode(value)} over all
+     * mappings, as for a {@code Map<Integer,V>} with the same mappings.
+     *
+     * @return the hash code value for this map
+     */
+    @Override
+    public int hashCode() {
+        int h = hasZeroKey ? Objects.hashCode(zeroValue) : 0;
+        int[] ks = keys;
+        Object[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != 0)
+                h += Integer.hashCode(ks[i]) ^ Objects.hashCode(vs[i]);
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this map, in the same form as
+     * {@link AbstractMap#toString()}.
+     *
+     * @return a string representation of this map
+     */
+    @Override
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ", "{", "}");
+        forEach((v, k) -> sj.add(k + "=" + (v == this ? "(this Map)" : v)));
+        return sj.toString();
+    }
+
+    /**
+     * A spliterator over the slots [index, fence) of the table; index -1
+     * stands for key 0, which is held out of the table.
+     */
+    static final class KeySpliterator implements Spliterator.OfInt {
+        private final IntHashMap<?> map;
+        private int index;        // current index, modified on advance/split
+        private int fence;        // -1 until first use
+        private int est;          // size estimate
+        private int expectedModCount;
+
+        KeySpliterator(IntHashMap<?> map, int origin, int fence, int est,
+                       int expectedModCount) {
+            this.map = map;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0 || est < 0) {
+                est = map.size;
+                expectedModCount = map.modCount;
+                hi = fence = map.keys.length;
+            }
+            return hi;
+        }
+
+        @Override
+        public KeySpliterator trySplit() {
+            int hi = getFence(), lo = Math.max(index, 0),
+                mid = (lo + hi) >>> 1;
+            if (lo >= mid)
+                return null;
+            KeySpliterator prefix = new KeySpliterator(map, index, mid,
+                                                       est >>>= 1,
+                                                       expectedModCount);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            int[] ks = map.keys;
+            if (index < 0) {
+                index = 0;
+                if (map.hasZeroKey) {
+                    action.accept(0);
+                    checkForComodification();
+                    return true;
+                }
+            }
+            while (index < hi) {
+                int k = ks[index++];
+                if (k != 0) {
+                    action.accept(k);
+                    checkForComodification();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            int[] ks = map.keys;
+            int i = index;
+            index = hi;
+            if (i < 0) {
+                i = 0;
+                if (map.hasZeroKey)
+                    action.accept(0);
+            }
+            for (; i < hi; i++) {
+                int k = ks[i];
+                if (k != 0)
+                    action.accept(k);
+            }
+            checkForComodification();
+        }
+
+        private void checkForComodification() {
+            if (map.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() {
+            getFence(); // force init
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT;
+        }
+    }
+}
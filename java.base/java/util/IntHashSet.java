@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A hash set of primitive {@code int} values. This class provides the same
+ * operations as {@link HashSet}, for the subset of them that apply to a set
+ * of {@code int} values, without boxing the elements. This class makes no
+ * guarantees as to the iteration order of the set.
+ *
+ * <p>The set is an open-addressing table with linear probing, laid out in a
+ * single {@code int} array, in the same way as the keys of an
+ * {@link IntHashMap}. The {@code add}, {@code remove} and {@code contains}
+ * operations run in constant time on average.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access an {@code IntHashSet} concurrently, and at
+ * least one of the threads modifies the set, it <i>must</i> be synchronized
+ * externally.
+ *
+ * <p>The spliterators returned by {@link #spliterator()} and the streams
+ * returned by {@link #stream()} are <em>fail-fast</em>: if the set is
+ * modified during the traversal, they throw a
+ * {@link ConcurrentModificationException} on a best-effort basis.
+ *
+ * @see LongHashSet
+ * @see IntHashMap
+ * @see HashSet
+ * @since 12
+ */
+public class IntHashSet {
+
+    /**
+     * The elements, 0 marking a free slot. Element 0 itself is held out of
+     * the table.
+     */
+    private int[] elements;
+
+    /**
+     * Whether this set contains 0.
+     */
+    private boolean hasZero;
+
+    /**
+     * The number of elements in this set.
+     */
+    private int size;
+
+    /**
+     * The number of times this set has been modified.
+     */
+    private int modCount;
+
+    /**
+     * Constructs an empty {@code IntHashSet} with the default initial
+     * capacity (16).
+     */
+    public IntHashSet() {
+        this(IntHashMap.DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty {@code IntHashSet} that can hold the specified
+     * number of elements without being resized.
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public IntHashSet(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        elements = new int[IntHashMap.tableSizeFor(initialCapacity)];
+    }
+
+    /**
+     * Constructs a new {@code IntHashSet} containing the elements of the
+     * specified {@code IntHashSet}.
+     *
+     * @param  s the set whose elements are to be placed into this set
+     * @throws NullPointerException if the specified set is null
+     */
+    public IntHashSet(IntHashSet s) {
+        elements = s.elements.clone();
+        hasZero = s.hasZero;
+        size = s.size;
+    }
+
+    /**
+     * Returns the slot holding the given non-zero element, or the complement
+     * of the free slot where it would be inserted.
+     */
+    private int slotOf(int e) {
+        int[] es = elements;
+        int mask = es.length - 1;
+        int i = IntHashMap.hash(e) & mask;
+        int k;
+        while ((k = es[i]) != 0) {
+            if (k == e)
+                return i;
+            i = (i + 1) & mask;
+        }
+        return ~i;
+    }
+
+    /**
+     * Returns the number of elements in this set.
+     *
+     * @return the number of elements in this set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this set contains no elements.
+     *
+     * @return {@code true} if this set contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     *
+     * @param e element whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified element
+     */
+    public boolean contains(int e) {
+        return e == 0 ? hasZero : slotOf(e) >= 0;
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     *
+     * @param e element to be added to this set
+     * @return {@code true} if this set did not already contain the specified
+     *         element
+     */
+    public boolean add(int e) {
+        if (e == 0) {
+            if (hasZero)
+                return false;
+            hasZero = true;
+        } else {
+            int i = slotOf(e);
+            if (i >= 0)
+                return false;
+            boolean grow = size + 1 > elements.length >>> 1;
+            if (grow && elements.length >= IntHashMap.MAXIMUM_CAPACITY << 1)
+                throw new IllegalStateException("IntHashSet is full");
+            elements[~i] = e;
+            if (grow)
+                resize();
+        }
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Doubles the table, reinserting every element.
+     */
+    private void resize() {
+        int[] old = elements;
+        int length = old.length << 1;
+        int mask = length - 1;
+        int[] es = new int[length];
+        for (int e : old) {
+            if (e != 0) {
+                int i = IntHashMap.hash(e) & mask;
+                while (es[i] != 0)
+                    i = (i + 1) & mask;
+                es[i] = e;
+            }
+        }
+        elements = es;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     *
+     * @param e element to be removed from this set, if present
+     * @return {@code true} if the set contained the specified element
+     */
+    public boolean remove(int e) {
+        if (e == 0) {
+            if (!hasZero)
+                return false;
+            hasZero = false;
+        } else {
+            int i = slotOf(e);
+            if (i < 0)
+                return false;
+            removeAt(i);
+        }
+        size--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Empties the given slot, then moves back any element of the cluster
+     * that follows it which would no longer be reachable from its home slot.
+     */
+    private void removeAt(int i) {
+        int[] es = elements;
+        int mask = es.length - 1;
+        int j = i;
+        int k;
+        while ((k = es[j = (j + 1) & mask]) != 0) {
+            int home = IntHashMap.hash(k) & mask;
+            // move the element at j to i unless its home lies cyclically
+            // in (i, j]
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                es[i] = k;
+                i = j;
+            }
+        }
+        es[i] = 0;
+    }
+
+    /**
+     * Removes all of the elements from this set.
+     * The set will be empty after this call returns.
+     */
+    public void clear() {
+        modCount++;
+        if (size > 0) {
+            size = 0;
+            hasZero = false;
+            Arrays.fill(elements, 0);
+        }
+    }
+
+    /**
+     * Performs the given action for each element of this set until all
+     * elements have been processed or the action throws an exception.
+     *
+     * @param action The action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if an element is found to be
+     *         added or removed during iteration
+     */
+    public void forEach(IntConsumer action) {
+        Objects.requireNonNull(action);
+        int mc = modCount;
+        if (hasZero)
+            action.accept(0);
+        int[] es = elements;
+        for (int i = 0; i < es.length && mc == modCount; i++) {
+            if (es[i] != 0)
+                action.accept(es[i]);
+        }
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set, in no
+     * particular order.
+     *
+     * @return an array containing all the elements in this set
+     */
+    public int[] toArray() {
+        int[] a = new int[size];
+        int n = 0;
+        if (hasZero)
+            a[n++] = 0;
+        for (int e : elements) {
+            if (e != 0)
+                a[n++] = e;
+        }
+        return a;
+    }
+
+    /**
+     * Creates a <em>late-binding</em> and <em>fail-fast</em>
+     * {@link Spliterator.OfInt} over the elements in this set.
+     *
+     * <p>The spliterator reports {@link Spliterator#SIZED} and
+     * {@link Spliterator#DISTINCT}, and splits into parts whose sizes are
+     * estimates.
+     *
+     * @return a {@code Spliterator.OfInt} over the elements in this set
+     */
+    public Spliterator.OfInt spliterator() {
+        return new IntHashSetSpliterator(this, -1, 0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} with this set as its source.
+     *
+     * @return a sequential {@code IntStream} over the elements in this set
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code IntStream} with this set as its
+     * source.
+     *
+     * @return a possibly parallel {@code IntStream} over the elements in this
+     *         set
+     */
+    public IntStream parallelStream() {
+        return StreamSupport.intStream(spliterator(), true);
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Returns
+     * {@code true} if the given object is also an {@code IntHashSet} and the
+     * two sets contain the same elements.
+     *
+     * @param o object to be compared for equality with this set
+     * @return {@code true} if the specified object is equal to this set
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof IntHashSet))
+            return false;
+        IntHashSet s = (IntHashSet) o;
+        if (s.size != size || s.hasZero != hasZero)
+            return false;
+        for (int e : elements) {
+            if (e != 0 && s.slotOf(e) < 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this set. It is the sum of
+     * {@code Integer.hashCode(e)} over all elements, as for a
+     * {@code Set<Integer>} with the same elements.
+     *
+     * @return the hash code value for this set
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int e : elements)
+            h += Integer.hashCode(e);
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this set, in the same form as
+     * {@link AbstractCollection#toString()}.
+     *
+     * @return a string representation of this set
+     */
+    @Override
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ", "[", "]");
+        forEach(e -> sj.add(String.valueOf(e)));
+        return sj.toString();
+    }
+
+    /**
+     * A spliterator over the slots [index, fence) of the table; index -1
+     * stands for 0, which is held out of the table.
+     */
+    static final class IntHashSetSpliterator implements Spliterator.OfInt {
+        private final IntHashSet set;
+        private int index;        // current index, modified on advance/split
+        private int fence;        // -1 until first use
+        private int est;          // size estimate
+        private int expectedModCount;
+
+        IntHashSetSpliterator(IntHashSet set, int origin, int fence, int est,
+                              int expectedModCount) {
+            this.set = set;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0 || est < 0) {
+                est = set.size;
+                expectedModCount = set.modCount;
+                hi = fence = set.elements.length;
+            }
+            return hi;
+        }
+
+        @Override
+        public IntHashSetSpliterator trySplit() {
+            int hi = getFence(), lo = Math.max(index, 0),
+                mid = (lo + hi) >>> 1;
+            if (lo >= mid)
+                return null;
+            IntHashSetSpliterator prefix =
+                new IntHashSetSpliterator(set, index, mid, est >>>= 1,
+                                          expectedModCount);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            int[] es = set.elements;
+            if (index < 0) {
+                index = 0;
+                if (set.hasZero) {
+                    action.accept(0);
+                    checkForComodification();
+                    return true;
+                }
+            }
+            while (index < hi) {
+                int e = es[index++];
+                if (e != 0) {
+                    action.accept(e);
+                    checkForComodification();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            int[] es = set.elements;
+            int i = index;
+            index = hi;
+            if (i < 0) {
+                i = 0;
+                if (set.hasZero)
+                    action.accept(0);
+            }
+            for (; i < hi; i++) {
+                int e = es[i];
+                if (e != 0)
+                    action.accept(e);
+            }
+            checkForComodification();
+        }
+
+        private void checkForComodification() {
+            if (set.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() {
+            getFence(); // force init
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return (fence < 0 || est == set.size ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT;
+        }
+    }
+}
@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A hash set of primitive {@code long} values. This class provides the same
+ * operations as {@link HashSet}, for the subset of them that apply to a set
+ * of {@code long} values, without boxing the elements. This class makes no
+ * guarantees as to the iteration order of the set.
+ *
+ * <p>The set is an open-addressing table with linear probing, laid out in a
+ * single {@code long} array, in the same way as the keys of a
+ * {@link LongHashMap}. The {@code add}, {@code remove} and {@code contains}
+ * operations run in constant time on average.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access an {@code LongHashSet} concurrently, and at
+ * least one of the threads modifies the set, it <i>must</i> be synchronized
+ * externally.
+ *
+ * <p>The spliterators returned by {@link #spliterator()} and the streams
+ * returned by {@link #stream()} are <em>fail-fast</em>: if the set is
+ * modified during the traversal, they throw a
+ * {@link ConcurrentModificationException} on a best-effort basis.
+ *
+ * @see IntHashSet
+ * @see LongHashMap
+ * @see HashSet
+ * @since 12
+ */
+public class LongHashSet {
+
+    /**
+     * The elements, 0 marking a free slot. Element 0 itself is held out of
+     * the table.
+     */
+    private long[] elements;
+
+    /**
+     * Whether this set contains 0.
+     */
+    private boolean hasZero;
+
+    /**
+     * The number of elements in this set.
+     */
+    private int size;
+
+    /**
+     * The number of times this set has been modified.
+     */
+    private int modCount;
+
+    /**
+     * Constructs an empty {@code LongHashSet} with the default initial
+     * capacity (16).
+     */
+    public LongHashSet() {
+        this(IntHashMap.DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty {@code LongHashSet} that can hold the specified
+     * number of elements without being resized.
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public LongHashSet(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        elements = new long[IntHashMap.tableSizeFor(initialCapacity)];
+    }
+
+    /**
+     * Constructs a new {@code LongHashSet} containing the elements of the
+     * specified {@code LongHashSet}.
+     *
+     * @param  s the set whose elements are to be placed into this set
+     * @throws NullPointerException if the specified set is null
+     */
+    public LongHashSet(LongHashSet s) {
+        elements = s.elements.clone();
+        hasZero = s.hasZero;
+        size = s.size;
+    }
+
+    /**
+     * Returns the slot holding the given non-zero element, or the complement
+     * of the free slot where it would be inserted.
+     */
+    private int slotOf(long e) {
+        long[] es = elements;
+        int mask = es.length - 1;
+        int i = LongHashMap.hash(e) & mask;
+        long k;
+        while ((k = es[i]) != 0) {
+            if (k == e)
+                return i;
+            i = (i + 1) & mask;
+        }
+        return ~i;
+    }
+
+    /**
+     * Returns the number of elements in this set.
+     *
+     * @return the number of elements in this set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this set contains no elements.
+     *
+     * @return {@code true} if this set contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     *
+     * @param e element whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified element
+     */
+    public boolean contains(long e) {
+        return e == 0 ? hasZero : slotOf(e) >= 0;
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     *
+     * @param e element to be added to this set
+     * @return {@code true} if this set did not already contain the specified
+     *         element
+     */
+    public boolean add(long e) {
+        if (e == 0) {
+            if (hasZero)
+                return false;
+            hasZero = true;
+        } else {
+            int i = slotOf(e);
+            if (i >= 0)
+                return false;
+            boolean grow = size + 1 > elements.length >>> 1;
+            if (grow && elements.length >= IntHashMap.MAXIMUM_CAPACITY << 1)
+                throw new IllegalStateException("LongHashSet is full");
+            elements[~i] = e;
+            if (grow)
+                resize();
+        }
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Doubles the table, reinserting every element.
+     */
+    private void resize() {
+        long[] old = elements;
+        int length = old.length << 1;
+        int mask = length - 1;
+        long[] es = new long[length];
+        for (long e : old) {
+            if (e != 0) {
+                int i = LongHashMap.hash(e) & mask;
+                while (es[i] != 0)
+                    i = (i + 1) & mask;
+                es[i] = e;
+            }
+        }
+        elements = es;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     *
+     * @param e element to be removed from this set, if present
+     * @return {@code true} if the set contained the specified element
+     */
+    public boolean remove(long e) {
+        if (e == 0) {
+            if (!hasZero)
+                return false;
+            hasZero = false;
+        } else {
+            int i = slotOf(e);
+            if (i < 0)
+                return false;
+            removeAt(i);
+        }
+        size--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Empties the given slot, then moves back any element of the cluster
+     * that follows it which would no longer be reachable from its home slot.
+     */
+    private void removeAt(int i) {
+        long[] es = elements;
+        int mask = es.length - 1;
+        int j = i;
+        long k;
+        while ((k = es[j = (j + 1) & mask]) != 0) {
+            int home = LongHashMap.hash(k) & mask;
+            // move the element at j to i unless its home lies cyclically
+            // in (i, j]
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                es[i] = k;
+                i = j;
+            }
+        }
+        es[i] = 0;
+    }
+
+    /**
+     * Removes all of the elements from this set.
+     * The set will be empty after this call returns.
+     */
+    public void clear() {
+        modCount++;
+        if (size > 0) {
+            size = 0;
+            hasZero = false;
+            Arrays.fill(elements, 0);
+        }
+    }
+
+    /**
+     * Performs the given action for each element of this set until all
+     * elements have been processed or the action throws an exception.
+     *
+     * @param action The action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if an element is found to be
+     *         added or removed during iteration
+     */
+    public void forEach(LongConsumer action) {
+        Objects.requireNonNull(action);
+        int mc = modCount;
+        if (hasZero)
+            action.accept(0L);
+        long[] es = elements;
+        for (int i = 0; i < es.length && mc == modCount; i++) {
+            if (es[i] != 0)
+                action.accept(es[i]);
+        }
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set, in no
+     * particular order.
+     *
+     * @return an array containing all the elements in this set
+     */
+    public long[] toArray() {
+        long[] a = new long[size];
+        int n = 0;
+        if (hasZero)
+            a[n++] = 0;
+        for (long e : elements) {
+            if (e != 0)
+                a[n++] = e;
+        }
+        return a;
+    }
+
+    /**
+     * Creates a <em>late-binding</em> and <em>fail-fast</em>
+     * {@link Spliterator.OfLong} over the elements in this set.
+     *
+     * <p>The spliterator reports {@link Spliterator#SIZED} and
+     * {@link Spliterator#DISTINCT}, and splits into parts whose sizes are
+     * estimates.
+     *
+     * @return a {@code Spliterator.OfLong} over the elements in this set
+     */
+    public Spliterator.OfLong spliterator() {
+        return new LongHashSetSpliterator(this, -1, 0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential {@code LongStream} with this set as its source.
+     *
+     * @return a sequential {@code LongStream} over the elements in this set
+     */
+    public LongStream stream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code LongStream} with this set as its
+     * source.
+     *
+     * @return a possibly parallel {@code LongStream} over the elements in this
+     *         set
+     */
+    public LongStream parallelStream() {
+        return StreamSupport.longStream(spliterator(), true);
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Returns
+     * {@code true} if the given object is also an {@code LongHashSet} and the
+     * two sets contain the same elements.
+     *
+     * @param o object to be compared for equality with this set
+     * @return {@code true} if the specified object is equal to this set
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof LongHashSet))
+            return false;
+        LongHashSet s = (LongHashSet) o;
+        if (s.size != size || s.hasZero != hasZero)
+            return false;
+        for (long e : elements) {
+            if (e != 0 && s.slotOf(e) < 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this set. It is the sum of
+     * {@code Long.hashCode(e)} over all elements, as for a
+     * {@code Set<Long>} with the same elements.
+     *
+     * @return the hash code value for this set
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (long e : elements)
+            h += Long.hashCode(e);
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this set, in the same form as
+     * {@link AbstractCollection#toString()}.
+     *
+     * @return a string representation of this set
+     */
+    @Override
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ", "[", "]");
+        forEach(e -> sj.add(String.valueOf(e)));
+        return sj.toString();
+    }
+
+    /**
+     * A spliterator over the slots [index, fence) of the table; index -1
+     * stands for 0, which is held out of the table.
+     */
+    static final class LongHashSetSpliterator implements Spliterator.OfLong {
+        private final LongHashSet set;
+        private int index;        // current index, modified on advance/split
+        private int fence;        // -1 until first use
+        private int est;          // size estimate
+        private int expectedModCount;
+
+        LongHashSetSpliterator(LongHashSet set, int origin, int fence, int est,
+                              int expectedModCount) {
+            this.set = set;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0 || est < 0) {
+                est = set.size;
+                expectedModCount = set.modCount;
+                hi = fence = set.elements.length;
+            }
+            return hi;
+        }
+
+        @Override
+        public LongHashSetSpliterator trySplit() {
+            int hi = getFence(), lo = Math.max(index, 0),
+                mid = (lo + hi) >>> 1;
+            if (lo >= mid)
+                return null;
+            LongHashSetSpliterator prefix =
+                new LongHashSetSpliterator(set, index, mid, est >>>= 1,
+                                          expectedModCount);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            long[] es = set.elements;
+            if (index < 0) {
+                index = 0;
+                if (set.hasZero) {
+                    action.accept(0L);
+                    checkForComodification();
+                    return true;
+                }
+            }
+            while (index < hi) {
+                long e = es[index++];
+                if (e != 0) {
+                    action.accept(e);
+                    checkForComodification();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            long[] es = set.elements;
+            int i = index;
+            index = hi;
+            if (i < 0) {
+                i = 0;
+                if (set.hasZero)
+                    action.accept(0L);
+            }
+            for (; i < hi; i++) {
+                long e = es[i];
+                if (e != 0)
+                    action.accept(e);
+            }
+            checkForComodification();
+        }
+
+        private void checkForComodification() {
+            if (set.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() {
+            getFence(); // force init
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return (fence < 0 || est == set.size ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT;
+        }
+    }
+}
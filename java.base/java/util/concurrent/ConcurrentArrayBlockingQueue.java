@@ -0,0 +1,724 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} backed by an
+ * array, which producers and consumers access without locking. This
+ * queue orders elements FIFO (first-in-first-out).
+ *
+ * <p>An {@link ArrayBlockingQueue} guards its array with a single
+ * lock, and a {@link LinkedBlockingQueue} with one lock for producers
+ * and one for consumers, so that many threads inserting (or removing)
+ * small elements at a high rate serialize on those locks. In this
+ * class, each slot of the array carries a sequence number telling
+ * whether it is ready to be written for a given lap of the array, or
+ * to be read. A producer claims the next slot with a single
+ * compare-and-set of the tail index, and a consumer likewise claims
+ * the next element with a compare-and-set of the head index; the head
+ * and tail indexes are padded against false sharing. Producers and
+ * consumers therefore only contend with each other when the queue is
+ * nearly empty or nearly full, and only on a compare-and-set.
+ *
+ * <p>A lock is only used to block and wake threads that wait for the
+ * queue to become non-empty or non-full, and is not acquired at all by
+ * an insertion or a removal while no thread is waiting. Threads waiting
+ * in {@code put} or {@code take} are not ordered fairly.
+ *
+ * <p>The {@link #drainTo(Collection, int) drainTo} operations claim a
+ * whole run of available elements with a single compare-and-set.
+ *
+ * <p>The capacity of the queue is the requested capacity rounded up to
+ * a power of two, and cannot be changed once the queue is created.
+ *
+ * <p>Removal of an arbitrary element, through {@link #remove(Object)}
+ * or an iterator, marks its slot as removed; the slot is reclaimed when
+ * consumers reach it, and until then counts against the capacity of the
+ * queue. The iterators of this class traverse a snapshot of the queue
+ * taken when they are created.
+ *
+ * <p>This class and its iterator implement all of the <em>optional</em>
+ * methods of the {@link Collection} and {@link Iterator} interfaces.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/java.base/java/util/package-summary.html#CollectionsFramework">
+ * Java Collections Framework</a>.
+ *
+ * @see ThreadPoolExecutor
+ * @see Executors#newBoundedThreadPool(int, int)
+ * @since 12
+ * @param <E> the type of elements held in this queue
+ */
+public class ConcurrentArrayBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E> {
+
+    /** The maximum capacity, which must be a power of two. */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /** The number of times an offer or poll is retried before blocking. */
+    private static final int SPINS = 64;
+
+    /** Marks the item of a slot whose element was removed in place. */
+    private static final Object REMOVED = new Object();
+
+    /** The queued items; items[i] is valid only once sequences[i] says so */
+    final Object[] items;
+
+    /**
+     * The sequence number of each slot. A slot whose sequence number is
+     * equal to a tail index may be written for that index, and a slot
+     * whose sequence number is one more than a head index holds the
+     * element for that index.
+     */
+    final long[] sequences;
+
+    /** items.length - 1 */
+    final int mask;
+
+    /** The index of the next slot to read; only ever increases */
+    @jdk.internal.vm.annotation.Contended("head")
+    volatile long head;
+
+    /** The index of the next slot to write; only ever increases */
+    @jdk.internal.vm.annotation.Contended("tail")
+    volatile long tail;
+
+    /** The number of slots marked as removed but not yet reclaimed */
+    volatile int removed;
+
+    /** Guards the conditions below, and nothing else */
+    final ReentrantLock lock = new ReentrantLock();
+
+    /** Condition for waiting takes */
+    private final Condition notEmpty = lock.newCondition();
+
+    /** Condition for waiting puts */
+    private final Condition notFull = lock.newCondition();
+
+    /** The numbers of threads waiting on notEmpty and notFull */
+    volatile int waitingTakers;
+    volatile int waitingPutters;
+
+    /**
+     * Creates a {@code ConcurrentArrayBlockingQueue} with the given
+     * capacity, rounded up to a power of two.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity < 1} or
+     *         {@code capacity} is greater than 2<sup>30</sup>
+     */
+    public ConcurrentArrayBlockingQueue(int capacity) {
+        if (capacity <= 0 || capacity > MAXIMUM_CAPACITY)
+            throw new IllegalArgumentException();
+        int n = (capacity <= 2) ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        items = new Object[n];
+        sequences = new long[n];
+        for (int i = 0; i < n; i++)
+            sequences[i] = i;
+        mask = n - 1;
+    }
+
+    /**
+     * Creates a {@code ConcurrentArrayBlockingQueue} with the given
+     * capacity, rounded up to a power of two, and initially containing
+     * the elements of the given collection, added in traversal order of
+     * the collection's iterator.
+     *
+     * @param capacity the capacity of this queue
+     * @param c the collection of elements to initially contain
+     * @throws IllegalArgumentException if {@code capacity} is less than
+     *         {@code c.size()}, or less than 1, or greater than
+     *         2<sup>30</sup>
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements are null
+     */
+    public ConcurrentArrayBlockingQueue(int capacity,
+                                        Collection<? extends E> c) {
+        this(capacity);
+        for (E e : c) {
+            if (!offer(e))
+                throw new IllegalArgumentException();
+        }
+    }
+
+    /*
+     * Slots are released with volatile writes of their sequence numbers,
+     * which are ordered before the following reads of the waiter counts.
+     * A waiting thread increments the count before checking the queue
+     * again, so either it sees the released slot or the releasing thread
+     * sees it waiting and signals it.
+     */
+
+    /**
+     * Tries to insert the element without blocking.
+     * Returns false if the queue appeared full.
+     */
+    private boolean tryOffer(Object e) {
+        final long[] seqs = sequences;
+        for (;;) {
+            long t = tail;
+            int i = (int) t & mask;
+            long d = (long) SEQ.getAcquire(seqs, i) - t;
+            if (d == 0) {
+                if (TAIL.weakCompareAndSet(this, t, t + 1)) {
+                    ITEMS.setRelease(items, i, e);
+                    SEQ.setVolatile(seqs, i, t + 1);
+                    return true;
+                }
+            } else if (d < 0) {
+                // the slot still holds the element of the previous lap
+                return false;
+            }
+            // else another producer got the slot first
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Tries to remove an element without blocking. Returns REMOVED if the
+     * head slot held an element removed by remove(Object), which is freed,
+     * or null if the queue appeared empty.
+     */
+    private Object tryPoll() {
+        final long[] seqs = sequences;
+        for (;;) {
+            long h = head;
+            int i = (int) h & mask;
+            long d = (long) SEQ.getAcquire(seqs, i) - (h + 1);
+            if (d == 0) {
+                if (HEAD.weakCompareAndSet(this, h, h + 1)) {
+                    Object x = ITEMS.getAndSet(items, i, null);
+                    SEQ.setVolatile(seqs, i, h + items.length);
+                    if (x == REMOVED)
+                        REMOVED_COUNT.getAndAdd(this, -1);
+                    return x;
+                }
+            } else if (d < 0) {
+                // no element was written to this slot for this lap
+                return null;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Removes an element without blocking, passing over removed slots, and
+     * wakes putters for the slots freed. Returns null if the queue appeared
+     * empty.
+     */
+    private Object pollAndSignal() {
+        Object x;
+        int freed = 0;
+        while ((x = tryPoll()) == REMOVED)
+            freed++;
+        if (x != null)
+            freed++;
+        if (freed > 0)
+            signalNotFull(freed);
+        return x;
+    }
+
+    /** Wakes a taker, if there is any waiting. */
+    private void signalNotEmpty() {
+        if (waitingTakers > 0) {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Wakes putters, if there are any waiting, for n freed slots. */
+    private void signalNotFull(int n) {
+        if (waitingPutters > 0) {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                if (n == 1)
+                    notFull.signal();
+                else
+                    notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so immediately without exceeding the queue's capacity,
+     * returning {@code true} upon success and throwing an
+     * {@code IllegalStateException} if this queue is full.
+     *
+     * @param e the element to add
+     * @return {@code true} (as specified by {@link Collection#add})
+     * @throws IllegalStateException if this queue is full
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean add(E e) {
+        return super.add(e);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so immediately without exceeding the queue's capacity,
+     * returning {@code true} upon success and {@code false} if this queue
+     * is full.  This method is generally preferable to method {@link #add},
+     * which can fail to insert an element only by throwing an exception.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        if (!tryOffer(e))
+            return false;
+        signalNotEmpty();
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * for space to become available if the queue is full.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        Objects.requireNonNull(e);
+        awaitOffer(e, false, 0L);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * up to the specified wait time for space to become available if
+     * the queue is full.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        Objects.requireNonNull(e);
+        return awaitOffer(e, true, unit.toNanos(timeout));
+    }
+
+    /**
+     * Inserts the element, spinning for a while and then blocking until
+     * there is space, or until the given time has elapsed if timed.
+     */
+    private boolean awaitOffer(Object e, boolean timed, long nanos)
+        throws InterruptedException {
+        for (int spins = SPINS; spins > 0; spins--) {
+            if (tryOffer(e)) {
+                signalNotEmpty();
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            // Announce the waiter before checking again, so that a
+            // consumer freeing a slot after that check will signal it
+            WAITING_PUTTERS.getAndAdd(this, 1);
+            try {
+                while (!tryOffer(e)) {
+                    if (!timed)
+                        notFull.await();
+                    else if (nanos <= 0L)
+                        return false;
+                    else
+                        nanos = notFull.awaitNanos(nanos);
+                }
+            } finally {
+                WAITING_PUTTERS.getAndAdd(this, -1);
+            }
+        } finally {
+            lock.unlock();
+        }
+        signalNotEmpty();
+        return true;
+    }
+
+    public E poll() {
+        return cast(pollAndSignal());
+    }
+
+    public E take() throws InterruptedException {
+        return cast(awaitPoll(false, 0L));
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return cast(awaitPoll(true, unit.toNanos(timeout)));
+    }
+
+    /**
+     * Removes an element, spinning for a while and then blocking until
+     * there is one, or until the given time has elapsed if timed.
+     */
+    private Object awaitPoll(boolean timed, long nanos)
+        throws InterruptedException {
+        Object x;
+        for (int spins = SPINS; spins > 0; spins--) {
+            if ((x = pollAndSignal()) != null)
+                return x;
+            Thread.onSpinWait();
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            // Announce the waiter before checking again, so that a
+            // producer inserting after that check will signal it
+            WAITING_TAKERS.getAndAdd(this, 1);
+            try {
+                while ((x = pollAndSignal()) == null) {
+                    if (!timed)
+                        notEmpty.await();
+                    else if (nanos <= 0L)
+                        return null;
+                    else
+                        nanos = notEmpty.awaitNanos(nanos);
+                }
+            } finally {
+                WAITING_TAKERS.getAndAdd(this, -1);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return x;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> E cast(Object x) {
+        return (E) x;
+    }
+
+    public E peek() {
+        final long[] seqs = sequences;
+        for (;;) {
+            long h = head;
+            int i = (int) h & mask;
+            if ((long) SEQ.getAcquire(seqs, i) - (h + 1) < 0)
+                return null;
+            Object x = ITEMS.getAcquire(items, i);
+            if (x != null && x != REMOVED && head == h)
+                return cast(x);
+            if (x == REMOVED && head == h) {
+                // pass over a removed slot by consuming it
+                if (HEAD.compareAndSet(this, h, h + 1)) {
+                    ITEMS.setRelease(items, i, null);
+                    SEQ.setVolatile(seqs, i, h + items.length);
+                    REMOVED_COUNT.getAndAdd(this, -1);
+                    signalNotFull(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of elements in this queue. Concurrent insertions
+     * and removals may make the result inaccurate by the time it is
+     * returned.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        for (;;) {
+            long h = head;
+            long t = tail;
+            int r = removed;
+            if (h == head) {
+                long n = t - h - r;
+                return (n < 0) ? 0 : (int) Math.min(n, items.length);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of additional elements that this queue can ideally
+     * (in the absence of memory or resource constraints) accept without
+     * blocking. This is always equal to the capacity of this queue less
+     * the current {@code size} of this queue, less the removed slots that
+     * have not yet been reclaimed.
+     */
+    public int remainingCapacity() {
+        for (;;) {
+            long h = head;
+            long t = tail;
+            if (h == head) {
+                long n = items.length - (t - h);
+                return (n < 0) ? 0 : (int) Math.min(n, items.length);
+            }
+        }
+    }
+
+    /**
+     * Removes a single instance of the specified element from this queue,
+     * if it is present. The slot of the element is marked as removed, and
+     * is reclaimed when consumers reach it.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        if (o == null)
+            return false;
+        final long[] seqs = sequences;
+        for (long h = head, t = tail; h < t; h++) {
+            int i = (int) h & mask;
+            if ((long) SEQ.getAcquire(seqs, i) == h + 1) {
+                Object x = ITEMS.getAcquire(items, i);
+                if (x != null && x != REMOVED && o.equals(x)
+                    && ITEMS.compareAndSet(items, i, x, REMOVED)) {
+                    REMOVED_COUNT.getAndAdd(this, 1);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if this queue contains the specified element.
+     *
+     * @param o object to be checked for containment in this queue
+     * @return {@code true} if this queue contains the specified element
+     */
+    public boolean contains(Object o) {
+        if (o == null)
+            return false;
+        final long[] seqs = sequences;
+        for (long h = head, t = tail; h < t; h++) {
+            int i = (int) h & mask;
+            if ((long) SEQ.getAcquire(seqs, i) == h + 1) {
+                Object x = ITEMS.getAcquire(items, i);
+                if (x != null && x != REMOVED && o.equals(x))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns an array containing the elements of this queue that were
+     * present when it was traversed, in proper sequence.
+     *
+     * @return an array containing all of the elements in this queue
+     */
+    public Object[] toArray() {
+        final long[] seqs = sequences;
+        long h = head, t = tail;
+        Object[] a = new Object[(int) Math.min(Math.max(t - h, 0), items.length)];
+        int n = 0;
+        for (; h < t && n < a.length; h++) {
+            int i = (int) h & mask;
+            if ((long) SEQ.getAcquire(seqs, i) == h + 1) {
+                Object x = ITEMS.getAcquire(items, i);
+                if (x != null && x != REMOVED)
+                    a[n++] = x;
+            }
+        }
+        return (n == a.length) ? a : Arrays.copyOf(a, n);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        Object[] elements = toArray();
+        int len = elements.length;
+        if (a.length < len)
+            return (T[]) Arrays.copyOf(elements, len, a.getClass());
+        System.arraycopy(elements, 0, a, 0, len);
+        if (a.length > len)
+            a[len] = null;
+        return a;
+    }
+
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /**
+     * Removes all of the elements from this queue. Elements inserted
+     * concurrently may or may not be removed.
+     */
+    public void clear() {
+        int n = 0;
+        while (tryPoll() != null)
+            n++;
+        if (n > 0)
+            signalNotFull(n);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes at most the given number of available elements from this
+     * queue and adds them to the given collection. The run of elements
+     * available at the head of the queue is claimed at once, and is added
+     * to the collection after the slots it held are released.
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this)
+            throw new IllegalArgumentException();
+        if (maxElements <= 0)
+            return 0;
+        final long[] seqs = sequences;
+        final int max = Math.min(maxElements, items.length);
+        int drained = 0;
+        for (;;) {
+            long h = head;
+            int n = 0;
+            while (n < max
+                   && (long) SEQ.getAcquire(seqs, (int) (h + n) & mask) == h + n + 1)
+                n++;
+            if (n == 0)
+                break;
+            if (!HEAD.compareAndSet(this, h, h + n))
+                continue;
+            Object[] run = new Object[n];
+            int passed = 0;
+            for (int k = 0; k < n; k++) {
+                int i = (int) (h + k) & mask;
+                Object x = ITEMS.getAndSet(items, i, null);
+                SEQ.setVolatile(seqs, i, h + k + items.length);
+                if (x == REMOVED)
+                    passed++;
+                else
+                    run[k - passed] = x;
+            }
+            if (passed > 0)
+                REMOVED_COUNT.getAndAdd(this, -passed);
+            signalNotFull(n);
+            for (int k = 0; k < n - passed; k++)
+                c.add(cast(run[k]));
+            drained += n - passed;
+            break;
+        }
+        return drained;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements in this queue,
+     * in proper sequence. The iterator's {@code remove} method removes
+     * the last returned element from this queue, if it is still present.
+     *
+     * @return an iterator over the elements in this queue in proper sequence
+     */
+    public Iterator<E> iterator() {
+        final Object[] snapshot = toArray();
+        return new Iterator<E>() {
+            int cursor;
+            int lastRet = -1;
+            public boolean hasNext() {
+                return cursor < snapshot.length;
+            }
+            public E next() {
+                if (cursor >= snapshot.length)
+                    throw new java.util.NoSuchElementException();
+                return cast(snapshot[lastRet = cursor++]);
+            }
+            public void remove() {
+                if (lastRet < 0)
+                    throw new IllegalStateException();
+                ConcurrentArrayBlockingQueue.this.remove(snapshot[lastRet]);
+                lastRet = -1;
+            }
+        };
+    }
+
+    /**
+     * Returns a {@link Spliterator} over a snapshot of the elements in
+     * this queue.
+     *
+     * <p>The {@code Spliterator} reports {@link Spliterator#CONCURRENT},
+     * {@link Spliterator#ORDERED}, and {@link Spliterator#NONNULL}.
+     *
+     * @return a {@code Spliterator} over the elements in this queue
+     */
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator
+            (toArray(), (Spliterator.ORDERED |
+                         Spliterator.NONNULL |
+                         Spliterator.CONCURRENT));
+    }
+
+    // VarHandle mechanics
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle REMOVED_COUNT;
+    private static final VarHandle WAITING_TAKERS;
+    private static final VarHandle WAITING_PUTTERS;
+    static final VarHandle ITEMS
+        = MethodHandles.arrayElementVarHandle(Object[].class);
+    static final VarHandle SEQ
+        = MethodHandles.arrayElementVarHandle(long[].class);
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            HEAD = l.findVarHandle(ConcurrentArrayBlockingQueue.class,
+                                   "head", long.class);
+            TAIL = l.findVarHandle(ConcurrentArrayBlockingQueue.class,
+                                   "tail", long.class);
+            REMOVED_COUNT = l.findVarHandle(ConcurrentArrayBlockingQueue.class,
+                                            "removed", int.class);
+            WAITING_TAKERS = l.findVarHandle(ConcurrentArrayBlockingQueue.class,
+                                             "waitingTakers", int.class);
+            WAITING_PUTTERS = l.findVarHandle(ConcurrentArrayBlockingQueue.class,
+                                              "waitingPutters", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
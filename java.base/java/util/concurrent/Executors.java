@@ -94,6 +94,62 @@ public class Executors {
                                       new LinkedBlockingQueue<Runnable>());
     }
 
+    /**
+     * Creates a thread pool that reuses a fixed number of threads
+     * operating off a shared bounded {@link ConcurrentArrayBlockingQueue}.
+     * At any point, at most {@code nThreads} threads will be active
+     * processing tasks. If additional tasks are submitted when all
+     * threads are active, they will wait in the queue until a thread is
+     * available; if the queue is full, they are rejected with a
+     * {@link RejectedExecutionException}. Submitting threads insert
+     * tasks into the queue without locking, which makes this pool
+     * suitable for many threads submitting small tasks at a high rate.
+     * If any thread terminates due to a failure during execution prior
+     * to shutdown, a new one will take its place if needed to execute
+     * subsequent tasks. The threads in the pool will exist until it is
+     * explicitly {@link ExecutorService#shutdown shutdown}.
+     *
+     * @param nThreads the number of threads in the pool
+     * @param queueCapacity the capacity of the queue, rounded up to a
+     *        power of two
+     * @return the newly created thread pool
+     * @throws IllegalArgumentException if {@code nThreads <= 0} or
+     *         {@code queueCapacity <= 0}
+     * @since 12
+     */
+    public static ExecutorService newBoundedThreadPool(int nThreads,
+                                                       int queueCapacity) {
+        return new ThreadPoolExecutor(nThreads, nThreads,
+                                      0L, TimeUnit.MILLISECONDS,
+                                      new ConcurrentArrayBlockingQueue<Runnable>(queueCapacity));
+    }
+
+    /**
+     * Creates a thread pool that reuses a fixed number of threads
+     * operating off a shared bounded {@link ConcurrentArrayBlockingQueue},
+     * using the provided ThreadFactory to create new threads when
+     * needed. Tasks submitted when the queue is full are rejected with
+     * a {@link RejectedExecutionException}.
+     *
+     * @param nThreads the number of threads in the pool
+     * @param queueCapacity the capacity of the queue, rounded up to a
+     *        power of two
+     * @param threadFactory the factory to use when creating new threads
+     * @return the newly created thread pool
+     * @throws NullPointerException if threadFactory is null
+     * @throws IllegalArgumentException if {@code nThreads <= 0} or
+     *         {@code queueCapacity <= 0}
+     * @since 12
+     */
+    public static ExecutorService newBoundedThreadPool(int nThreads,
+                                                       int queueCapacity,
+                                                       ThreadFactory threadFactory) {
+        return new ThreadPoolExecutor(nThreads, nThreads,
+                                      0L, TimeUnit.MILLISECONDS,
+                                      new ConcurrentArrayBlockingQueue<Runnable>(queueCapacity),
+                                      threadFactory);
+    }
+
     /**
      * Creates a thread pool that maintains enough threads to support
      * the given parallelism level, and may use multiple queues to
@@ -194,7 +194,9 @@ import java.util.concurrent.locks.ReentrantLock;
  * time for more threads than you otherwise allow. Use of small queues
  * generally requires larger pool sizes, which keeps CPUs busier but
  * may encounter unacceptable scheduling overhead, which also
- * decreases throughput.
+ * decreases throughput. When many threads submit small tasks at a
+ * high rate, a {@link ConcurrentArrayBlockingQueue}, which does not
+ * lock to insert or remove tasks, avoids contention on the queue.
  *
  * </ol>
  *
@@ -0,0 +1,730 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link ScheduledExecutorService} that keeps its delayed tasks in a
+ * hashed timing wheel, for applications that schedule, and mostly
+ * cancel, very large numbers of short timeouts.
+ *
+ * <p>A {@link ScheduledThreadPoolExecutor} keeps its delayed tasks in a
+ * binary heap guarded by a single lock, so that scheduling and
+ * cancelling a task take logarithmic time, under that lock. This class
+ * instead divides time into <em>ticks</em> of a fixed duration, and
+ * keeps a circular array, the wheel, of buckets of tasks, one bucket per
+ * tick. A task is put in the bucket of the tick its trigger time falls
+ * in, along with the number of turns of the wheel left before it is
+ * due. Scheduling a task only enqueues it for a single timer thread to
+ * put in its bucket, and cancelling a task only marks it, so that both
+ * take constant time and never block. At each tick, the timer thread
+ * hands the tasks of the current bucket that are due over to a fixed
+ * pool of worker threads.
+ *
+ * <p>The price of this is precision: tasks do not run before their
+ * trigger time, but may run up to one tick after it. Tasks due in the
+ * same tick are not ordered. The tick duration should therefore be
+ * chosen as the coarsest precision the application can accept, which
+ * for network timeouts is typically a few milliseconds. The timer thread
+ * does not wake up at each tick while there are no delayed tasks.
+ *
+ * <p>Tasks that are not delayed, as those submitted with {@link
+ * #execute} or {@code submit}, are handed directly to the worker
+ * threads.
+ *
+ * <p>Like {@code ScheduledThreadPoolExecutor} with its default policies,
+ * this executor runs the delayed tasks that are pending when it is
+ * {@linkplain #shutdown shut down}, but cancels its periodic tasks.
+ * Successive executions of a periodic task never overlap.
+ *
+ * @see ScheduledThreadPoolExecutor
+ * @since 12
+ */
+public class TimingWheelScheduledExecutor extends AbstractExecutorService
+        implements ScheduledExecutorService {
+
+    /** The default tick duration, in milliseconds. */
+    private static final long DEFAULT_TICK_MILLIS = 1L;
+
+    /** The default number of buckets of the wheel. */
+    private static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    /*
+     * The run state. Tasks are only accepted while RUNNING. Once
+     * SHUTDOWN, the timer thread cancels the periodic tasks, and exits
+     * when no delayed task remains, shutting down the workers. Once
+     * STOP, the timer thread drains all the delayed tasks and exits.
+     */
+    private static final int RUNNING  = 0;
+    private static final int SHUTDOWN = 1;
+    private static final int STOP     = 2;
+
+    private volatile int runState;
+
+    /** The duration of a tick, in nanoseconds */
+    private final long tickNanos;
+
+    /** The buckets; the length is a power of two */
+    private final Bucket[] wheel;
+
+    /** The threads that run the tasks */
+    private final ThreadPoolExecutor workers;
+
+    /** Tasks scheduled, or rescheduled, but not yet in the wheel */
+    private final ConcurrentLinkedQueue<WheelTask<?>> pending
+        = new ConcurrentLinkedQueue<>();
+
+    /** Tasks cancelled while possibly in the wheel */
+    private final ConcurrentLinkedQueue<WheelTask<?>> cancelled
+        = new ConcurrentLinkedQueue<>();
+
+    /** The thread that advances the wheel, started on first use */
+    private final Thread timer;
+    private final CountDownLatch timerExited = new CountDownLatch(1);
+    private volatile boolean timerStarted;
+
+    /**
+     * Whether the timer thread has exited, or will never be started.
+     * Set before the last check of the pending queue, so that a task
+     * enqueued concurrently is either seen by that check, or sees this
+     * flag, and is cancelled either way.
+     */
+    private volatile boolean timerDone;
+
+    /** Whether the timer thread is parked until a task is scheduled */
+    private volatile boolean timerIdle;
+
+    /** Delayed tasks drained from the wheel by shutdownNow */
+    private final List<Runnable> drained = new ArrayList<>();
+
+    /** The origin of the ticks, on the System.nanoTime() scale */
+    private final long startTime;
+
+    // The following are only accessed by the timer thread
+
+    /** The number of the tick being processed, counting from startTime */
+    private long tick;
+
+    /** The number of tasks in the wheel */
+    private int wheelCount;
+
+    /** Whether periodic tasks have been cancelled after shutdown */
+    private boolean periodicCancelled;
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the given
+     * number of worker threads, and a tick of one millisecond.
+     *
+     * @param poolSize the number of threads to run the tasks
+     * @throws IllegalArgumentException if {@code poolSize <= 0}
+     */
+    public TimingWheelScheduledExecutor(int poolSize) {
+        this(poolSize, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS,
+             DEFAULT_TICKS_PER_WHEEL, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the given
+     * number of worker threads, tick duration and number of ticks per
+     * turn of the wheel. Tasks whose delay is shorter than one turn of the
+     * wheel are only visited when they are due; longer delays are
+     * supported, but a task is visited once per turn until it is due.
+     *
+     * @param poolSize the number of threads to run the tasks
+     * @param tickDuration the duration of a tick
+     * @param unit the time unit of the {@code tickDuration} argument
+     * @param ticksPerWheel the number of buckets of the wheel, rounded up
+     *        to a power of two
+     * @param threadFactory the factory to use when the executor creates
+     *        its timer thread and worker threads
+     * @throws IllegalArgumentException if {@code poolSize <= 0}, or the
+     *         tick duration is less than one nanosecond, or
+     *         {@code ticksPerWheel <= 0} or greater than 2<sup>30</sup>
+     * @throws NullPointerException if {@code unit} or
+     *         {@code threadFactory} is null
+     */
+    public TimingWheelScheduledExecutor(int poolSize,
+                                        long tickDuration, TimeUnit unit,
+                                        int ticksPerWheel,
+                                        ThreadFactory threadFactory) {
+        if (poolSize <= 0 || ticksPerWheel <= 0 || ticksPerWheel > (1 << 30))
+            throw new IllegalArgumentException();
+        long nanos = unit.toNanos(tickDuration);
+        if (nanos <= 0)
+            throw new IllegalArgumentException();
+        Objects.requireNonNull(threadFactory);
+        this.tickNanos = nanos;
+        int n = (ticksPerWheel == 1)
+            ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Bucket[n];
+        for (int i = 0; i < n; i++)
+            wheel[i] = new Bucket();
+        this.workers = new ThreadPoolExecutor(poolSize, poolSize,
+                                              0L, TimeUnit.MILLISECONDS,
+                                              new LinkedBlockingQueue<Runnable>(),
+                                              threadFactory);
+        this.timer = threadFactory.newThread(this::runTimer);
+        if (timer == null)
+            throw new IllegalArgumentException("null timer thread");
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * A task to be run after a delay, and possibly periodically.
+     */
+    private class WheelTask<V>
+            extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        /** The nanoTime-based time when the task is enabled to execute. */
+        private volatile long time;
+
+        /**
+         * Period for repeating tasks, in nanoseconds.
+         * A positive value indicates fixed-rate execution.
+         * A negative value indicates fixed-delay execution.
+         * A value of 0 indicates a non-repeating (one-shot) task.
+         */
+        private final long period;
+
+        // The following are only accessed by the timer thread
+
+        /** The number of turns of the wheel left before the task is due */
+        long rounds;
+
+        /** The bucket holding the task, and its neighbours there */
+        Bucket bucket;
+        WheelTask<?> prev, next;
+
+        WheelTask(Runnable r, V result, long triggerTime, long period) {
+            super(r, result);
+            this.time = triggerTime;
+            this.period = period;
+        }
+
+        WheelTask(Callable<V> callable, long triggerTime) {
+            super(callable);
+            this.time = triggerTime;
+            this.period = 0;
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), NANOSECONDS);
+        }
+
+        public int compareTo(Delayed other) {
+            if (other == this) // compare zero if same object
+                return 0;
+            long diff = getDelay(NANOSECONDS) - other.getDelay(NANOSECONDS);
+            return (diff < 0) ? -1 : (diff > 0) ? 1 : 0;
+        }
+
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled)
+                taskCancelled(this);
+            return cancelled;
+        }
+
+        /**
+         * Overrides FutureTask version so as to reschedule if periodic.
+         */
+        public void run() {
+            if (!canRunInCurrentRunState(this))
+                cancel(false);
+            else if (!isPeriodic())
+                super.run();
+            else if (super.runAndReset()) {
+                long p = period;
+                time = (p > 0) ? time + p : triggerTime(-p);
+                reExecutePeriodic(this);
+            }
+        }
+    }
+
+    /**
+     * A doubly-linked list of the tasks in a bucket of the wheel.
+     * Only accessed by the timer thread.
+     */
+    private static final class Bucket {
+        WheelTask<?> head, tail;
+
+        void add(WheelTask<?> t) {
+            t.bucket = this;
+            t.prev = tail;
+            t.next = null;
+            if (tail == null)
+                head = t;
+            else
+                tail.next = t;
+            tail = t;
+        }
+
+        void remove(WheelTask<?> t) {
+            WheelTask<?> p = t.prev, n = t.next;
+            if (p == null)
+                head = n;
+            else
+                p.next = n;
+            if (n == null)
+                tail = p;
+            else
+                n.prev = p;
+            t.bucket = null;
+            t.prev = t.next = null;
+        }
+    }
+
+    /**
+     * Returns the nanoTime-based trigger time of a delayed action.
+     * Delays are capped, so that the trigger times of all the tasks are
+     * within Long.MAX_VALUE of each other and of the start time.
+     */
+    private long triggerTime(long delay) {
+        return System.nanoTime() + Math.min(Math.max(delay, 0L),
+                                            Long.MAX_VALUE >> 2);
+    }
+
+    boolean canRunInCurrentRunState(RunnableScheduledFuture<?> task) {
+        int rs = runState;
+        return rs == RUNNING || (rs == SHUTDOWN && !task.isPeriodic());
+    }
+
+    /**
+     * Main execution method for delayed or periodic tasks. The task is
+     * handed over to the timer thread, or rejected if the executor is
+     * shut down.
+     */
+    private void delayedExecute(WheelTask<?> task) {
+        if (isShutdown())
+            throw new RejectedExecutionException("Executor is shut down");
+        enqueue(task);
+        if ((!canRunInCurrentRunState(task) || timerDone)
+            && pending.remove(task))
+            task.cancel(false);
+    }
+
+    /**
+     * Requeues a periodic task unless current run state precludes it.
+     */
+    void reExecutePeriodic(WheelTask<?> task) {
+        if (canRunInCurrentRunState(task)) {
+            enqueue(task);
+            if (canRunInCurrentRunState(task) || !pending.remove(task))
+                return;
+        }
+        task.cancel(false);
+    }
+
+    private void enqueue(WheelTask<?> task) {
+        pending.add(task);
+        if (!timerStarted)
+            startTimer();
+        else if (timerIdle)
+            LockSupport.unpark(timer);
+    }
+
+    private void taskCancelled(WheelTask<?> task) {
+        // Unlinked by the timer thread, if in the wheel at all
+        cancelled.add(task);
+        if (timerIdle)
+            LockSupport.unpark(timer);
+    }
+
+    private synchronized void startTimer() {
+        if (!timerStarted) {
+            timer.start();
+            timerStarted = true;
+        }
+    }
+
+    /**
+     * The body of the timer thread.
+     */
+    private void runTimer() {
+        try {
+            for (;;) {
+                long now = awaitTick();
+                int rs = runState;
+                if (rs >= STOP)
+                    break;
+                transferPending();
+                removeCancelled();
+                if (rs == SHUTDOWN && !periodicCancelled) {
+                    cancelPeriodic();
+                    periodicCancelled = true;
+                }
+                expire(wheel[(int) tick & (wheel.length - 1)], now);
+                tick++;
+                if (rs == SHUTDOWN && wheelCount == 0 && pending.isEmpty())
+                    break;
+            }
+            if (runState >= STOP)
+                drainAll();
+        } finally {
+            timerDone = true;
+            cancelPending();
+            if (runState >= STOP)
+                workers.shutdownNow();
+            else
+                workers.shutdown();
+            timerExited.countDown();
+        }
+    }
+
+    /**
+     * Waits for the end of the current tick, parking indefinitely while
+     * there is nothing to wait for. Returns the time at the end of the
+     * wait.
+     */
+    private long awaitTick() {
+        while (wheelCount == 0 && runState == RUNNING) {
+            timerIdle = true;
+            if (pending.isEmpty() && cancelled.isEmpty()
+                && runState == RUNNING)
+                LockSupport.park(this);
+            timerIdle = false;
+            // The wheel is empty, skip the ticks spent parked
+            long current = (System.nanoTime() - startTime) / tickNanos;
+            if (current > tick)
+                tick = current;
+            if (!pending.isEmpty())
+                break;
+            cancelled.clear();
+        }
+        for (;;) {
+            long now = System.nanoTime();
+            long wait = startTime + (tick + 1) * tickNanos - now;
+            if (wait <= 0L || runState >= STOP)
+                return now;
+            LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    /**
+     * Puts the newly scheduled tasks in their buckets.
+     */
+    private void transferPending() {
+        WheelTask<?> t;
+        while ((t = pending.poll()) != null) {
+            if (t.isCancelled())
+                continue;
+            long due = Math.max((t.time - startTime) / tickNanos, 0L);
+            t.rounds = Math.max(due - tick, 0L) / wheel.length;
+            wheel[(int) Math.max(due, tick) & (wheel.length - 1)].add(t);
+            wheelCount++;
+        }
+    }
+
+    /**
+     * Unlinks the cancelled tasks from their buckets.
+     */
+    private void removeCancelled() {
+        WheelTask<?> t;
+        while ((t = cancelled.poll()) != null) {
+            Bucket b = t.bucket;
+            if (b != null) {
+                b.remove(t);
+                wheelCount--;
+            }
+        }
+    }
+
+    /**
+     * Hands the tasks of the given bucket that are due over to the
+     * workers, and counts down the turns left for the others.
+     */
+    private void expire(Bucket b, long now) {
+        WheelTask<?> t = b.head;
+        while (t != null) {
+            WheelTask<?> next = t.next;
+            if (t.rounds <= 0L || t.isCancelled()) {
+                b.remove(t);
+                wheelCount--;
+                if (!t.isCancelled()) {
+                    try {
+                        workers.execute(t);
+                    } catch (RejectedExecutionException ex) {
+                        t.cancel(false);
+                    }
+                }
+            } else {
+                t.rounds--;
+            }
+            t = next;
+        }
+    }
+
+    private void cancelPeriodic() {
+        for (WheelTask<?> t : pending)
+            if (t.isPeriodic())
+                t.cancel(false);
+        for (Bucket b : wheel)
+            for (WheelTask<?> t = b.head; t != null; t = t.next)
+                if (t.isPeriodic())
+                    t.cancel(false);
+        removeCancelled();
+    }
+
+    /**
+     * Cancels the tasks left in the pending queue once the timer thread
+     * is done.
+     */
+    private void cancelPending() {
+        WheelTask<?> t;
+        while ((t = pending.poll()) != null)
+            t.cancel(false);
+    }
+
+    private void drainAll() {
+        synchronized (drained) {
+            WheelTask<?> t;
+            while ((t = pending.poll()) != null)
+                if (!t.isCancelled())
+                    drained.add(t);
+            for (Bucket b : wheel) {
+                while ((t = b.head) != null) {
+                    b.remove(t);
+                    if (!t.isCancelled())
+                        drained.add(t);
+                }
+            }
+            wheelCount = 0;
+        }
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public ScheduledFuture<?> schedule(Runnable command,
+                                       long delay,
+                                       TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        WheelTask<Void> t = new WheelTask<Void>(command, null,
+                                                triggerTime(unit.toNanos(delay)),
+                                                0L);
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+                                           long delay,
+                                           TimeUnit unit) {
+        if (callable == null || unit == null)
+            throw new NullPointerException();
+        WheelTask<V> t = new WheelTask<V>(callable,
+                                          triggerTime(unit.toNanos(delay)));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+                                                  long initialDelay,
+                                                  long period,
+                                                  TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (period <= 0L)
+            throw new IllegalArgumentException();
+        WheelTask<Void> t =
+            new WheelTask<Void>(command, null,
+                                triggerTime(unit.toNanos(initialDelay)),
+                                unit.toNanos(period));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+                                                     long initialDelay,
+                                                     long delay,
+                                                     TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (delay <= 0L)
+            throw new IllegalArgumentException();
+        WheelTask<Void> t =
+            new WheelTask<Void>(command, null,
+                                triggerTime(unit.toNanos(initialDelay)),
+                                -unit.toNanos(delay));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * Executes {@code command} with zero required delay, on one of the
+     * worker threads.
+     *
+     * @throws RejectedExecutionException if the executor is shut down
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command);
+        if (isShutdown())
+            throw new RejectedExecutionException("Executor is shut down");
+        workers.execute(command);
+    }
+
+    /**
+     * Initiates an orderly shutdown in which previously submitted
+     * tasks, including delayed ones, are executed, but periodic tasks
+     * are cancelled and no new tasks will be accepted.
+     *
+     * <p>This method does not wait for previously submitted tasks to
+     * complete execution. Use {@link #awaitTermination awaitTermination}
+     * to do that.
+     */
+    public void shutdown() {
+        if (RUNSTATE.compareAndSet(this, RUNNING, SHUTDOWN))
+            stopTimer();
+    }
+
+    /**
+     * Attempts to stop all actively executing tasks, halts the
+     * processing of waiting tasks, and returns a list of the tasks
+     * that were awaiting execution, including the delayed tasks.
+     *
+     * @return list of tasks that never commenced execution
+     */
+    public List<Runnable> shutdownNow() {
+        int rs;
+        while ((rs = runState) < STOP && !RUNSTATE.compareAndSet(this, rs, STOP))
+            ;
+        stopTimer();
+        boolean interrupted = false;
+        if (timerStarted && Thread.currentThread() != timer) {
+            for (;;) {
+                try {
+                    timerExited.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        List<Runnable> tasks;
+        synchronized (drained) {
+            tasks = new ArrayList<>(drained);
+            drained.clear();
+        }
+        tasks.addAll(workers.shutdownNow());
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        return tasks;
+    }
+
+    /**
+     * Wakes up the timer thread so that it sees the new run state, or,
+     * if it was never started, shuts down the workers directly.
+     */
+    private void stopTimer() {
+        synchronized (this) {
+            if (!timerStarted) {
+                timerStarted = true; // never to be started
+                timerDone = true;
+                cancelPending();
+                if (runState >= STOP)
+                    workers.shutdownNow();
+                else
+                    workers.shutdown();
+                timerExited.countDown();
+                return;
+            }
+        }
+        LockSupport.unpark(timer);
+    }
+
+    public boolean isShutdown() {
+        return runState != RUNNING;
+    }
+
+    public boolean isTerminated() {
+        return timerExited.getCount() == 0 && workers.isTerminated();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!timerExited.await(timeout, unit))
+            return false;
+        return workers.awaitTermination(deadline - System.nanoTime(),
+                                        NANOSECONDS);
+    }
+
+    public String toString() {
+        String runStateString;
+        switch (runState) {
+            case RUNNING:  runStateString = "Running"; break;
+            case SHUTDOWN: runStateString = "Shutting down"; break;
+            default:       runStateString = "Stopping"; break;
+        }
+        if (isTerminated())
+            runStateString = "Terminated";
+        return super.toString() +
+            "[" + runStateString +
+            ", tick = " + TimeUnit.NANOSECONDS.toMicros(tickNanos) + "us" +
+            ", ticks per wheel = " + wheel.length +
+            ", workers = " + workers.toString() + "]";
+    }
+
+    // VarHandle mechanics
+    private static final VarHandle RUNSTATE;
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            RUNSTATE = l.findVarHandle(TimingWheelScheduledExecutor.class,
+                                       "runState", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
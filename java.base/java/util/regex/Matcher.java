@@ -26,6 +26,7 @@
 package java.util.regex;
 
 import java.util.ConcurrentModificationException;
+import java.util.IntHashSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
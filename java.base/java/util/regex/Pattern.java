@@ -28,6 +28,7 @@ package java.util.regex;
 import java.text.Normalizer;
 import java.text.Normalizer.Form;
 import java.util.Locale;
+import java.util.IntHashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.ArrayList;
@@ -45,6 +45,8 @@ import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
@@ -426,6 +428,37 @@ public final class Collectors {
         };
     }
 
+    /**
+     * {@code BinaryOperator<Map>} that merges the contents of the smaller of
+     * its map arguments into the larger one, using the provided merge
+     * function to handle duplicate keys, so that fewer entries are inserted
+     * and the larger map is not grown, and rehashed, to hold the other one.
+     * The values are still merged in the order of the map arguments.
+     * Only for maps whose iteration order does not matter.
+     *
+     * @param <K> type of the map keys
+     * @param <V> type of the map values
+     * @param <M> type of the map
+     * @param mergeFunction A merge function suitable for
+     * {@link Map#merge(Object, Object, BiFunction) Map.merge()}
+     * @return a merge function for two maps
+     */
+    private static <K, V, M extends Map<K,V>>
+    BinaryOperator<M> unorderedMapMerger(BinaryOperator<V> mergeFunction) {
+        BinaryOperator<V> reversed = (v2, v1) -> mergeFunction.apply(v1, v2);
+        return (m1, m2) -> {
+            if (m1.size() >= m2.size()) {
+                for (Map.Entry<K,V> e : m2.entrySet())
+                    m1.merge(e.getKey(), e.getValue(), mergeFunction);
+                return m1;
+            } else {
+                for (Map.Entry<K,V> e : m1.entrySet())
+                    m2.merge(e.getKey(), e.getValue(), reversed);
+                return m2;
+            }
+        };
+    }
+
     /**
      * Adapts a {@code Collector} accepting elements of type {@code U} to one
      * accepting elements of type {@code T} by applying a mapping function to
@@ -1067,7 +1100,10 @@ public final class Collectors {
     public static <T, K, A, D>
     Collector<T, ?, Map<K, D>> groupingBy(Function<? super T, ? extends K> classifier,
                                           Collector<? super T, A, D> downstream) {
-        return groupingBy(classifier, HashMap::new, downstream);
+        // a HashMap has no order to preserve, the smaller map can be merged
+        // into the larger one
+        return groupingBy(classifier, HashMap::new, downstream,
+                          Collectors.<K, A, Map<K, A>>unorderedMapMerger(downstream.combiner()));
     }
 
     /**
@@ -1121,6 +1157,15 @@ public final class Collectors {
     Collector<T, ?, M> groupingBy(Function<? super T, ? extends K> classifier,
                                   Supplier<M> mapFactory,
                                   Collector<? super T, A, D> downstream) {
+        return groupingBy(classifier, mapFactory, downstream,
+                          Collectors.<K, A, Map<K, A>>mapMerger(downstream.combiner()));
+    }
+
+    private static <T, K, D, A, M extends Map<K, D>>
+    Collector<T, ?, M> groupingBy(Function<? super T, ? extends K> classifier,
+                                  Supplier<M> mapFactory,
+                                  Collector<? super T, A, D> downstream,
+                                  BinaryOperator<Map<K, A>> merger) {
         Supplier<A> downstreamSupplier = downstream.supplier();
         BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
         BiConsumer<Map<K, A>, T> accumulator = (m, t) -> {
@@ -1128,7 +1173,6 @@ public final class Collectors {
             A container = m.computeIfAbsent(key, k -> downstreamSupplier.get());
             downstreamAccumulator.accept(container, t);
         };
-        BinaryOperator<Map<K, A>> merger = Collectors.<K, A, Map<K, A>>mapMerger(downstream.combiner());
         @SuppressWarnings("unchecked")
         Supplier<Map<K, A>> mangledFactory = (Supplier<Map<K, A>>) mapFactory;
 
@@ -1318,6 +1362,179 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Returns a concurrent {@code Collector} counting the input elements of
+     * type {@code T} per key, according to a classification function.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p>The result is the same as that of
+     * {@code groupingByConcurrent(classifier, counting())}, but the counts
+     * are accumulated in {@link LongAdder} cells rather than in boxed
+     * {@code Long}s replaced on every element, so the accumulation allocates
+     * nothing per element, and scales when many threads count the same key.
+     *
+     * <p>There are no guarantees on the type, mutability, or serializability
+     * of the {@code ConcurrentMap} returned.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a concurrent, unordered {@code Collector} counting the input
+     *         elements per key
+     *
+     * @see #groupingByConcurrent(Function, Collector)
+     * @see #counting()
+     * @since 12
+     */
+    public static <T, K>
+    Collector<T, ?, ConcurrentMap<K, Long>>
+    groupingByConcurrentCounting(Function<? super T, ? extends K> classifier) {
+        return groupingByConcurrentCells(classifier,
+                                         LongAdder::new,
+                                         (a, t) -> a.increment(),
+                                         (a, b) -> { a.add(b.sum()); return a; },
+                                         LongAdder::sum);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} summing a long-valued function
+     * of the input elements of type {@code T} per key, according to a
+     * classification function.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p>The result is the same as that of
+     * {@code groupingByConcurrent(classifier, summingLong(mapper))}, but the
+     * sums are accumulated in {@link LongAdder} cells, so the accumulation
+     * allocates nothing per element, and needs no lock per key.
+     *
+     * <p>There are no guarantees on the type, mutability, or serializability
+     * of the {@code ConcurrentMap} returned.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function extracting the property to be summed
+     * @return a concurrent, unordered {@code Collector} summing a derived
+     *         property per key
+     *
+     * @see #groupingByConcurrent(Function, Collector)
+     * @see #summingLong(ToLongFunction)
+     * @since 12
+     */
+    public static <T, K>
+    Collector<T, ?, ConcurrentMap<K, Long>>
+    groupingByConcurrentSummingLong(Function<? super T, ? extends K> classifier,
+                                    ToLongFunction<? super T> mapper) {
+        return groupingByConcurrentCells(classifier,
+                                         LongAdder::new,
+                                         (a, t) -> a.add(mapper.applyAsLong(t)),
+                                         (a, b) -> { a.add(b.sum()); return a; },
+                                         LongAdder::sum);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} computing summary statistics of
+     * a long-valued function of the input elements of type {@code T} per key,
+     * according to a classification function.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p>The result is the same as that of
+     * {@code groupingByConcurrent(classifier, summarizingLong(mapper))}, but
+     * the statistics are accumulated in {@link LongAdder} and
+     * {@link LongAccumulator} cells, rather than in a
+     * {@code LongSummaryStatistics} locked on every element.
+     *
+     * <p>There are no guarantees on the type, mutability, or serializability
+     * of the {@code ConcurrentMap} returned.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function extracting the property to be summarized
+     * @return a concurrent, unordered {@code Collector} computing summary
+     *         statistics of a derived property per key
+     *
+     * @see #groupingByConcurrent(Function, Collector)
+     * @see #summarizingLong(ToLongFunction)
+     * @since 12
+     */
+    public static <T, K>
+    Collector<T, ?, ConcurrentMap<K, LongSummaryStatistics>>
+    groupingByConcurrentSummarizingLong(Function<? super T, ? extends K> classifier,
+                                        ToLongFunction<? super T> mapper) {
+        return groupingByConcurrentCells(classifier,
+                                         LongSummaryCell::new,
+                                         (c, t) -> c.accept(mapper.applyAsLong(t)),
+                                         (c, d) -> { c.combine(d); return c; },
+                                         LongSummaryCell::toStatistics);
+    }
+
+    /**
+     * Returns a concurrent group-by {@code Collector} accumulating into
+     * thread-safe cells, which need no lock on accumulation, and which are
+     * converted to the values of the resulting map by the finisher.
+     */
+    private static <T, K, C, R>
+    Collector<T, ?, ConcurrentMap<K, R>>
+    groupingByConcurrentCells(Function<? super T, ? extends K> classifier,
+                              Supplier<C> cellFactory,
+                              BiConsumer<C, ? super T> cellAccumulator,
+                              BinaryOperator<C> cellMerger,
+                              Function<C, R> cellFinisher) {
+        Function<K, C> newCell = k -> cellFactory.get();
+        BiConsumer<ConcurrentMap<K, C>, T> accumulator = (m, t) -> {
+            K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+            // the cell is there for all but the first element of a key
+            C cell = m.get(key);
+            if (cell == null)
+                cell = m.computeIfAbsent(key, newCell);
+            cellAccumulator.accept(cell, t);
+        };
+        Function<ConcurrentMap<K, C>, ConcurrentMap<K, R>> finisher = intermediate -> {
+            ConcurrentMap<K, R> result = new ConcurrentHashMap<>(intermediate.size());
+            intermediate.forEach((k, c) -> result.put(k, cellFinisher.apply(c)));
+            return result;
+        };
+        return new CollectorImpl<>(ConcurrentHashMap::new, accumulator,
+                                   Collectors.<K, C, ConcurrentMap<K, C>>unorderedMapMerger(cellMerger),
+                                   finisher, CH_CONCURRENT_NOID);
+    }
+
+    /**
+     * Thread-safe accumulation cell of the statistics of long values.
+     */
+    private static final class LongSummaryCell {
+        final LongAdder count = new LongAdder();
+        final LongAdder sum = new LongAdder();
+        final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        void accept(long value) {
+            count.increment();
+            sum.add(value);
+            min.accumulate(value);
+            max.accumulate(value);
+        }
+
+        void combine(LongSummaryCell other) {
+            count.add(other.count.sum());
+            sum.add(other.sum.sum());
+            min.accumulate(other.min.get());
+            max.accumulate(other.max.get());
+        }
+
+        LongSummaryStatistics toStatistics() {
+            return new LongSummaryStatistics(count.sum(), min.get(),
+                                             max.get(), sum.sum());
+        }
+    }
+
     /**
      * Returns a {@code Collector} which partitions the input elements according
      * to a {@code Predicate}, and organizes them into a
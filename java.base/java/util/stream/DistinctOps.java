@@ -24,13 +24,16 @@
  */
 package java.util.stream;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Spliterator;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.IntFunction;
 
 /**
@@ -55,13 +58,13 @@ final class DistinctOps {
         return new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE,
                                                       StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
 
-            <P_IN> Node<T> reduce(PipelineHelper<T> helper, Spliterator<P_IN> spliterator) {
-                // If the stream is SORTED then it should also be ORDERED so the following will also
-                // preserve the sort order
-                TerminalOp<T, LinkedHashSet<T>> reduceOp
-                        = ReduceOps.<T, LinkedHashSet<T>>makeRef(LinkedHashSet::new, LinkedHashSet::add,
-                                                                 LinkedHashSet::addAll);
-                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator));
+            <P_IN> Node<T> reduce(PipelineHelper<T> helper,
+                                  Spliterator<P_IN> spliterator,
+                                  IntFunction<T[]> generator) {
+                // The first occurrence of each element is kept, so if the
+                // stream is SORTED then the sort order is also preserved
+                List<Chunk<T>> chunks = new DistinctTask<>(helper, spliterator).invoke();
+                return Nodes.node(DistinctOps.distinct(chunks, generator));
             }
 
             @Override
@@ -72,30 +75,10 @@ final class DistinctOps {
                     // No-op
                     return helper.evaluate(spliterator, false, generator);
                 }
-                else if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
-                    return reduce(helper, spliterator);
-                }
                 else {
-                    // Holder of null state since ConcurrentHashMap does not support null values
-                    AtomicBoolean seenNull = new AtomicBoolean(false);
-                    ConcurrentHashMap<T, Boolean> map = new ConcurrentHashMap<>();
-                    TerminalOp<T, Void> forEachOp = ForEachOps.makeRef(t -> {
-                        if (t == null)
-                            seenNull.set(true);
-                        else
-                            map.putIfAbsent(t, Boolean.TRUE);
-                    }, false);
-                    forEachOp.evaluateParallel(helper, spliterator);
-
-                    // If null has been seen then copy the key set into a HashSet that supports null values
-                    // and add null
-                    Set<T> keys = map.keySet();
-                    if (seenNull.get()) {
-                        // TODO Implement a more efficient set-union view, rather than copying
-                        keys = new HashSet<>(keys);
-                        keys.add(null);
-                    }
-                    return Nodes.node(keys);
+                    // Encounter order is preserved at no extra cost, so
+                    // the same evaluation serves unordered streams
+                    return reduce(helper, spliterator, generator);
                 }
             }
 
@@ -107,7 +90,7 @@ final class DistinctOps {
                 }
                 else if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
                     // Not lazy, barrier required to preserve order
-                    return reduce(helper, spliterator).spliterator();
+                    return reduce(helper, spliterator, Nodes.castingArray()).spliterator();
                 }
                 else {
                     // Lazy
@@ -179,4 +162,157 @@ final class DistinctOps {
             }
         };
     }
+
+    /**
+     * The elements of the portion of the input of a leaf task, in encounter
+     * order, without the elements that are duplicates within the chunk.
+     * The indexes of these elements are grouped by hash partition, and each
+     * element is marked to be kept if no equal element is found in a
+     * preceding chunk.
+     */
+    private static final class Chunk<T> {
+        final T[] elements;
+        final int[][] partitions;
+        final boolean[] keep;
+        int offset;
+
+        Chunk(T[] elements, int[][] partitions) {
+            this.elements = elements;
+            this.partitions = partitions;
+            this.keep = new boolean[elements.length];
+        }
+    }
+
+    /**
+     * The number of hash partitions, a power of two, over which the
+     * elements of all chunks are deduplicated in parallel.
+     */
+    private static final int PARTITIONS
+            = Integer.highestOneBit(Math.max(1, ForkJoinPool.getCommonPoolParallelism() << 2));
+
+    /**
+     * Returns the partition of an element.  The hash code is spread so
+     * that the partitions do not depend on the same bits as the buckets
+     * of the hash sets used within each partition.
+     */
+    private static int partition(Object o) {
+        return (o == null) ? 0 : ((o.hashCode() * 0x9E3779B9) >>> 16) & (PARTITIONS - 1);
+    }
+
+    /**
+     * Task collecting the chunks of the input of a parallel stream, each
+     * leaf removing the duplicates within its own chunk, in a thread
+     * confined set.  The chunks of sibling tasks are concatenated on
+     * completion, in encounter order.
+     *
+     * @param <P_IN> type of input elements to the pipeline
+     * @param <T> type of elements to be deduplicated
+     */
+    @SuppressWarnings("serial")
+    private static final class DistinctTask<P_IN, T>
+            extends AbstractTask<P_IN, T, List<Chunk<T>>, DistinctTask<P_IN, T>> {
+
+        DistinctTask(PipelineHelper<T> helper, Spliterator<P_IN> spliterator) {
+            super(helper, spliterator);
+        }
+
+        DistinctTask(DistinctTask<P_IN, T> parent, Spliterator<P_IN> spliterator) {
+            super(parent, spliterator);
+        }
+
+        @Override
+        protected DistinctTask<P_IN, T> makeChild(Spliterator<P_IN> spliterator) {
+            return new DistinctTask<>(this, spliterator);
+        }
+
+        @Override
+        protected List<Chunk<T>> doLeaf() {
+            IntFunction<T[]> generator = Nodes.castingArray();
+            Node.Builder<T> builder = helper.makeNodeBuilder(-1, generator);
+            T[] input = helper.wrapAndCopyInto(builder, spliterator).build().asArray(generator);
+
+            Set<T> seen = new HashSet<>();
+            T[] elements = generator.apply(input.length);
+            int[] sizes = new int[PARTITIONS];
+            int[] parts = new int[input.length];
+            int n = 0;
+            for (T t : input) {
+                if (seen.add(t)) {
+                    sizes[parts[n] = partition(t)]++;
+                    elements[n++] = t;
+                }
+            }
+            int[][] partitions = new int[PARTITIONS][];
+            for (int p = 0; p < PARTITIONS; p++) {
+                partitions[p] = new int[sizes[p]];
+                sizes[p] = 0;
+            }
+            for (int i = 0; i < n; i++) {
+                int p = parts[i];
+                partitions[p][sizes[p]++] = i;
+            }
+            if (n < elements.length)
+                elements = Arrays.copyOf(elements, n);
+
+            List<Chunk<T>> chunks = new ArrayList<>(1);
+            chunks.add(new Chunk<>(elements, partitions));
+            return chunks;
+        }
+
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (!isLeaf()) {
+                List<Chunk<T>> chunks = leftChild.getLocalResult();
+                chunks.addAll(rightChild.getLocalResult());
+                setLocalResult(chunks);
+            }
+            super.onCompletion(caller);
+        }
+    }
+
+    /**
+     * Returns the distinct elements of the given chunks, in encounter
+     * order.  Each hash partition is deduplicated across all chunks by its
+     * own task, then the kept elements of each chunk are copied to their
+     * place in the result by another, so that no set or array is shared
+     * between threads until the result is complete.
+     */
+    private static <T> T[] distinct(List<Chunk<T>> chunks, IntFunction<T[]> generator) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(PARTITIONS);
+        for (int p = 0; p < PARTITIONS; p++) {
+            int partition = p;
+            tasks.add(ForkJoinTask.adapt(() -> {
+                Set<T> seen = new HashSet<>();
+                for (Chunk<T> chunk : chunks) {
+                    for (int i : chunk.partitions[partition]) {
+                        if (seen.add(chunk.elements[i]))
+                            chunk.keep[i] = true;
+                    }
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        int size = 0;
+        for (Chunk<T> chunk : chunks) {
+            chunk.offset = size;
+            for (boolean k : chunk.keep) {
+                if (k)
+                    size++;
+            }
+        }
+        T[] result = generator.apply(size);
+        tasks.clear();
+        for (Chunk<T> chunk : chunks) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                int j = chunk.offset;
+                for (int i = 0; i < chunk.elements.length; i++) {
+                    if (chunk.keep[i])
+                        result[j++] = chunk.elements[i];
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        return result;
+    }
 }
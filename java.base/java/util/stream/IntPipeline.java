@@ -420,6 +420,21 @@ abstract class IntPipeline<E_IN>
         return WhileOps.makeDropWhileInt(this, predicate);
     }
 
+    @Override
+    public final Stream<int[]> windowFixed(int size) {
+        return WindowOps.makeInt(this, WindowOps.checkSize(size), size, false);
+    }
+
+    @Override
+    public final Stream<int[]> windowSliding(int size) {
+        return WindowOps.makeInt(this, WindowOps.checkSize(size), 1, false);
+    }
+
+    @Override
+    public final Stream<int[]> batch(int size) {
+        return WindowOps.makeInt(this, WindowOps.checkSize(size), size, true);
+    }
+
     @Override
     public final IntStream sorted() {
         return SortedOps.makeInt(this);
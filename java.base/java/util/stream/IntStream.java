@@ -408,6 +408,136 @@ public interface IntStream extends BaseStream<Integer, IntStream> {
                 isParallel()).onClose(this::close);
     }
 
+    /**
+     * Returns a stream consisting of the elements of this stream grouped into
+     * consecutive, non-overlapping windows of {@code size} elements, each
+     * window being an {@code int[]}.  The last window holds the remaining
+     * elements, and may be smaller than {@code size}.
+     *
+     * <p>For example, windows of size 3 of a stream of 7 elements hold the
+     * elements 0 to 2, 3 to 5, and 6.
+     *
+     * <p>The windows follow the encounter order of this stream, if it has
+     * one.  In parallel pipelines, windows are then aligned with the whole
+     * stream, not with the parts of it processed by each thread.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @implSpec
+     * The default implementation obtains the {@link #spliterator() spliterator}
+     * of this stream, wraps that spliterator so as to support the semantics
+     * of this operation on traversal, and returns a new stream associated with
+     * the wrapped spliterator.  The returned stream preserves the execution
+     * characteristics of this stream (namely parallel or sequential execution
+     * as per {@link #isParallel()}) but the wrapped spliterator may choose to
+     * not support splitting.  When the returned stream is closed, the close
+     * handlers for both the returned and this stream are invoked.
+     *
+     * @apiNote
+     * On sequential stream pipelines this operation is lazy, and buffers
+     * the elements of at most one window.  On parallel pipelines, the
+     * elements of this stream are collected before being grouped, as for
+     * {@code sorted()}; if the windows need not be aligned,
+     * {@link #batch(int)} keeps a parallel pipeline lazy.
+     *
+     * @param size the number of elements in a window
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 12
+     */
+    default Stream<int[]> windowFixed(int size) {
+        WindowOps.checkSize(size);
+        return StreamSupport.stream(
+                new WindowOps.IntWindowSpliterator(spliterator(), size, size, false),
+                isParallel()).onClose(this::close);
+    }
+
+    /**
+     * Returns a stream consisting of the windows of {@code size}
+     * consecutive elements of this stream, starting at each element in turn,
+     * each window being an {@code int[]}.  If this stream has fewer than
+     * {@code size} elements, the returned stream has a single window of all
+     * of them, unless this stream is empty.
+     *
+     * <p>For example, windows of size 3 of a stream of 5 elements hold the
+     * elements 0 to 2, 1 to 3, and 2 to 4.
+     *
+     * <p>The windows follow the encounter order of this stream, if it has
+     * one.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @implSpec
+     * The default implementation obtains the {@link #spliterator() spliterator}
+     * of this stream, wraps that spliterator so as to support the semantics
+     * of this operation on traversal, and returns a new stream associated with
+     * the wrapped spliterator.  The returned stream preserves the execution
+     * characteristics of this stream (namely parallel or sequential execution
+     * as per {@link #isParallel()}) but the wrapped spliterator may choose to
+     * not support splitting.  When the returned stream is closed, the close
+     * handlers for both the returned and this stream are invoked.
+     *
+     * @apiNote
+     * On sequential stream pipelines this operation is lazy, and buffers
+     * the elements of at most two windows.  On parallel pipelines, the
+     * elements of this stream are collected before being grouped, as for
+     * {@code sorted()}.
+     *
+     * @param size the number of elements in a window
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 12
+     */
+    default Stream<int[]> windowSliding(int size) {
+        WindowOps.checkSize(size);
+        return StreamSupport.stream(
+                new WindowOps.IntWindowSpliterator(spliterator(), size, 1, false),
+                isParallel()).onClose(this::close);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped into
+     * batches of at most {@code size} consecutive elements, each batch being
+     * an {@code int[]}.
+     *
+     * <p>Unlike {@link #windowFixed(int)}, batches are not aligned with the
+     * whole stream: in parallel pipelines, each part of this stream processed
+     * by a thread is cut into batches of its own, so any number of batches may
+     * be smaller than {@code size}.  The elements of a batch, and the batches,
+     * follow the encounter order of this stream, if it has one.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @implSpec
+     * The default implementation obtains the {@link #spliterator() spliterator}
+     * of this stream, wraps that spliterator so as to support the semantics
+     * of this operation on traversal, and returns a new stream associated with
+     * the wrapped spliterator.  The returned stream preserves the execution
+     * characteristics of this stream (namely parallel or sequential execution
+     * as per {@link #isParallel()}) but the wrapped spliterator may choose to
+     * not support splitting.  When the returned stream is closed, the close
+     * handlers for both the returned and this stream are invoked.
+     *
+     * @apiNote
+     * This operation is lazy on both sequential and parallel stream
+     * pipelines, and buffers the elements of at most one batch per thread,
+     * which makes it suitable to group elements for batched I/O.
+     *
+     * @param size the maximum number of elements in a batch
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 12
+     */
+    default Stream<int[]> batch(int size) {
+        WindowOps.checkSize(size);
+        return StreamSupport.stream(
+                new WindowOps.IntWindowSpliterator(spliterator(), size, size, true),
+                isParallel()).onClose(this::close);
+    }
+
     /**
      * Performs an action for each element of this stream.
      *
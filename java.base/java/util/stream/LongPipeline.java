@@ -402,6 +402,21 @@ abstract class LongPipeline<E_IN>
         return WhileOps.makeDropWhileLong(this, predicate);
     }
 
+    @Override
+    public final Stream<long[]> windowFixed(int size) {
+        return WindowOps.makeLong(this, WindowOps.checkSize(size), size, false);
+    }
+
+    @Override
+    public final Stream<long[]> windowSliding(int size) {
+        return WindowOps.makeLong(this, WindowOps.checkSize(size), 1, false);
+    }
+
+    @Override
+    public final Stream<long[]> batch(int size) {
+        return WindowOps.makeLong(this, WindowOps.checkSize(size), size, true);
+    }
+
     @Override
     public final LongStream sorted() {
         return SortedOps.makeLong(this);
@@ -26,6 +26,7 @@ package java.util.stream;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
@@ -490,6 +491,21 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         return WhileOps.makeDropWhileRef(this, predicate);
     }
 
+    @Override
+    public final Stream<List<P_OUT>> windowFixed(int size) {
+        return WindowOps.makeRef(this, WindowOps.checkSize(size), size, false);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> windowSliding(int size) {
+        return WindowOps.makeRef(this, WindowOps.checkSize(size), 1, false);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> batch(int size) {
+        return WindowOps.makeRef(this, WindowOps.checkSize(size), size, true);
+    }
+
     // Terminal operations from Stream
 
     @Override
@@ -29,6 +29,8 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.IntFunction;
 
 
@@ -153,10 +155,10 @@ final class SortedOps {
                 return helper.evaluate(spliterator, false, generator);
             }
             else {
-                // @@@ Weak two-pass parallel implementation; parallel collect, parallel sort
-                T[] flattenedData = helper.evaluate(spliterator, true, generator).asArray(generator);
-                Arrays.parallelSort(flattenedData, comparator);
-                return Nodes.node(flattenedData);
+                // Sort each leaf as it is collected, then merge the sorted
+                // runs up the task tree, rather than collecting everything
+                // before sorting
+                return Nodes.node(new SortTask<>(helper, spliterator, generator, comparator).invoke());
             }
         }
     }
@@ -278,6 +280,148 @@ final class SortedOps {
         }
     }
 
+    /**
+     * Task for sorting a parallel reference stream.  Each leaf collects the
+     * elements of its portion of the input and sorts them, and the sorted
+     * runs of sibling tasks are merged on completion, so that sorting
+     * proceeds as soon as the input of a leaf is available rather than
+     * after the whole input has been collected.
+     *
+     * <p>Runs are sorted, and merged, stably, so that the output is the
+     * same as that of a sequential sort.
+     *
+     * @param <P_IN> type of input elements to the pipeline
+     * @param <T> type of elements to be sorted
+     */
+    @SuppressWarnings("serial")
+    private static final class SortTask<P_IN, T>
+            extends AbstractTask<P_IN, T, T[], SortTask<P_IN, T>> {
+        private final IntFunction<T[]> generator;
+        private final Comparator<? super T> comparator;
+
+        SortTask(PipelineHelper<T> helper,
+                 Spliterator<P_IN> spliterator,
+                 IntFunction<T[]> generator,
+                 Comparator<? super T> comparator) {
+            super(helper, spliterator);
+            this.generator = generator;
+            this.comparator = comparator;
+        }
+
+        SortTask(SortTask<P_IN, T> parent, Spliterator<P_IN> spliterator) {
+            super(parent, spliterator);
+            this.generator = parent.generator;
+            this.comparator = parent.comparator;
+        }
+
+        @Override
+        protected SortTask<P_IN, T> makeChild(Spliterator<P_IN> spliterator) {
+            return new SortTask<>(this, spliterator);
+        }
+
+        @Override
+        protected T[] doLeaf() {
+            Node.Builder<T> builder = helper.makeNodeBuilder(
+                    helper.exactOutputSizeIfKnown(spliterator), generator);
+            T[] run = helper.wrapAndCopyInto(builder, spliterator).build().asArray(generator);
+            Arrays.sort(run, comparator);
+            return run;
+        }
+
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (!isLeaf()) {
+                T[] left = leftChild.getLocalResult();
+                T[] right = rightChild.getLocalResult();
+                T[] merged = generator.apply(left.length + right.length);
+                new MergeTask<>(left, 0, left.length, right, 0, right.length,
+                                merged, 0, comparator).invoke();
+                setLocalResult(merged);
+            }
+            super.onCompletion(caller);
+        }
+    }
+
+    /**
+     * Task for stably merging two sorted runs into a destination array.
+     * Large merges are split in two independent merges, by binary search
+     * of the median of the longer run in the shorter one.
+     *
+     * @param <T> type of elements to be merged
+     */
+    @SuppressWarnings("serial")
+    private static final class MergeTask<T> extends RecursiveAction {
+        /**
+         * The merge size below which a merge is not split.
+         */
+        private static final int MIN_MERGE = 1 << 13;
+
+        private final T[] a, b, dst;
+        private final int aLo, aHi, bLo, bHi, dLo;
+        private final Comparator<? super T> comparator;
+
+        /**
+         * Merges {@code a[aLo, aHi)}, whose elements go first when equal,
+         * and {@code b[bLo, bHi)} into {@code dst} from {@code dLo}.
+         */
+        MergeTask(T[] a, int aLo, int aHi, T[] b, int bLo, int bHi,
+                  T[] dst, int dLo, Comparator<? super T> comparator) {
+            this.a = a; this.aLo = aLo; this.aHi = aHi;
+            this.b = b; this.bLo = bLo; this.bHi = bHi;
+            this.dst = dst; this.dLo = dLo;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            int aLen = aHi - aLo, bLen = bHi - bLo;
+            if (aLen + bLen <= MIN_MERGE) {
+                merge();
+                return;
+            }
+            int aMid, bMid;
+            if (aLen >= bLen) {
+                // Elements of b equal to the pivot go after it
+                aMid = (aLo + aHi) >>> 1;
+                bMid = search(b, bLo, bHi, a[aMid], true);
+            }
+            else {
+                // Elements of a equal to the pivot go before it
+                bMid = (bLo + bHi) >>> 1;
+                aMid = search(a, aLo, aHi, b[bMid], false);
+            }
+            int dMid = dLo + (aMid - aLo) + (bMid - bLo);
+            invokeAll(new MergeTask<>(a, aLo, aMid, b, bLo, bMid, dst, dLo, comparator),
+                      new MergeTask<>(a, aMid, aHi, b, bMid, bHi, dst, dMid, comparator));
+        }
+
+        private void merge() {
+            int i = aLo, j = bLo, k = dLo;
+            while (i < aHi && j < bHi) {
+                dst[k++] = comparator.compare(b[j], a[i]) < 0 ? b[j++] : a[i++];
+            }
+            System.arraycopy(a, i, dst, k, aHi - i);
+            System.arraycopy(b, j, dst, k + aHi - i, bHi - j);
+        }
+
+        /**
+         * Returns the index of the first element of {@code x[lo, hi)} that
+         * is not less than the key if {@code lower}, or that is greater than
+         * the key otherwise.
+         */
+        private int search(T[] x, int lo, int hi, T key, boolean lower) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = comparator.compare(x[mid], key);
+                if (c < 0 || (c == 0 && !lower))
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            return lo;
+        }
+    }
+
     /**
      * Abstract {@link Sink} for implementing sort on reference streams.
      *
@@ -0,0 +1,739 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.LongConsumer;
+
+/**
+ * Factory for instances of stateful intermediate operations that group the
+ * elements of their input stream into windows, or batches, of consecutive
+ * elements.
+ *
+ * <p>A window operation is described by its size and step: the first
+ * window starts at the first element, and each window starts {@code step}
+ * elements after the previous one.  Fixed windows have a step equal to
+ * their size, and sliding windows have a step of one.  The last fixed
+ * window may be smaller than the size, and so may the only sliding window
+ * of a stream which has fewer elements than the size.
+ *
+ * <p>Sequentially, windows are produced lazily by a sink which buffers at
+ * most the elements of one window.  In parallel, windows must be aligned
+ * with the encounter order of the whole stream, so the upstream elements
+ * are collected first, as for {@code sorted()}.  Batches, which are fixed
+ * windows that need not be aligned, are produced lazily in parallel too,
+ * each split of the stream being cut into batches of its own.
+ *
+ * @since 12
+ */
+final class WindowOps {
+
+    // No instances
+    private WindowOps() { }
+
+    private static final int FLAGS = StreamOpFlag.NOT_SIZED
+                                     | StreamOpFlag.NOT_SORTED
+                                     | StreamOpFlag.NOT_DISTINCT;
+
+    /**
+     * Checks that a window size is positive.
+     */
+    static int checkSize(int size) {
+        if (size < 1)
+            throw new IllegalArgumentException(Integer.toString(size));
+        return size;
+    }
+
+    /**
+     * Calculates the number of windows of a stream of known size.
+     *
+     * @param count the number of elements, assumed to be >= 0
+     * @param size the size of the windows
+     * @param step the distance between the starts of two windows, either 1
+     *        or {@code size}
+     * @return the number of windows
+     */
+    static long windowCount(long count, int size, int step) {
+        if (count == 0)
+            return 0;
+        else if (step == 1)
+            return count < size ? 1 : count - size + 1;
+        else
+            return count / size + (count % size == 0 ? 0 : 1);
+    }
+
+    /**
+     * The initial length of the buffer of the elements of a window.
+     */
+    static final int MIN_BUFFER_SIZE = 16;
+
+    /**
+     * Returns the maximum size of the buffer of the elements of a window,
+     * which, for sliding windows, holds up to two windows so that the
+     * elements are moved back only once every {@code size} elements.
+     * Buffers start small and grow up to that size as elements arrive, so
+     * that large windows of short streams do not allocate their full size.
+     */
+    static int bufferSize(int size, int step) {
+        return step == 1
+               ? (int) Math.min(size * 2L, Math.max(size, Integer.MAX_VALUE - 8))
+               : size;
+    }
+
+    /**
+     * Returns the length to which a full buffer of the given length grows,
+     * up to the given maximum size.
+     */
+    static int grow(int length, int max) {
+        return (int) Math.min(length * 2L, max);
+    }
+
+    /**
+     * Returns an unmodifiable list of the elements of a window, which may
+     * hold nulls.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> window(Object[] elements) {
+        return Collections.unmodifiableList((List<T>) Arrays.asList(elements));
+    }
+
+    /**
+     * Returns a node of windows, which are created in parallel.
+     *
+     * @param <W> the type of the windows
+     * @param generator the array generator of the pipeline
+     * @param count the number of windows
+     * @param window the function returning the window of a given index
+     */
+    private static <W> Node<W> windows(IntFunction<W[]> generator, long count,
+                                       IntFunction<W> window) {
+        if (count >= Nodes.MAX_ARRAY_SIZE)
+            throw new IllegalArgumentException(Nodes.BAD_SIZE);
+        W[] windows = generator.apply((int) count);
+        Arrays.parallelSetAll(windows, window);
+        return Nodes.node(windows);
+    }
+
+    /**
+     * Appends a window operation to the provided stream.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream with element type T
+     * @param size the size of the windows
+     * @param step the distance between the starts of two windows, either 1
+     *        or {@code size}
+     * @param batch true if the windows need not be aligned with the
+     *        encounter order of the whole stream
+     */
+    static <T> Stream<List<T>> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                       int size, int step, boolean batch) {
+        return new ReferencePipeline.StatefulOp<T, List<T>>(upstream, StreamShape.REFERENCE, FLAGS) {
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<List<T>> sink) {
+                return new RefWindowSink<>(sink, size, step);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            <P_IN> Node<List<T>> opEvaluateParallel(PipelineHelper<List<T>> helper,
+                                                    Spliterator<P_IN> spliterator,
+                                                    IntFunction<List<T>[]> generator) {
+                // The helper is the upstream stage, of elements of type T
+                PipelineHelper<T> h = (PipelineHelper<T>) (PipelineHelper<?>) helper;
+                Object[] elements = h.evaluate(spliterator, true, Nodes.castingArray())
+                                     .asArray(Nodes.castingArray());
+                return windows(generator, windowCount(elements.length, size, step), k -> {
+                    int from = k * step;
+                    return window(Arrays.copyOfRange(
+                            elements, from, Math.min(from + size, elements.length)));
+                });
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            <P_IN> Spliterator<List<T>> opEvaluateParallelLazy(PipelineHelper<List<T>> helper,
+                                                               Spliterator<P_IN> spliterator) {
+                if (batch) {
+                    PipelineHelper<T> h = (PipelineHelper<T>) (PipelineHelper<?>) helper;
+                    return new RefWindowSpliterator<>(h.wrapSpliterator(spliterator),
+                                                      size, step, true);
+                }
+                return super.opEvaluateParallelLazy(helper, spliterator);
+            }
+        };
+    }
+
+    /**
+     * Appends a window operation to the provided stream of ints.
+     *
+     * @param upstream a stream with element type int
+     * @param size the size of the windows
+     * @param step the distance between the starts of two windows, either 1
+     *        or {@code size}
+     * @param batch true if the windows need not be aligned with the
+     *        encounter order of the whole stream
+     */
+    static Stream<int[]> makeInt(AbstractPipeline<?, Integer, ?> upstream,
+                                 int size, int step, boolean batch) {
+        return new ReferencePipeline.StatefulOp<Integer, int[]>(upstream, StreamShape.INT_VALUE, FLAGS) {
+            @Override
+            Sink<Integer> opWrapSink(int flags, Sink<int[]> sink) {
+                return new IntWindowSink(sink, size, step);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            <P_IN> Node<int[]> opEvaluateParallel(PipelineHelper<int[]> helper,
+                                                  Spliterator<P_IN> spliterator,
+                                                  IntFunction<int[][]> generator) {
+                // The helper is the upstream stage, of ints
+                PipelineHelper<Integer> h = (PipelineHelper<Integer>) (PipelineHelper<?>) helper;
+                int[] elements = ((Node.OfInt) h.evaluate(spliterator, true, Integer[]::new))
+                        .asPrimitiveArray();
+                return windows(generator, windowCount(elements.length, size, step), k -> {
+                    int from = k * step;
+                    return Arrays.copyOfRange(
+                            elements, from, Math.min(from + size, elements.length));
+                });
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            <P_IN> Spliterator<int[]> opEvaluateParallelLazy(PipelineHelper<int[]> helper,
+                                                             Spliterator<P_IN> spliterator) {
+                if (batch) {
+                    PipelineHelper<Integer> h = (PipelineHelper<Integer>) (PipelineHelper<?>) helper;
+                    return new IntWindowSpliterator(
+                            (Spliterator.OfInt) h.wrapSpliterator(spliterator),
+                            size, step, true);
+                }
+                return super.opEvaluateParallelLazy(helper, spliterator);
+            }
+        };
+    }
+
+    /**
+     * Appends a window operation to the provided stream of longs.
+     *
+     * @param upstream a stream with element type long
+     * @param size the size of the windows
+     * @param step the distance between the starts of two windows, either 1
+     *        or {@code size}
+     * @param batch true if the windows need not be aligned with the
+     *        encounter order of the whole stream
+     */
+    static Stream<long[]> makeLong(AbstractPipeline<?, Long, ?> upstream,
+                                   int size, int step, boolean batch) {
+        return new ReferencePipeline.StatefulOp<Long, long[]>(upstream, StreamShape.LONG_VALUE, FLAGS) {
+            @Override
+            Sink<Long> opWrapSink(int flags, Sink<long[]> sink) {
+                return new LongWindowSink(sink, size, step);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            <P_IN> Node<long[]> opEvaluateParallel(PipelineHelper<long[]> helper,
+                                                   Spliterator<P_IN> spliterator,
+                                                   IntFunction<long[][]> generator) {
+                // The helper is the upstream stage, of longs
+                PipelineHelper<Long> h = (PipelineHelper<Long>) (PipelineHelper<?>) helper;
+                long[] elements = ((Node.OfLong) h.evaluate(spliterator, true, Long[]::new))
+                        .asPrimitiveArray();
+                return windows(generator, windowCount(elements.length, size, step), k -> {
+                    int from = k * step;
+                    return Arrays.copyOfRange(
+                            elements, from, Math.min(from + size, elements.length));
+                });
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            <P_IN> Spliterator<long[]> opEvaluateParallelLazy(PipelineHelper<long[]> helper,
+                                                              Spliterator<P_IN> spliterator) {
+                if (batch) {
+                    PipelineHelper<Long> h = (PipelineHelper<Long>) (PipelineHelper<?>) helper;
+                    return new LongWindowSpliterator(
+                            (Spliterator.OfLong) h.wrapSpliterator(spliterator),
+                            size, step, true);
+                }
+                return super.opEvaluateParallelLazy(helper, spliterator);
+            }
+        };
+    }
+
+    // Sinks
+
+    /**
+     * {@link Sink} producing windows of references.
+     */
+    private static final class RefWindowSink<T> extends Sink.ChainedReference<T, List<T>> {
+        private final int size;
+        private final int step;
+        private final int capacity;
+        private Object[] buf;
+        private int count;
+        private boolean emitted;
+
+        RefWindowSink(Sink<? super List<T>> downstream, int size, int step) {
+            super(downstream);
+            this.size = size;
+            this.step = step;
+            this.capacity = bufferSize(size, step);
+        }
+
+        @Override
+        public void begin(long n) {
+            buf = new Object[Math.min(MIN_BUFFER_SIZE, capacity)];
+            count = 0;
+            emitted = false;
+            downstream.begin(n >= 0 ? windowCount(n, size, step) : -1);
+        }
+
+        @Override
+        public void accept(T t) {
+            if (count == buf.length) {
+                if (count < capacity) {
+                    buf = Arrays.copyOf(buf, grow(count, capacity));
+                } else {
+                    // sliding windows: move the last size - 1 elements
+                    // back to the front
+                    System.arraycopy(buf, count - size + 1, buf, 0, size - 1);
+                    count = size - 1;
+                }
+            }
+            buf[count++] = t;
+            if (step == 1) {
+                if (count >= size) {
+                    emitted = true;
+                    downstream.accept(window(Arrays.copyOfRange(buf, count - size, count)));
+                }
+            } else {
+                if (count == size) {
+                    Object[] w = buf;
+                    buf = new Object[Math.min(MIN_BUFFER_SIZE, capacity)];
+                    count = 0;
+                    downstream.accept(window(w));
+                }
+            }
+        }
+
+        @Override
+        public void end() {
+            if (count > 0 && (step != 1 || !emitted)) {
+                downstream.accept(window(Arrays.copyOf(buf, count)));
+            }
+            buf = null;
+            downstream.end();
+        }
+    }
+
+    /**
+     * {@link Sink} producing windows of ints.
+     */
+    private static final class IntWindowSink extends Sink.ChainedInt<int[]> {
+        private final int size;
+        private final int step;
+        private final int capacity;
+        private int[] buf;
+        private int count;
+        private boolean emitted;
+
+        IntWindowSink(Sink<? super int[]> downstream, int size, int step) {
+            super(downstream);
+            this.size = size;
+            this.step = step;
+            this.capacity = bufferSize(size, step);
+        }
+
+        @Override
+        public void begin(long n) {
+            buf = new int[Math.min(MIN_BUFFER_SIZE, capacity)];
+            count = 0;
+            emitted = false;
+            downstream.begin(n >= 0 ? windowCount(n, size, step) : -1);
+        }
+
+        @Override
+        public void accept(int t) {
+            if (count == buf.length) {
+                if (count < capacity) {
+                    buf = Arrays.copyOf(buf, grow(count, capacity));
+                } else {
+                    // sliding windows: move the last size - 1 elements
+                    // back to the front
+                    System.arraycopy(buf, count - size + 1, buf, 0, size - 1);
+                    count = size - 1;
+                }
+            }
+            buf[count++] = t;
+            if (step == 1) {
+                if (count >= size) {
+                    emitted = true;
+                    downstream.accept(Arrays.copyOfRange(buf, count - size, count));
+                }
+            } else {
+                if (count == size) {
+                    int[] w = buf;
+                    buf = new int[Math.min(MIN_BUFFER_SIZE, capacity)];
+                    count = 0;
+                    downstream.accept(w);
+                }
+            }
+        }
+
+        @Override
+        public void end() {
+            if (count > 0 && (step != 1 || !emitted)) {
+                downstream.accept(Arrays.copyOf(buf, count));
+            }
+            buf = null;
+            downstream.end();
+        }
+    }
+
+    /**
+     * {@link Sink} producing windows of longs.
+     */
+    private static final class LongWindowSink extends Sink.ChainedLong<long[]> {
+        private final int size;
+        private final int step;
+        private final int capacity;
+        private long[] buf;
+        private int count;
+        private boolean emitted;
+
+        LongWindowSink(Sink<? super long[]> downstream, int size, int step) {
+            super(downstream);
+            this.size = size;
+            this.step = step;
+            this.capacity = bufferSize(size, step);
+        }
+
+        @Override
+        public void begin(long n) {
+            buf = new long[Math.min(MIN_BUFFER_SIZE, capacity)];
+            count = 0;
+            emitted = false;
+            downstream.begin(n >= 0 ? windowCount(n, size, step) : -1);
+        }
+
+        @Override
+        public void accept(long t) {
+            if (count == buf.length) {
+                if (count < capacity) {
+                    buf = Arrays.copyOf(buf, grow(count, capacity));
+                } else {
+                    // sliding windows: move the last size - 1 elements
+                    // back to the front
+                    System.arraycopy(buf, count - size + 1, buf, 0, size - 1);
+                    count = size - 1;
+                }
+            }
+            buf[count++] = t;
+            if (step == 1) {
+                if (count >= size) {
+                    emitted = true;
+                    downstream.accept(Arrays.copyOfRange(buf, count - size, count));
+                }
+            } else {
+                if (count == size) {
+                    long[] w = buf;
+                    buf = new long[Math.min(MIN_BUFFER_SIZE, capacity)];
+                    count = 0;
+                    downstream.accept(w);
+                }
+            }
+        }
+
+        @Override
+        public void end() {
+            if (count > 0 && (step != 1 || !emitted)) {
+                downstream.accept(Arrays.copyOf(buf, count));
+            }
+            buf = null;
+            downstream.end();
+        }
+    }
+
+    // Spliterators
+
+    /**
+     * A spliterator producing windows of the elements of another
+     * spliterator, which is used to produce batches in parallel, and by the
+     * default implementations of the window methods of {@link Stream}.
+     * Only batches may be split, as the windows of a split are aligned
+     * with its own first element.
+     */
+    static final class RefWindowSpliterator<T>
+            implements Spliterator<List<T>>, Consumer<T> {
+        private final Spliterator<T> s;
+        private final int size;
+        private final int step;
+        private final boolean splittable;
+        private final int capacity;
+        private Object[] buf;
+        private int count;
+        private boolean emitted;
+
+        RefWindowSpliterator(Spliterator<T> s, int size, int step, boolean splittable) {
+            this.s = Objects.requireNonNull(s);
+            this.size = size;
+            this.step = step;
+            this.splittable = splittable;
+            this.capacity = bufferSize(size, step);
+        }
+
+        @Override
+        public void accept(T t) {
+            if (count == buf.length)
+                buf = Arrays.copyOf(buf, grow(count, capacity));
+            buf[count++] = t;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            Objects.requireNonNull(action);
+            if (step == 1 && emitted) {
+                // Slide by one element, moving the window to the front once
+                // the buffer is full
+                if (count == capacity) {
+                    System.arraycopy(buf, count - size + 1, buf, 0, size - 1);
+                    count = size - 1;
+                }
+                if (!s.tryAdvance(this))
+                    return false;
+                action.accept(window(Arrays.copyOfRange(buf, count - size, count)));
+                return true;
+            }
+            if (buf == null) {
+                buf = new Object[Math.min(MIN_BUFFER_SIZE, capacity)];
+            }
+            count = 0;
+            while (count < size && s.tryAdvance(this)) { }
+            if (count == 0)
+                return false;
+            emitted = true;
+            Object[] w;
+            if (step == 1) {
+                w = Arrays.copyOf(buf, count);
+            } else {
+                w = count == size ? buf : Arrays.copyOf(buf, count);
+                buf = null;
+            }
+            action.accept(window(w));
+            return true;
+        }
+
+        @Override
+        public Spliterator<List<T>> trySplit() {
+            if (!splittable || buf != null)
+                return null;
+            Spliterator<T> prefix = s.trySplit();
+            return prefix == null ? null : new RefWindowSpliterator<>(prefix, size, step, true);
+        }
+
+        @Override
+        public long estimateSize() {
+            long n = s.estimateSize();
+            return n == Long.MAX_VALUE ? n : windowCount(n, size, step);
+        }
+
+        @Override
+        public int characteristics() {
+            return (s.characteristics() & Spliterator.ORDERED) | Spliterator.NONNULL;
+        }
+    }
+
+    /**
+     * A spliterator producing windows of the elements of another
+     * spliterator of ints.
+     */
+    static final class IntWindowSpliterator
+            implements Spliterator<int[]>, IntConsumer {
+        private final Spliterator.OfInt s;
+        private final int size;
+        private final int step;
+        private final boolean splittable;
+        private final int capacity;
+        private int[] buf;
+        private int count;
+        private boolean emitted;
+
+        IntWindowSpliterator(Spliterator.OfInt s, int size, int step, boolean splittable) {
+            this.s = Objects.requireNonNull(s);
+            this.size = size;
+            this.step = step;
+            this.splittable = splittable;
+            this.capacity = bufferSize(size, step);
+        }
+
+        @Override
+        public void accept(int t) {
+            if (count == buf.length)
+                buf = Arrays.copyOf(buf, grow(count, capacity));
+            buf[count++] = t;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super int[]> action) {
+            Objects.requireNonNull(action);
+            if (step == 1 && emitted) {
+                if (count == capacity) {
+                    System.arraycopy(buf, count - size + 1, buf, 0, size - 1);
+                    count = size - 1;
+                }
+                if (!s.tryAdvance((IntConsumer) this))
+                    return false;
+                action.accept(Arrays.copyOfRange(buf, count - size, count));
+                return true;
+            }
+            if (buf == null) {
+                buf = new int[Math.min(MIN_BUFFER_SIZE, capacity)];
+            }
+            count = 0;
+            while (count < size && s.tryAdvance((IntConsumer) this)) { }
+            if (count == 0)
+                return false;
+            emitted = true;
+            int[] w;
+            if (step == 1) {
+                w = Arrays.copyOf(buf, count);
+            } else {
+                w = count == size ? buf : Arrays.copyOf(buf, count);
+                buf = null;
+            }
+            action.accept(w);
+            return true;
+        }
+
+        @Override
+        public Spliterator<int[]> trySplit() {
+            if (!splittable || buf != null)
+                return null;
+            Spliterator.OfInt prefix = s.trySplit();
+            return prefix == null ? null : new IntWindowSpliterator(prefix, size, step, true);
+        }
+
+        @Override
+        public long estimateSize() {
+            long n = s.estimateSize();
+            return n == Long.MAX_VALUE ? n : windowCount(n, size, step);
+        }
+
+        @Override
+        public int characteristics() {
+            return (s.characteristics() & Spliterator.ORDERED) | Spliterator.NONNULL;
+        }
+    }
+
+    /**
+     * A spliterator producing windows of the elements of another
+     * spliterator of longs.
+     */
+    static final class LongWindowSpliterator
+            implements Spliterator<long[]>, LongConsumer {
+        private final Spliterator.OfLong s;
+        private final int size;
+        private final int step;
+        private final boolean splittable;
+        private final int capacity;
+        private long[] buf;
+        private int count;
+        private boolean emitted;
+
+        LongWindowSpliterator(Spliterator.OfLong s, int size, int step, boolean splittable) {
+            this.s = Objects.requireNonNull(s);
+            this.size = size;
+            this.step = step;
+            this.splittable = splittable;
+            this.capacity = bufferSize(size, step);
+        }
+
+        @Override
+        public void accept(long t) {
+            if (count == buf.length)
+                buf = Arrays.copyOf(buf, grow(count, capacity));
+            buf[count++] = t;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super long[]> action) {
+            Objects.requireNonNull(action);
+            if (step == 1 && emitted) {
+                if (count == capacity) {
+                    System.arraycopy(buf, count - size + 1, buf, 0, size - 1);
+                    count = size - 1;
+                }
+                if (!s.tryAdvance((LongConsumer) this))
+                    return false;
+                action.accept(Arrays.copyOfRange(buf, count - size, count));
+                return true;
+            }
+            if (buf == null) {
+                buf = new long[Math.min(MIN_BUFFER_SIZE, capacity)];
+            }
+            count = 0;
+            while (count < size && s.tryAdvance((LongConsumer) this)) { }
+            if (count == 0)
+                return false;
+            emitted = true;
+            long[] w;
+            if (step == 1) {
+                w = Arrays.copyOf(buf, count);
+            } else {
+                w = count == size ? buf : Arrays.copyOf(buf, count);
+                buf = null;
+            }
+            action.accept(w);
+            return true;
+        }
+
+        @Override
+        public Spliterator<long[]> trySplit() {
+            if (!splittable || buf != null)
+                return null;
+            Spliterator.OfLong prefix = s.trySplit();
+            return prefix == null ? null : new LongWindowSpliterator(prefix, size, step, true);
+        }
+
+        @Override
+        public long estimateSize() {
+            long n = s.estimateSize();
+            return n == Long.MAX_VALUE ? n : windowCount(n, size, step);
+        }
+
+        @Override
+        public int characteristics() {
+            return (s.characteristics() & Spliterator.ORDERED) | Spliterator.NONNULL;
+        }
+    }
+}
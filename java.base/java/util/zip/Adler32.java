@@ -25,7 +25,9 @@
 
 package java.util.zip;
 
+import java.lang.ref.Reference;
 import java.nio.ByteBuffer;
+import java.util.Objects;
 import sun.nio.ch.DirectBuffer;
 
 import jdk.internal.HotSpotIntrinsicCandidate;
@@ -44,6 +46,9 @@ import jdk.internal.HotSpotIntrinsicCandidate;
 public
 class Adler32 implements Checksum {
 
+    // largest prime smaller than 65536
+    private static final int BASE = 65521;
+
     private int adler = 1;
 
     /**
@@ -128,6 +133,101 @@ class Adler32 implements Checksum {
         return (long)adler & 0xffffffffL;
     }
 
+    /**
+     * Computes the Adler-32 checksums of several regions of a buffer in one
+     * call. The checksum of the region of {@code lengths[i]} bytes starting
+     * at the absolute index {@code offsets[i]} of the buffer is stored in
+     * {@code values[i]}, as if computed by a new {@code Adler32} object. The
+     * position and limit of the buffer are not changed.
+     *
+     * <p>This method is meant for checksumming many small records, which
+     * it does without allocating an {@code Adler32} object, or a view of
+     * the buffer, per record.
+     *
+     * @param buffer the buffer holding the regions
+     * @param offsets the absolute indices of the first byte of the regions
+     * @param lengths the lengths of the regions
+     * @param values the array into which the checksums are stored
+     * @throws IllegalArgumentException
+     *         if {@code offsets} and {@code lengths} are not of the same
+     *         length, or if {@code values} is shorter than them
+     * @throws IndexOutOfBoundsException
+     *         if a region is not within the limit of the buffer
+     * @since 12
+     */
+    public static void getValues(ByteBuffer buffer, int[] offsets,
+                                 int[] lengths, long[] values) {
+        int n = offsets.length;
+        if (lengths.length != n || values.length < n) {
+            throw new IllegalArgumentException("array lengths mismatch");
+        }
+        int limit = buffer.limit();
+        byte[] b = null;
+        try {
+            for (int i = 0; i < n; i++) {
+                int off = offsets[i];
+                int len = lengths[i];
+                Objects.checkFromIndexSize(off, len, limit);
+                int adler = 1;
+                if (len == 0) {
+                    // no data
+                } else if (buffer instanceof DirectBuffer) {
+                    adler = updateByteBuffer(adler,
+                            ((DirectBuffer)buffer).address(), off, len);
+                } else if (buffer.hasArray()) {
+                    adler = updateBytes(adler, buffer.array(),
+                                        off + buffer.arrayOffset(), len);
+                } else {
+                    if (b == null) {
+                        b = new byte[4096];
+                    }
+                    ByteBuffer src = buffer.duplicate();
+                    src.limit(off + len).position(off);
+                    while (src.hasRemaining()) {
+                        int length = Math.min(src.remaining(), b.length);
+                        src.get(b, 0, length);
+                        adler = updateBytes(adler, b, 0, length);
+                    }
+                }
+                values[i] = (long)adler & 0xffffffffL;
+            }
+        } finally {
+            Reference.reachabilityFence(buffer);
+        }
+    }
+
+    /**
+     * Returns the Adler-32 checksum of the concatenation of two sequences
+     * of bytes, given the checksums of both sequences and the length of
+     * the second one. This lets the checksum of a large input be computed
+     * from the checksums of its chunks, which may be computed in parallel.
+     *
+     * @param adler1 the Adler-32 checksum of the first sequence
+     * @param adler2 the Adler-32 checksum of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the Adler-32 checksum of the first sequence followed by the
+     *         second one
+     * @throws IllegalArgumentException if {@code len2} is negative
+     * @since 12
+     */
+    public static long combine(long adler1, long adler2, long len2) {
+        if (len2 < 0) {
+            throw new IllegalArgumentException("len2 < 0");
+        }
+        // the sum of bytes adds up, and the sum of sums of the first
+        // sequence is counted once more for each byte of the second one
+        long rem = len2 % BASE;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (rem * sum1) % BASE;
+        sum1 += (adler2 & 0xffff) + BASE - 1;
+        sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + BASE - rem;
+        if (sum1 >= BASE) sum1 -= BASE;
+        if (sum1 >= BASE) sum1 -= BASE;
+        if (sum2 >= (BASE << 1)) sum2 -= (BASE << 1);
+        if (sum2 >= BASE) sum2 -= BASE;
+        return sum1 | (sum2 << 16);
+    }
+
     private static native int update(int adler, int b);
 
     @HotSpotIntrinsicCandidate
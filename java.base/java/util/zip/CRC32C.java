@@ -24,8 +24,10 @@
  */
 package java.util.zip;
 
+import java.lang.ref.Reference;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Objects;
 
 import jdk.internal.HotSpotIntrinsicCandidate;
 import jdk.internal.misc.Unsafe;
@@ -76,6 +78,8 @@ public final class CRC32C implements Checksum {
     private static final int[] byteTable5 = byteTables[5];
     private static final int[] byteTable6 = byteTables[6];
     private static final int[] byteTable7 = byteTables[7];
+    // x^(2^n) modulo the polynomial, for combining checksums
+    private static final int[] x2nTable = new int[32];
 
     static {
         // Generate lookup tables
@@ -112,6 +116,12 @@ public final class CRC32C implements Checksum {
                 }
             }
         }
+
+        int p = 1 << 30;                // x^1
+        x2nTable[0] = p;
+        for (int n = 1; n < x2nTable.length; n++) {
+            x2nTable[n] = p = multModP(p, p);
+        }
     }
 
     /**
@@ -203,6 +213,118 @@ public final class CRC32C implements Checksum {
         return (~crc) & 0xFFFFFFFFL;
     }
 
+    /**
+     * Computes the CRC-32C checksums of several regions of a buffer in one
+     * call. The checksum of the region of {@code lengths[i]} bytes starting
+     * at the absolute index {@code offsets[i]} of the buffer is stored in
+     * {@code values[i]}, as if computed by a new {@code CRC32C} object. The
+     * position and limit of the buffer are not changed.
+     *
+     * <p>This method is meant for checksumming many small records, which
+     * it does without allocating a {@code CRC32C} object, or a view of the
+     * buffer, per record.
+     *
+     * @param buffer the buffer holding the regions
+     * @param offsets the absolute indices of the first byte of the regions
+     * @param lengths the lengths of the regions
+     * @param values the array into which the checksums are stored
+     * @throws IllegalArgumentException
+     *         if {@code offsets} and {@code lengths} are not of the same
+     *         length, or if {@code values} is shorter than them
+     * @throws IndexOutOfBoundsException
+     *         if a region is not within the limit of the buffer
+     * @since 12
+     */
+    public static void getValues(ByteBuffer buffer, int[] offsets,
+                                 int[] lengths, long[] values) {
+        int n = offsets.length;
+        if (lengths.length != n || values.length < n) {
+            throw new IllegalArgumentException("array lengths mismatch");
+        }
+        int limit = buffer.limit();
+        try {
+            for (int i = 0; i < n; i++) {
+                int off = offsets[i];
+                int len = lengths[i];
+                Objects.checkFromIndexSize(off, len, limit);
+                int crc = 0xFFFFFFFF;
+                if (buffer instanceof DirectBuffer) {
+                    crc = updateDirectByteBuffer(crc,
+                            ((DirectBuffer) buffer).address(), off, off + len);
+                } else if (buffer.hasArray()) {
+                    int start = off + buffer.arrayOffset();
+                    crc = updateBytes(crc, buffer.array(), start, start + len);
+                } else {
+                    for (int end = off + len; off < end; off++) {
+                        crc = (crc >>> 8)
+                                ^ byteTable[(crc ^ buffer.get(off)) & 0xFF];
+                    }
+                }
+                values[i] = (~crc) & 0xFFFFFFFFL;
+            }
+        } finally {
+            Reference.reachabilityFence(buffer);
+        }
+    }
+
+    /**
+     * Returns the CRC-32C checksum of the concatenation of two sequences
+     * of bytes, given the checksums of both sequences and the length of
+     * the second one. This lets the checksum of a large input be computed
+     * from the checksums of its chunks, which may be computed in parallel.
+     *
+     * @param crc1 the CRC-32C checksum of the first sequence
+     * @param crc2 the CRC-32C checksum of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the CRC-32C checksum of the first sequence followed by the
+     *         second one
+     * @throws IllegalArgumentException if {@code len2} is negative
+     * @since 12
+     */
+    public static long combine(long crc1, long crc2, long len2) {
+        if (len2 < 0) {
+            throw new IllegalArgumentException("len2 < 0");
+        }
+        // crc(AB) is crc(A) shifted over the zero bits of len(B), xor crc(B)
+        int p = multModP(x2nModP(len2, 3), (int) crc1);
+        return (p ^ (int) crc2) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Returns a * b modulo the CRC-32C polynomial, where a and b are
+     * polynomials stored with the x^0 term in the most significant bit.
+     */
+    private static int multModP(int a, int b) {
+        int m = 1 << 31;
+        int p = 0;
+        for (;;) {
+            if ((a & m) != 0) {
+                p ^= b;
+                if ((a & (m - 1)) == 0) {
+                    break;
+                }
+            }
+            m >>>= 1;
+            b = (b & 1) != 0 ? (b >>> 1) ^ REVERSED_CRC32C_POLY : b >>> 1;
+        }
+        return p;
+    }
+
+    /**
+     * Returns x^(n * 2^k) modulo the CRC-32C polynomial.
+     */
+    private static int x2nModP(long n, int k) {
+        int p = 1 << 31;                // x^0 == 1
+        while (n != 0) {
+            if ((n & 1) != 0) {
+                p = multModP(x2nTable[k & 31], p);
+            }
+            n >>>= 1;
+            k++;
+        }
+        return p;
+    }
+
     /**
      * Updates the CRC-32C checksum with the specified array of bytes.
      */
@@ -105,6 +105,8 @@ public class Deflater {
     private boolean finish, finished;
     private long bytesRead;
     private long bytesWritten;
+    DeflaterPool pool;          // the pool that created this deflater, if any
+    boolean acquired;           // taken from the pool and not released since
 
     /**
      * Compression method for the deflate algorithm (the only one currently
@@ -144,6 +144,49 @@ class DeflaterOutputStream extends FilterOutputStream {
 
     boolean usesDefaultDeflater = false;
 
+    /**
+     * The pool to release the compressor to on close, or null.
+     */
+    DeflaterPool pool;
+
+    /**
+     * Creates a new output stream with a compressor acquired from the
+     * specified pool, and the specified buffer size and flush mode. The
+     * compressor is released to the pool when this stream is closed.
+     *
+     * @param out the output stream
+     * @param pool the pool of compressors
+     * @param size the output buffer size
+     * @param syncFlush
+     *        if {@code true} the {@link #flush()} method of this
+     *        instance flushes the compressor with flush mode
+     *        {@link Deflater#SYNC_FLUSH} before flushing the output
+     *        stream, otherwise only flushes the output stream
+     *
+     * @throws IllegalArgumentException if {@code size <= 0}
+     *
+     * @since 12
+     */
+    public DeflaterOutputStream(OutputStream out, DeflaterPool pool,
+                                int size, boolean syncFlush) {
+        this(out, acquire(out, pool, size), size, syncFlush);
+        this.pool = pool;
+    }
+
+    /**
+     * Checks the arguments before acquiring a compressor from the pool,
+     * so that it is not lost if they are invalid.
+     */
+    private static Deflater acquire(OutputStream out, DeflaterPool pool,
+                                    int size) {
+        if (out == null) {
+            throw new NullPointerException();
+        } else if (size <= 0) {
+            throw new IllegalArgumentException("buffer size <= 0");
+        }
+        return pool.acquire();
+    }
+
 
     /**
      * Creates a new output stream with a default compressor, a default
@@ -236,7 +279,9 @@ class DeflaterOutputStream extends FilterOutputStream {
     public void close() throws IOException {
         if (!closed) {
             finish();
-            if (usesDefaultDeflater)
+            if (pool != null)
+                pool.release(def);
+            else if (usesDefaultDeflater)
                 def.end();
             out.close();
             closed = true;
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.util.ArrayDeque;
+
+/**
+ * A bounded pool of {@link Deflater}s, which lets the native state of a
+ * compressor be reused across compressions instead of being allocated for
+ * each of them.
+ *
+ * <p>A {@code Deflater} is taken from the pool with {@link #acquire()},
+ * which creates a new one if the pool is empty, and handed back with
+ * {@link #release(Deflater)}, which resets it, and restores the compression
+ * level and strategy of the pool, or ends it if the pool is full or closed.
+ * The output streams created with a pool, such as those of
+ * {@link GZIPOutputStream#GZIPOutputStream(java.io.OutputStream, int, DeflaterPool)},
+ * release their {@code Deflater} to the pool when closed.
+ *
+ * <p>A pool is safe for use by multiple concurrent threads. Its statistics
+ * are updated atomically with the operations that they count.
+ *
+ * @see     InflaterPool
+ * @since 12
+ */
+public class DeflaterPool {
+
+    /**
+     * An estimate of the native memory held by a deflater: the zlib state
+     * plus the window, hash chains and pending buffer for the default 15
+     * window bits and memory level of 8.
+     */
+    private static final long DEFLATER_FOOTPRINT = 6 * 1024 + (1 << 17) + (1 << 17);
+
+    private final int level;
+    private final boolean nowrap;
+    private final int maxSize;
+
+    /**
+     * The idle deflaters, most recently released last.
+     */
+    private final ArrayDeque<Deflater> idle = new ArrayDeque<>();
+
+    private long hits;
+    private long misses;
+    private boolean closed;
+
+    /**
+     * Creates a new pool of deflaters created with the specified
+     * compression level and {@code nowrap} parameter, which keeps at most
+     * {@code maxSize} idle deflaters.
+     *
+     * @param level the compression level (0-9)
+     * @param nowrap if true then the deflaters use GZIP compatible
+     *        compression, see {@link Deflater#Deflater(int, boolean)}
+     * @param maxSize the maximum number of idle deflaters
+     * @throws IllegalArgumentException if the compression level is invalid,
+     *         or if {@code maxSize} is negative
+     */
+    public DeflaterPool(int level, boolean nowrap, int maxSize) {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("invalid compression level");
+        }
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize < 0");
+        }
+        this.level = level;
+        this.nowrap = nowrap;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the compression level of the deflaters of this pool.
+     *
+     * @return the compression level of the deflaters of this pool
+     */
+    public int level() {
+        return level;
+    }
+
+    /**
+     * Returns whether the deflaters of this pool are created with
+     * {@code nowrap} set to {@code true}.
+     *
+     * @return the {@code nowrap} parameter of the deflaters of this pool
+     */
+    public boolean nowrap() {
+        return nowrap;
+    }
+
+    /**
+     * Returns an idle deflater of this pool, or a new one if there is none.
+     *
+     * @return a deflater, ready for a new set of input data
+     */
+    public Deflater acquire() {
+        synchronized (idle) {
+            Deflater def = idle.pollLast();
+            if (def != null) {
+                hits++;
+                def.acquired = true;
+                return def;
+            }
+            misses++;
+        }
+        Deflater def = new Deflater(level, nowrap);
+        def.pool = this;
+        def.acquired = true;
+        return def;
+    }
+
+    /**
+     * Hands the specified deflater back to this pool. The deflater is reset,
+     * with the compression level and strategy of the pool, and kept for a
+     * later {@link #acquire()}, unless the pool is full or closed, in which
+     * case it is ended. The deflater must not be used by the caller after
+     * this method returns.
+     *
+     * @param def a deflater acquired from this pool
+     * @throws IllegalArgumentException if the deflater was not acquired
+     *         from this pool
+     * @throws IllegalStateException if the deflater has already been released
+     *         since it was acquired
+     * @throws NullPointerException if the deflater has been ended
+     */
+    public void release(Deflater def) {
+        if (def.pool != this) {
+            throw new IllegalArgumentException("not a deflater of this pool");
+        }
+        synchronized (idle) {
+            // a second release would hand the same deflater to two users
+            if (!def.acquired) {
+                throw new IllegalStateException("deflater already released");
+            }
+            def.acquired = false;
+        }
+        def.reset();
+        def.setLevel(level);
+        def.setStrategy(Deflater.DEFAULT_STRATEGY);
+        synchronized (idle) {
+            if (!closed && idle.size() < maxSize) {
+                idle.addLast(def);
+                return;
+            }
+        }
+        def.end();
+    }
+
+    /**
+     * Ends the idle deflaters of this pool. The deflaters released to the
+     * pool after it is closed are ended too, while {@link #acquire()} keeps
+     * creating new deflaters.
+     */
+    public void close() {
+        synchronized (idle) {
+            closed = true;
+            Deflater def;
+            while ((def = idle.pollLast()) != null) {
+                def.end();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of idle deflaters in this pool.
+     *
+     * @return the number of idle deflaters in this pool
+     */
+    public int size() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * Returns the number of calls to {@link #acquire()} which returned an
+     * idle deflater.
+     *
+     * @return the number of acquisitions served from this pool
+     */
+    public long hits() {
+        synchronized (idle) {
+            return hits;
+        }
+    }
+
+    /**
+     * Returns the number of calls to {@link #acquire()} which created a
+     * new deflater.
+     *
+     * @return the number of acquisitions not served from this pool
+     */
+    public long misses() {
+        synchronized (idle) {
+            return misses;
+        }
+    }
+
+    /**
+     * Returns an estimate of the native memory, in bytes, held by the idle
+     * deflaters of this pool. The estimate is based on the memory
+     * requirements of zlib for the default window size and memory level.
+     *
+     * @return an estimate of the native memory retained by this pool
+     */
+    public long retainedNativeMemory() {
+        return size() * DEFLATER_FOOTPRINT;
+    }
+
+    /**
+     * Returns a string identifying this pool, as well as its statistics.
+     *
+     * @return a string identifying this pool, as well as its statistics
+     */
+    @Override
+    public String toString() {
+        synchronized (idle) {
+            return super.toString() +
+                "[level = " + level +
+                ", nowrap = " + nowrap +
+                ", size = " + idle.size() + "/" + maxSize +
+                ", hits = " + hits +
+                ", misses = " + misses +
+                (closed ? ", closed]" : "]");
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * This class implements a writable channel for compressing data in the
+ * "deflate" compression format. It is the channel counterpart of
+ * {@link DeflaterOutputStream}: the buffers passed to {@link #write write}
+ * are compressed by the {@link Deflater#setInput(ByteBuffer) ByteBuffer}
+ * methods of a {@code Deflater} into an output buffer, which is written to
+ * a destination channel, so that no data is copied through a {@code byte[]}
+ * when the buffers are direct.
+ *
+ * <p>The destination channel is expected to be in blocking mode, as the
+ * compressed data is written out completely before {@code write} returns.
+ *
+ * <p>A channel of this class is not safe for use by multiple concurrent
+ * threads.
+ *
+ * @see     InflaterReadableChannel
+ * @see     GZIPWritableChannel
+ * @since 12
+ */
+public class DeflaterWritableChannel implements WritableByteChannel {
+
+    /**
+     * The destination channel of compressed data.
+     */
+    protected final WritableByteChannel ch;
+
+    /**
+     * Compressor for this channel.
+     */
+    protected final Deflater def;
+
+    /**
+     * Output buffer for writing compressed data.
+     */
+    protected final ByteBuffer buf;
+
+    boolean usesDefaultDeflater = false;
+
+    /**
+     * The minimum capacity of the output buffer, which holds a GZIP
+     * trailer.
+     */
+    static final int MIN_BUFFER_SIZE = 8;
+
+    private boolean closed = false;
+    private boolean finished = false;
+
+    /**
+     * Creates a new channel with the specified compressor and output
+     * buffer, which may be direct.
+     * @param ch the destination channel
+     * @param def the compressor ("deflater")
+     * @param buf the output buffer, which is cleared
+     * @exception IllegalArgumentException if the capacity of the output
+     *            buffer is less than 8 bytes, or if it is read-only
+     */
+    public DeflaterWritableChannel(WritableByteChannel ch, Deflater def,
+                                   ByteBuffer buf) {
+        this.ch = Objects.requireNonNull(ch);
+        this.def = Objects.requireNonNull(def);
+        // zlib may loop on flush markers with less than 6 bytes of output
+        if (buf.capacity() < MIN_BUFFER_SIZE || buf.isReadOnly()) {
+            throw new IllegalArgumentException("unusable output buffer");
+        }
+        this.buf = buf;
+        buf.clear();
+    }
+
+    /**
+     * Creates a new channel with the specified compressor and a direct
+     * output buffer of a default size.
+     * @param ch the destination channel
+     * @param def the compressor ("deflater")
+     */
+    public DeflaterWritableChannel(WritableByteChannel ch, Deflater def) {
+        this(ch, def, ByteBuffer.allocateDirect(8192));
+    }
+
+    /**
+     * Creates a new channel with a default compressor and direct output
+     * buffer.
+     * @param ch the destination channel
+     */
+    public DeflaterWritableChannel(WritableByteChannel ch) {
+        this(ch, new Deflater());
+        usesDefaultDeflater = true;
+    }
+
+    /**
+     * Check to make sure that this channel has not been closed
+     */
+    void ensureOpen() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Compresses the remaining bytes of the given buffer. This method
+     * blocks until the buffer has been consumed by the compressor, and
+     * the compressed data produced meanwhile written to the destination
+     * channel.
+     * @param src the buffer from which the data is written
+     * @return the number of bytes written, which is the number of bytes
+     *         remaining in the buffer
+     * @exception IOException if an I/O error has occurred
+     */
+    public int write(ByteBuffer src) throws IOException {
+        ensureOpen();
+        if (finished) {
+            throw new IOException("write beyond end of stream");
+        }
+        int len = src.remaining();
+        if (len > 0) {
+            int pos = src.position();
+            def.setInput(src);
+            try {
+                while (!def.needsInput()) {
+                    deflate(Deflater.NO_FLUSH);
+                }
+            } finally {
+                // the caller may reuse the buffer once this method returns
+                def.setInput(ZipUtils.defaultBuf);
+            }
+            written(src, pos, len);
+        }
+        return len;
+    }
+
+    /**
+     * Called with the region of the source buffer which has been
+     * compressed, for subclasses to account for the uncompressed data.
+     */
+    void written(ByteBuffer src, int pos, int len) {
+    }
+
+    /**
+     * Finishes writing compressed data to the destination channel without
+     * closing it. Use this method when applying multiple filters in
+     * succession to the same channel.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void finish() throws IOException {
+        ensureOpen();
+        if (!finished) {
+            def.finish();
+            while (!def.finished()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+            finished = true;
+            finished();
+        }
+    }
+
+    /**
+     * Called once the compressor has finished, with the compressed data
+     * already in the output buffer, for subclasses to append a trailer.
+     */
+    void finished() throws IOException {
+        drain();
+    }
+
+    /**
+     * Flushes the compressor with flush mode {@link Deflater#SYNC_FLUSH},
+     * and writes all the compressed data to the destination channel, so
+     * that the data written so far can be decompressed.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        if (!finished) {
+            do {
+                drain();
+                def.deflate(buf, Deflater.SYNC_FLUSH);
+            } while (!buf.hasRemaining());
+            drain();
+        }
+    }
+
+    /**
+     * Writes next block of compressed data to the output buffer, writing
+     * the buffer to the destination channel when it is full.
+     * @param flush the compression flush mode
+     * @exception IOException if an I/O error has occurred
+     */
+    protected void deflate(int flush) throws IOException {
+        if (!buf.hasRemaining()) {
+            drain();
+        }
+        def.deflate(buf, flush);
+    }
+
+    /**
+     * Writes the contents of the output buffer to the destination channel.
+     */
+    void drain() throws IOException {
+        buf.flip();
+        try {
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+        } finally {
+            buf.compact();
+        }
+    }
+
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Writes remaining compressed data to the destination channel and
+     * closes it, and releases the compressor if it is the default one.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                if (usesDefaultDeflater)
+                    def.end();
+                closed = true;
+                ch.close();
+            }
+        }
+    }
+}
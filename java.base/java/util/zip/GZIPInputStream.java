@@ -80,6 +80,44 @@ class GZIPInputStream extends InflaterInputStream {
         readHeader(in);
     }
 
+    /**
+     * Creates a new input stream with the specified buffer size, and a
+     * decompressor acquired from the specified pool. The decompressor is
+     * released to the pool when this stream is closed, or if the GZIP
+     * header cannot be read.
+     * @param in the input stream
+     * @param size the input buffer size
+     * @param pool the pool of decompressors, which must be created with
+     *             {@code nowrap} set to {@code true}
+     *
+     * @exception ZipException if a GZIP format error has occurred or the
+     *                         compression method used is unsupported
+     * @exception IOException if an I/O error has occurred
+     * @exception IllegalArgumentException if {@code size <= 0}, or if the
+     *                         decompressors of the pool are not
+     *                         {@code nowrap}
+     * @since 12
+     */
+    public GZIPInputStream(InputStream in, int size, InflaterPool pool)
+        throws IOException
+    {
+        super(in, checkNowrap(pool), size);
+        try {
+            readHeader(in);
+        } catch (IOException | RuntimeException x) {
+            pool.release(inf);
+            this.pool = null;
+            throw x;
+        }
+    }
+
+    private static InflaterPool checkNowrap(InflaterPool pool) {
+        if (!pool.nowrap()) {
+            throw new IllegalArgumentException("pool inflaters are not nowrap");
+        }
+        return pool;
+    }
+
     /**
      * Creates a new input stream with a default buffer size.
      * @param in the input stream
@@ -68,6 +68,41 @@ class GZIPOutputStream extends DeflaterOutputStream {
         this(out, size, false);
     }
 
+    /**
+     * Creates a new output stream with the specified buffer size, and a
+     * compressor acquired from the specified pool. The compressor is
+     * released to the pool when this stream is closed.
+     *
+     * @param out the output stream
+     * @param size the output buffer size
+     * @param pool the pool of compressors, which must be created with
+     *             {@code nowrap} set to {@code true}
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if {@code size <= 0}, or if the
+     *            compressors of the pool are not {@code nowrap}
+     * @since 12
+     */
+    public GZIPOutputStream(OutputStream out, int size, DeflaterPool pool)
+        throws IOException
+    {
+        super(out, checkNowrap(pool), size, false);
+        try {
+            writeHeader();
+        } catch (IOException | RuntimeException x) {
+            pool.release(def);
+            this.pool = null;
+            throw x;
+        }
+        crc.reset();
+    }
+
+    private static DeflaterPool checkNowrap(DeflaterPool pool) {
+        if (!pool.nowrap()) {
+            throw new IllegalArgumentException("pool deflaters are not nowrap");
+        }
+        return pool;
+    }
+
     /**
      * Creates a new output stream with the specified buffer size and
      * flush mode.
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * This class implements a readable channel for reading compressed data in
+ * the GZIP file format, the channel counterpart of {@link GZIPInputStream}.
+ * Concatenated GZIP members are read as a single stream of uncompressed
+ * data.
+ *
+ * <p>The source channel must be in blocking mode.
+ *
+ * @see     GZIPWritableChannel
+ * @since 12
+ */
+public class GZIPReadableChannel extends InflaterReadableChannel {
+
+    /**
+     * CRC-32 for uncompressed data.
+     */
+    protected CRC32 crc = new CRC32();
+
+    /*
+     * GZIP header magic number.
+     */
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    /*
+     * File header flags.
+     */
+    private static final int FTEXT      = 1;    // Extra text
+    private static final int FHCRC      = 2;    // Header CRC
+    private static final int FEXTRA     = 4;    // Extra field
+    private static final int FNAME      = 8;    // File name
+    private static final int FCOMMENT   = 16;   // File comment
+
+    /**
+     * Creates a new channel with the specified input buffer, which may be
+     * direct, and reads the GZIP header of the first member.
+     * @param ch the source channel
+     * @param buf the input buffer, which is cleared
+     * @exception ZipException if a GZIP format error has occurred or the
+     *                         compression method used is unsupported
+     * @exception IOException if an I/O error has occurred
+     * @exception IllegalArgumentException if the input buffer has no
+     *            capacity, or is read-only
+     */
+    public GZIPReadableChannel(ReadableByteChannel ch, ByteBuffer buf)
+        throws IOException
+    {
+        super(ch, new Inflater(true), buf);
+        usesDefaultInflater = true;
+        try {
+            readHeader();
+        } catch (IOException | RuntimeException x) {
+            inf.end();
+            throw x;
+        }
+        inf.setInput(buf);
+    }
+
+    /**
+     * Creates a new channel with a direct input buffer of a default size,
+     * and reads the GZIP header of the first member.
+     * @param ch the source channel
+     * @exception ZipException if a GZIP format error has occurred or the
+     *                         compression method used is unsupported
+     * @exception IOException if an I/O error has occurred
+     */
+    public GZIPReadableChannel(ReadableByteChannel ch) throws IOException {
+        this(ch, ByteBuffer.allocateDirect(8192));
+    }
+
+    @Override
+    int inflate(ByteBuffer dst) throws DataFormatException {
+        int pos = dst.position();
+        int n = inf.inflate(dst);
+        if (n > 0) {
+            ByteBuffer out = dst.duplicate();
+            out.position(pos);
+            out.limit(pos + n);
+            crc.update(out);
+        }
+        return n;
+    }
+
+    /*
+     * Reads the GZIP member trailer and returns true if the end of the
+     * compressed data is reached, false if there are more (concatenated
+     * gzip data set)
+     */
+    @Override
+    boolean endOfMember() throws IOException {
+        // The trailer bytes are added to the CRC as they are read
+        long v = crc.getValue();
+        // Uses left-to-right evaluation order
+        if ((readUInt() != v) ||
+            // rfc1952; ISIZE is the input size modulo 2^32
+            (readUInt() != (inf.getBytesWritten() & 0xffffffffL)))
+            throw new ZipException("Corrupt GZIP trailer");
+
+        // If there are more bytes in the buffer or the channel, try
+        // the concatenated case
+        if (!buf.hasRemaining() && readInput() <= 0) {
+            return true;
+        }
+        try {
+            readHeader();               // next.header
+        } catch (IOException ze) {
+            return true;  // ignore any malformed, do nothing
+        }
+        inf.reset();
+        inf.setInput(buf);
+        return false;
+    }
+
+    /*
+     * Reads the GZIP member header from the input buffer, leaving its
+     * position at the start of the compressed data.
+     */
+    private void readHeader() throws IOException {
+        crc.reset();
+        // Check header magic
+        if (readUShort() != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        // Check compression method
+        if (readUByte() != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        // Read flags
+        int flg = readUByte();
+        // Skip MTIME, XFL, and OS fields
+        skipBytes(6);
+        // Skip optional extra field
+        if ((flg & FEXTRA) == FEXTRA) {
+            skipBytes(readUShort());
+        }
+        // Skip optional file name
+        if ((flg & FNAME) == FNAME) {
+            while (readUByte() != 0) ;
+        }
+        // Skip optional file comment
+        if ((flg & FCOMMENT) == FCOMMENT) {
+            while (readUByte() != 0) ;
+        }
+        // Check optional header CRC
+        if ((flg & FHCRC) == FHCRC) {
+            int v = (int)crc.getValue() & 0xffff;
+            if (readUShort() != v) {
+                throw new ZipException("Corrupt GZIP header");
+            }
+        }
+        crc.reset();
+    }
+
+    /*
+     * Reads unsigned integer in Intel byte order.
+     */
+    private long readUInt() throws IOException {
+        long s = readUShort();
+        return ((long)readUShort() << 16) | s;
+    }
+
+    /*
+     * Reads unsigned short in Intel byte order.
+     */
+    private int readUShort() throws IOException {
+        int b = readUByte();
+        return (readUByte() << 8) | b;
+    }
+
+    /*
+     * Reads unsigned byte, adding it to the header CRC.
+     */
+    private int readUByte() throws IOException {
+        while (!buf.hasRemaining()) {
+            if (readInput() == -1) {
+                throw new EOFException();
+            }
+        }
+        int b = buf.get() & 0xff;
+        crc.update(b);
+        return b;
+    }
+
+    /*
+     * Skips bytes of input data, adding them to the header CRC.
+     */
+    private void skipBytes(int n) throws IOException {
+        while (n-- > 0) {
+            readUByte();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * This class implements a writable channel for writing compressed data in
+ * the GZIP file format, the channel counterpart of
+ * {@link GZIPOutputStream}.
+ *
+ * <p>The destination channel must be in blocking mode.
+ *
+ * @see     GZIPReadableChannel
+ * @since 12
+ */
+public class GZIPWritableChannel extends DeflaterWritableChannel {
+
+    /**
+     * CRC-32 of uncompressed data.
+     */
+    protected CRC32 crc = new CRC32();
+
+    /*
+     * GZIP header magic number.
+     */
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    /**
+     * Creates a new channel with the specified output buffer, which may be
+     * direct, and writes the GZIP header.
+     * @param ch the destination channel
+     * @param buf the output buffer, which is cleared
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if the capacity of the output
+     *            buffer is less than 8 bytes, or if it is read-only
+     */
+    public GZIPWritableChannel(WritableByteChannel ch, ByteBuffer buf)
+        throws IOException
+    {
+        super(ch, new Deflater(Deflater.DEFAULT_COMPRESSION, true), buf);
+        usesDefaultDeflater = true;
+        try {
+            writeHeader();
+        } catch (IOException | RuntimeException x) {
+            def.end();
+            throw x;
+        }
+        crc.reset();
+    }
+
+    /**
+     * Creates a new channel with a direct output buffer of a default size,
+     * and writes the GZIP header.
+     * @param ch the destination channel
+     * @exception IOException If an I/O error has occurred.
+     */
+    public GZIPWritableChannel(WritableByteChannel ch) throws IOException {
+        this(ch, ByteBuffer.allocateDirect(8192));
+    }
+
+    @Override
+    void written(ByteBuffer src, int pos, int len) {
+        ByteBuffer in = src.duplicate();
+        in.position(pos);
+        in.limit(pos + len);
+        crc.update(in);
+    }
+
+    @Override
+    void finished() throws IOException {
+        // if we can't fit the trailer at the end of the last
+        // output buffer, we write the buffer out first
+        if (buf.remaining() < MIN_BUFFER_SIZE) {
+            drain();
+        }
+        writeTrailer();
+        drain();
+    }
+
+    /*
+     * Writes GZIP member header.
+     */
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.wrap(new byte[] {
+                      (byte) GZIP_MAGIC,        // Magic number (short)
+                      (byte)(GZIP_MAGIC >> 8),  // Magic number (short)
+                      Deflater.DEFLATED,        // Compression method (CM)
+                      0,                        // Flags (FLG)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Extra flags (XFLG)
+                      0                         // Operating system (OS)
+                  });
+        while (header.hasRemaining()) {
+            ch.write(header);
+        }
+    }
+
+    /*
+     * Writes GZIP member trailer to the output buffer, which has room
+     * for it.
+     */
+    private void writeTrailer() {
+        writeInt((int)crc.getValue()); // CRC-32 of uncompr. data
+        writeInt(def.getTotalIn());     // Number of uncompr. bytes
+    }
+
+    /*
+     * Writes integer in Intel byte order to the output buffer.
+     */
+    private void writeInt(int i) {
+        buf.put((byte)(i & 0xff));
+        buf.put((byte)((i >> 8) & 0xff));
+        buf.put((byte)((i >> 16) & 0xff));
+        buf.put((byte)((i >> 24) & 0xff));
+    }
+}
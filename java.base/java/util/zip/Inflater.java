@@ -103,6 +103,8 @@ public class Inflater {
     private boolean needDict;
     private long bytesRead;
     private long bytesWritten;
+    InflaterPool pool;          // the pool that created this inflater, if any
+    boolean acquired;           // taken from the pool and not released since
 
     /*
      * These fields are used as an "out" parameter from JNI when a
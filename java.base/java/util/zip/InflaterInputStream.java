@@ -101,6 +101,40 @@ class InflaterInputStream extends FilterInputStream {
 
     boolean usesDefaultInflater = false;
 
+    /**
+     * The pool to release the decompressor to on close, or null.
+     */
+    InflaterPool pool;
+
+    /**
+     * Creates a new input stream with a decompressor acquired from the
+     * specified pool, and the specified buffer size. The decompressor is
+     * released to the pool when this stream is closed.
+     * @param in the input stream
+     * @param pool the pool of decompressors
+     * @param size the input buffer size
+     * @exception IllegalArgumentException if {@code size <= 0}
+     * @since 12
+     */
+    public InflaterInputStream(InputStream in, InflaterPool pool, int size) {
+        this(in, acquire(in, pool, size), size);
+        this.pool = pool;
+    }
+
+    /**
+     * Checks the arguments before acquiring a decompressor from the pool,
+     * so that it is not lost if they are invalid.
+     */
+    private static Inflater acquire(InputStream in, InflaterPool pool,
+                                    int size) {
+        if (in == null) {
+            throw new NullPointerException();
+        } else if (size <= 0) {
+            throw new IllegalArgumentException("buffer size <= 0");
+        }
+        return pool.acquire();
+    }
+
     /**
      * Creates a new input stream with a default decompressor and buffer size.
      * @param in the input stream
@@ -227,7 +261,9 @@ class InflaterInputStream extends FilterInputStream {
      */
     public void close() throws IOException {
         if (!closed) {
-            if (usesDefaultInflater)
+            if (pool != null)
+                pool.release(inf);
+            else if (usesDefaultInflater)
                 inf.end();
             in.close();
             closed = true;
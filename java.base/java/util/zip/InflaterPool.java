@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.util.ArrayDeque;
+
+/**
+ * A bounded pool of {@link Inflater}s, which lets the native state of a
+ * decompressor be reused across decompressions instead of being allocated
+ * for each of them.
+ *
+ * <p>An {@code Inflater} is taken from the pool with {@link #acquire()},
+ * which creates a new one if the pool is empty, and handed back, reset, with
+ * {@link #release(Inflater)}, which ends it if the pool is full or closed.
+ * The input streams created with a pool, such as those of
+ * {@link GZIPInputStream#GZIPInputStream(java.io.InputStream, int, InflaterPool)},
+ * release their {@code Inflater} to the pool when closed.
+ *
+ * <p>A pool is safe for use by multiple concurrent threads. Its statistics
+ * are updated atomically with the operations that they count.
+ *
+ * @see     DeflaterPool
+ * @since 12
+ */
+public class InflaterPool {
+
+    /**
+     * An estimate of the native memory held by an inflater which has been
+     * used: the zlib state plus a window for the default 15 window bits.
+     */
+    private static final long INFLATER_FOOTPRINT = 7 * 1024 + (1 << 15);
+
+    private final boolean nowrap;
+    private final int maxSize;
+
+    /**
+     * The idle inflaters, most recently released last.
+     */
+    private final ArrayDeque<Inflater> idle = new ArrayDeque<>();
+
+    private long hits;
+    private long misses;
+    private boolean closed;
+
+    /**
+     * Creates a new pool of inflaters created with the specified
+     * {@code nowrap} parameter, which keeps at most {@code maxSize} idle
+     * inflaters.
+     *
+     * @param nowrap if true then the inflaters support GZIP compatible
+     *        compression, see {@link Inflater#Inflater(boolean)}
+     * @param maxSize the maximum number of idle inflaters
+     * @throws IllegalArgumentException if {@code maxSize} is negative
+     */
+    public InflaterPool(boolean nowrap, int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize < 0");
+        }
+        this.nowrap = nowrap;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns whether the inflaters of this pool are created with
+     * {@code nowrap} set to {@code true}.
+     *
+     * @return the {@code nowrap} parameter of the inflaters of this pool
+     */
+    public boolean nowrap() {
+        return nowrap;
+    }
+
+    /**
+     * Returns an idle inflater of this pool, or a new one if there is none.
+     *
+     * @return an inflater, ready for a new set of input data
+     */
+    public Inflater acquire() {
+        synchronized (idle) {
+            Inflater inf = idle.pollLast();
+            if (inf != null) {
+                hits++;
+                inf.acquired = true;
+                return inf;
+            }
+            misses++;
+        }
+        Inflater inf = new Inflater(nowrap);
+        inf.pool = this;
+        inf.acquired = true;
+        return inf;
+    }
+
+    /**
+     * Hands the specified inflater back to this pool. The inflater is reset
+     * and kept for a later {@link #acquire()}, unless the pool is full or
+     * closed, in which case it is ended. The inflater must not be used by
+     * the caller after this method returns.
+     *
+     * @param inf an inflater acquired from this pool
+     * @throws IllegalArgumentException if the inflater was not acquired
+     *         from this pool
+     * @throws IllegalStateException if the inflater has already been released
+     *         since it was acquired
+     * @throws NullPointerException if the inflater has been ended
+     */
+    public void release(Inflater inf) {
+        if (inf.pool != this) {
+            throw new IllegalArgumentException("not an inflater of this pool");
+        }
+        synchronized (idle) {
+            // a second release would hand the same inflater to two users
+            if (!inf.acquired) {
+                throw new IllegalStateException("inflater already released");
+            }
+            inf.acquired = false;
+        }
+        inf.reset();
+        synchronized (idle) {
+            if (!closed && idle.size() < maxSize) {
+                idle.addLast(inf);
+                return;
+            }
+        }
+        inf.end();
+    }
+
+    /**
+     * Ends the idle inflaters of this pool. The inflaters released to the
+     * pool after it is closed are ended too, while {@link #acquire()} keeps
+     * creating new inflaters.
+     */
+    public void close() {
+        synchronized (idle) {
+            closed = true;
+            Inflater inf;
+            while ((inf = idle.pollLast()) != null) {
+                inf.end();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of idle inflaters in this pool.
+     *
+     * @return the number of idle inflaters in this pool
+     */
+    public int size() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * Returns the number of calls to {@link #acquire()} which returned an
+     * idle inflater.
+     *
+     * @return the number of acquisitions served from this pool
+     */
+    public long hits() {
+        synchronized (idle) {
+            return hits;
+        }
+    }
+
+    /**
+     * Returns the number of calls to {@link #acquire()} which created a
+     * new inflater.
+     *
+     * @return the number of acquisitions not served from this pool
+     */
+    public long misses() {
+        synchronized (idle) {
+            return misses;
+        }
+    }
+
+    /**
+     * Returns an estimate of the native memory, in bytes, held by the idle
+     * inflaters of this pool. The estimate is based on the memory
+     * requirements of zlib for the default window size.
+     *
+     * @return an estimate of the native memory retained by this pool
+     */
+    public long retainedNativeMemory() {
+        return size() * INFLATER_FOOTPRINT;
+    }
+
+    /**
+     * Returns a string identifying this pool, as well as its statistics.
+     *
+     * @return a string identifying this pool, as well as its statistics
+     */
+    @Override
+    public String toString() {
+        synchronized (idle) {
+            return super.toString() +
+                "[nowrap = " + nowrap +
+                ", size = " + idle.size() + "/" + maxSize +
+                ", hits = " + hits +
+                ", misses = " + misses +
+                (closed ? ", closed]" : "]");
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * This class implements a readable channel for uncompressing data in the
+ * "deflate" compression format. It is the channel counterpart of
+ * {@link InflaterInputStream}: compressed data is read from a source
+ * channel into a {@link ByteBuffer}, and inflated by the
+ * {@link Inflater#setInput(ByteBuffer) ByteBuffer} methods of an
+ * {@code Inflater} straight into the buffers passed to {@link #read
+ * read}, so that no data is copied through a {@code byte[]} when the
+ * buffers are direct.
+ *
+ * <p>The source channel is expected to be in blocking mode. If it is in
+ * non-blocking mode, {@code read} returns zero when the source has no
+ * compressed data to read.
+ *
+ * <p>A channel of this class is not safe for use by multiple concurrent
+ * threads.
+ *
+ * @see     DeflaterWritableChannel
+ * @see     GZIPReadableChannel
+ * @since 12
+ */
+public class InflaterReadableChannel implements ReadableByteChannel {
+
+    /**
+     * The source channel of compressed data.
+     */
+    protected final ReadableByteChannel ch;
+
+    /**
+     * Decompressor for this channel.
+     */
+    protected final Inflater inf;
+
+    /**
+     * Input buffer for decompression, holding the compressed data read
+     * from the source channel and not yet consumed by the decompressor
+     * between its position and limit.
+     */
+    protected final ByteBuffer buf;
+
+    boolean usesDefaultInflater = false;
+
+    private boolean closed = false;
+    // this flag is set to true after EOF has reached
+    private boolean reachEOF = false;
+
+    /**
+     * Creates a new channel with the specified decompressor and input
+     * buffer, which may be direct.
+     * @param ch the source channel
+     * @param inf the decompressor ("inflater")
+     * @param buf the input buffer, which is cleared
+     * @exception IllegalArgumentException if the input buffer has no
+     *            capacity, or is read-only
+     */
+    public InflaterReadableChannel(ReadableByteChannel ch, Inflater inf,
+                                   ByteBuffer buf) {
+        this.ch = Objects.requireNonNull(ch);
+        this.inf = Objects.requireNonNull(inf);
+        if (buf.capacity() == 0 || buf.isReadOnly()) {
+            throw new IllegalArgumentException("unusable input buffer");
+        }
+        this.buf = buf;
+        buf.clear().limit(0);
+    }
+
+    /**
+     * Creates a new channel with the specified decompressor and a direct
+     * input buffer of a default size.
+     * @param ch the source channel
+     * @param inf the decompressor ("inflater")
+     */
+    public InflaterReadableChannel(ReadableByteChannel ch, Inflater inf) {
+        this(ch, inf, ByteBuffer.allocateDirect(8192));
+    }
+
+    /**
+     * Creates a new channel with a default decompressor and direct input
+     * buffer.
+     * @param ch the source channel
+     */
+    public InflaterReadableChannel(ReadableByteChannel ch) {
+        this(ch, new Inflater());
+        usesDefaultInflater = true;
+    }
+
+    /**
+     * Check to make sure that this channel has not been closed
+     */
+    void ensureOpen() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Reads uncompressed data into the given buffer. If the buffer has
+     * space left, blocks until some input can be decompressed, unless the
+     * source channel is non-blocking.
+     * @param dst the buffer into which the data is read
+     * @return the number of bytes read, possibly zero, or -1 if the end of
+     *         the compressed data is reached
+     * @exception ZipException if a ZIP format error has occurred
+     * @exception IOException if an I/O error has occurred
+     */
+    public int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        if (reachEOF) {
+            return -1;
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        try {
+            int n;
+            while ((n = inflate(dst)) == 0) {
+                if (inf.finished() || inf.needsDictionary()) {
+                    if (endOfMember()) {
+                        reachEOF = true;
+                        return -1;
+                    }
+                } else if (inf.needsInput()) {
+                    if (fill() == 0) {
+                        return 0;
+                    }
+                }
+            }
+            return n;
+        } catch (DataFormatException e) {
+            String s = e.getMessage();
+            throw new ZipException(s != null ? s : "Invalid ZLIB data format");
+        }
+    }
+
+    /**
+     * Inflates data into the given buffer, for subclasses to account for
+     * the uncompressed data.
+     */
+    int inflate(ByteBuffer dst) throws DataFormatException {
+        return inf.inflate(dst);
+    }
+
+    /**
+     * Called when the decompressor has finished, or needs a dictionary;
+     * returns true if the end of the compressed data is reached, or false
+     * to go on decompressing.
+     */
+    boolean endOfMember() throws IOException {
+        return true;
+    }
+
+    /**
+     * Reads more compressed data from the source channel into the input
+     * buffer, keeping the data not yet consumed.
+     * @return the number of bytes read, possibly zero if the source
+     *         channel is non-blocking
+     * @exception EOFException if the end of the source channel is reached
+     * @exception IOException if an I/O error has occurred
+     */
+    protected int fill() throws IOException {
+        int n = readInput();
+        if (n == -1) {
+            throw new EOFException("Unexpected end of ZLIB input stream");
+        }
+        inf.setInput(buf);
+        return n;
+    }
+
+    /**
+     * Reads from the source channel into the input buffer, after the data
+     * not yet consumed, and returns the number of bytes read, or -1.
+     */
+    int readInput() throws IOException {
+        buf.compact();
+        try {
+            return ch.read(buf);
+        } finally {
+            buf.flip();
+        }
+    }
+
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Closes this channel and the source channel, and releases the
+     * decompressor if it is the default one.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            if (usesDefaultInflater)
+                inf.end();
+            closed = true;
+            ch.close();
+        }
+    }
+}
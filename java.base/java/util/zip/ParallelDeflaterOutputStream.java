@@ -0,0 +1,446 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class implements an output stream filter for compressing data in
+ * the raw "deflate" compression format, as written by a {@link Deflater}
+ * created with {@code nowrap} set to {@code true}, using several threads.
+ *
+ * <p>The data written to the stream is cut into blocks of 128 KiB which
+ * are compressed independently, and concurrently, by tasks run on an
+ * {@link Executor}. Each block but the last is ended with a
+ * {@linkplain Deflater#SYNC_FLUSH sync flush}, so that the compressed
+ * blocks, written to the underlying stream in order, form a single deflate
+ * stream. The last 32 KiB of each block are used as the preset dictionary
+ * of the next block, which limits the loss of compression ratio with
+ * respect to a single {@code Deflater}.
+ *
+ * <p>At most {@code parallelism} blocks are compressed at a time. The
+ * thread writing to the stream compresses the blocks that it has to write
+ * out but which no task has started on yet, so the stream makes progress
+ * even if the executor is saturated.
+ *
+ * @see     DeflaterOutputStream
+ * @see     ZipOutputStream#setParallelism(int)
+ * @since 12
+ */
+public class ParallelDeflaterOutputStream extends FilterOutputStream {
+
+    /**
+     * The size of the blocks compressed independently.
+     */
+    static final int BLOCK_SIZE = 128 * 1024;
+
+    /**
+     * The size of the preset dictionary of each block.
+     */
+    private static final int DICT_SIZE = 32 * 1024;
+
+    private final Executor executor;
+    private final int parallelism;
+    private volatile int level;
+
+    /**
+     * The blocks being compressed, in order.
+     */
+    private final ArrayDeque<Block> blocks = new ArrayDeque<>();
+
+    /**
+     * The deflaters not in use by a block, all of the current level.
+     */
+    private final ConcurrentLinkedQueue<Deflater> deflaters =
+        new ConcurrentLinkedQueue<>();
+
+    private byte[] buf = new byte[BLOCK_SIZE];
+    private int count;                  // number of bytes in buf
+    private byte[] prev;                // previous full block, or null
+    private long bytesRead;
+    private long bytesWritten;
+    private boolean finished;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new output stream with the specified compression level
+     * and parallelism, which compresses on the
+     * {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @param out the output stream
+     * @param level the compression level (0-9)
+     * @param parallelism the maximum number of blocks compressed at a time
+     * @throws IllegalArgumentException if the compression level is invalid,
+     *         or if {@code parallelism} is less than 1
+     */
+    public ParallelDeflaterOutputStream(OutputStream out, int level,
+                                        int parallelism) {
+        this(out, level, parallelism, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new output stream with the specified compression level
+     * and parallelism, which compresses on the specified executor.
+     *
+     * @param out the output stream
+     * @param level the compression level (0-9)
+     * @param parallelism the maximum number of blocks compressed at a time
+     * @param executor the executor running the compression tasks
+     * @throws IllegalArgumentException if the compression level is invalid,
+     *         or if {@code parallelism} is less than 1
+     * @throws NullPointerException if {@code executor} is null
+     */
+    public ParallelDeflaterOutputStream(OutputStream out, int level,
+                                        int parallelism, Executor executor) {
+        super(out);
+        if (out == null) {
+            throw new NullPointerException();
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism < 1");
+        }
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.parallelism = parallelism;
+        setLevel(level);
+    }
+
+    int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the compression level of the blocks to come. Called when no
+     * block is in flight, as the pooled deflaters are of the old level.
+     */
+    void setLevel(int level) {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("invalid compression level");
+        }
+        if (level != this.level) {
+            this.level = level;
+            end();
+        }
+    }
+
+    /**
+     * Writes a byte to the compressed output stream. This method will
+     * block until the byte can be written.
+     *
+     * @param b the byte to be written
+     * @throws IOException if an I/O error has occurred
+     */
+    public void write(int b) throws IOException {
+        byte[] buf = new byte[1];
+        buf[0] = (byte)(b & 0xff);
+        write(buf, 0, 1);
+    }
+
+    /**
+     * Writes an array of bytes to the compressed output stream. This
+     * method will block until all the bytes are written.
+     *
+     * @param b the data to be written
+     * @param off the start offset of the data
+     * @param len the length of the data
+     * @throws IOException if an I/O error has occurred
+     */
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (finished) {
+            throw new IOException("write beyond end of stream");
+        }
+        Objects.checkFromIndexSize(off, len, b.length);
+        while (len > 0) {
+            int n = Math.min(BLOCK_SIZE - count, len);
+            System.arraycopy(b, off, buf, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            bytesRead += n;
+            if (count == BLOCK_SIZE) {
+                submit(false);
+            }
+        }
+    }
+
+    /**
+     * Writes out the blocks already compressed, and flushes the underlying
+     * stream. The data of the block being filled is not compressed until
+     * the block is full, or the stream is finished.
+     *
+     * @throws IOException if an I/O error has occurred
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        Block b;
+        while ((b = blocks.peek()) != null && b.isDone()) {
+            writeBlock(blocks.poll());
+        }
+        out.flush();
+    }
+
+    /**
+     * Finishes writing compressed data to the output stream without closing
+     * the underlying stream. Use this method when applying multiple filters
+     * in succession to the same output stream.
+     *
+     * @throws IOException if an I/O error has occurred
+     */
+    public void finish() throws IOException {
+        ensureOpen();
+        if (!finished) {
+            submit(true);
+            while (!blocks.isEmpty()) {
+                writeBlock(blocks.poll());
+            }
+            finished = true;
+        }
+    }
+
+    /**
+     * Writes remaining compressed data to the output stream and closes the
+     * underlying stream.
+     *
+     * @throws IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                closed = true;
+                end();
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the total number of uncompressed bytes written to this
+     * stream since it was created.
+     *
+     * @return the total number of uncompressed bytes
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Returns the total number of compressed bytes written to the
+     * underlying stream since this stream was created.
+     *
+     * @return the total number of compressed bytes
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Makes this finished stream ready to write a new deflate stream.
+     */
+    void reset() {
+        finished = false;
+        bytesRead = bytesWritten = 0;
+        prev = null;
+        count = 0;
+    }
+
+    /**
+     * Releases the deflaters.
+     */
+    void end() {
+        Deflater def;
+        while ((def = deflaters.poll()) != null) {
+            def.end();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Hands the current block over to a task, first writing out the oldest
+     * block if there are too many of them in flight.
+     */
+    private void submit(boolean last) throws IOException {
+        while (blocks.size() >= parallelism) {
+            writeBlock(blocks.poll());
+        }
+        Block b = new Block(buf, count, prev, level, last);
+        blocks.add(b);
+        if (!last) {
+            executor.execute(b);
+            prev = buf;
+            buf = new byte[BLOCK_SIZE];
+        }
+        // the last block is compressed by this thread, while waiting
+        count = 0;
+    }
+
+    private void writeBlock(Block b) throws IOException {
+        byte[] data = b.await();
+        out.write(data, 0, data.length);
+        bytesWritten += data.length;
+    }
+
+    private Deflater getDeflater(int level) {
+        if (level == this.level) {
+            Deflater def = deflaters.poll();
+            if (def != null)
+                return def;
+        }
+        return new Deflater(level, true);
+    }
+
+    private void releaseDeflater(Deflater def, int level) {
+        if (level == this.level && !closed) {
+            def.reset();
+            deflaters.offer(def);
+        } else {
+            def.end();
+        }
+    }
+
+    /**
+     * A block of input data, compressed by whichever of a task or the
+     * writing thread claims it first.
+     */
+    private final class Block implements Runnable {
+        private final byte[] input;
+        private final int len;
+        private final byte[] dict;
+        private final int level;
+        private final boolean last;
+        private boolean claimed;
+        private boolean done;
+        private byte[] result;
+        private Throwable failure;
+
+        Block(byte[] input, int len, byte[] dict, int level, boolean last) {
+            this.input = input;
+            this.len = len;
+            this.dict = dict;
+            this.level = level;
+            this.last = last;
+        }
+
+        public void run() {
+            synchronized (this) {
+                if (claimed)
+                    return;
+                claimed = true;
+            }
+            byte[] r = null;
+            Throwable x = null;
+            try {
+                r = deflate();
+            } catch (Throwable t) {
+                x = t;
+            }
+            synchronized (this) {
+                result = r;
+                failure = x;
+                done = true;
+                notifyAll();
+            }
+        }
+
+        synchronized boolean isDone() {
+            return done;
+        }
+
+        /**
+         * Returns the compressed data, compressing it in the current thread
+         * if no task has started on it.
+         */
+        byte[] await() throws IOException {
+            run();
+            boolean interrupted = false;
+            try {
+                synchronized (this) {
+                    while (!done) {
+                        try {
+                            wait();
+                        } catch (InterruptedException ie) {
+                            interrupted = true;
+                        }
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                if (failure instanceof Error)
+                    throw (Error)failure;
+                if (failure instanceof RuntimeException)
+                    throw (RuntimeException)failure;
+                throw new IOException(failure);
+            }
+            return result;
+        }
+
+        private byte[] deflate() {
+            Deflater def = getDeflater(level);
+            try {
+                if (dict != null) {
+                    def.setDictionary(dict, dict.length - DICT_SIZE, DICT_SIZE);
+                }
+                def.setInput(input, 0, len);
+                if (last) {
+                    def.finish();
+                }
+                // incompressible data grows by 5 bytes per 16 KiB block
+                byte[] b = new byte[len + (len >>> 10) + 64];
+                int n = 0;
+                for (;;) {
+                    int flush = last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH;
+                    n += def.deflate(b, n, b.length - n, flush);
+                    if (last ? def.finished() : n < b.length && def.needsInput()) {
+                        return n == b.length ? b : Arrays.copyOf(b, n);
+                    }
+                    if (n == b.length) {
+                        b = Arrays.copyOf(b, b.length << 1);
+                    }
+                }
+            } finally {
+                releaseDeflater(def, level);
+            }
+        }
+    }
+}
@@ -33,16 +33,16 @@ import java.io.File;
 import java.io.RandomAccessFile;
 import java.io.UncheckedIOException;
 import java.lang.ref.Cleaner.Cleanable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.InvalidPathException;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.Files;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -65,6 +65,7 @@ import jdk.internal.misc.VM;
 import jdk.internal.perf.PerfCounter;
 import jdk.internal.ref.CleanerFactory;
 import jdk.internal.vm.annotation.Stable;
+import sun.nio.ch.FileChannelImpl;
 
 import static java.util.zip.ZipConstants64.*;
 import static java.util.zip.ZipUtils.*;
@@ -701,12 +702,15 @@ class ZipFile implements ZipConstants, Closeable {
         }
     }
 
+    // the maximum number of idle inflaters kept by each ZipFile
+    private static final int MAX_CACHED_INFLATERS = 32;
+
     private static class CleanableResource implements Runnable {
         // The outstanding inputstreams that need to be closed
         final Set<InputStream> istreams;
 
-        // List of cached Inflater objects for decompression
-        Deque<Inflater> inflaterCache;
+        // Pool of cached Inflater objects for decompression
+        final InflaterPool inflaterPool;
 
         final Cleanable cleanable;
 
@@ -715,7 +719,7 @@ class ZipFile implements ZipConstants, Closeable {
         CleanableResource(ZipFile zf, File file, int mode) throws IOException {
             this.cleanable = CleanerFactory.cleaner().register(zf, this);
             this.istreams = Collections.newSetFromMap(new WeakHashMap<>());
-            this.inflaterCache = new ArrayDeque<>();
+            this.inflaterPool = new InflaterPool(true, MAX_CACHED_INFLATERS);
             this.zsrc = Source.get(file, (mode & OPEN_DELETE) != 0);
         }
 
@@ -724,55 +728,26 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         /*
-         * Gets an inflater from the list of available inflaters or allocates
+         * Gets an inflater from the pool of available inflaters or allocates
          * a new one.
          */
         Inflater getInflater() {
-            Inflater inf;
-            synchronized (inflaterCache) {
-                if ((inf = inflaterCache.poll()) != null) {
-                    return inf;
-                }
-            }
-            return new Inflater(true);
+            return inflaterPool.acquire();
         }
 
         /*
-         * Releases the specified inflater to the list of available inflaters.
+         * Releases the specified inflater to the pool of available inflaters,
+         * which ends it if the pool is already closed.
          */
         void releaseInflater(Inflater inf) {
-            Deque<Inflater> inflaters = this.inflaterCache;
-            if (inflaters != null) {
-                synchronized (inflaters) {
-                    // double checked!
-                    if (inflaters == this.inflaterCache) {
-                        inf.reset();
-                        inflaters.add(inf);
-                        return;
-                    }
-                }
-            }
-            // inflaters cache already closed - just end it.
-            inf.end();
+            inflaterPool.release(inf);
         }
 
         public void run() {
             IOException ioe = null;
 
             // Release cached inflaters and close the cache first
-            Deque<Inflater> inflaters = this.inflaterCache;
-            if (inflaters != null) {
-                synchronized (inflaters) {
-                    // no need to double-check as only one thread gets a
-                    // chance to execute run() (Cleaner guarantee)...
-                    Inflater inf;
-                    while ((inf = inflaters.poll()) != null) {
-                        inf.end();
-                    }
-                    // close inflaters cache
-                    this.inflaterCache = null;
-                }
-            }
+            inflaterPool.close();
 
             // Close streams, release their inflaters
             if (istreams != null) {
@@ -813,7 +788,7 @@ class ZipFile implements ZipConstants, Closeable {
             throws IOException {
             this.cleanable = null;
             this.istreams = Collections.newSetFromMap(new WeakHashMap<>());
-            this.inflaterCache = new ArrayDeque<>();
+            this.inflaterPool = new InflaterPool(true, MAX_CACHED_INFLATERS);
             this.zsrc = Source.get(file, (mode & OPEN_DELETE) != 0);
         }
 
@@ -866,11 +841,13 @@ class ZipFile implements ZipConstants, Closeable {
      */
     private class ZipFileInputStream extends InputStream {
         private volatile boolean closeRequested;
+        private final Source zsrc; // source of the entry data
         private   long pos;     // current position within entry data
         protected long rem;     // number of remaining bytes within entry
         protected long size;    // uncompressed size of this entry
 
         ZipFileInputStream(byte[] cen, int cenpos) {
+            zsrc = ZipFile.this.res.zsrc;
             rem = CENSIZ(cen, cenpos);
             size = CENLEN(cen, cenpos);
             pos = CENOFF(cen, cenpos);
@@ -880,7 +857,7 @@ class ZipFile implements ZipConstants, Closeable {
                 checkZIP64(cen, cenpos);
             }
             // negative for lazy initialization, see getDataOffset();
-            pos = - (pos + ZipFile.this.res.zsrc.locpos);
+            pos = - (pos + zsrc.locpos);
         }
 
         private void checkZIP64(byte[] cen, int cenpos) {
@@ -930,7 +907,7 @@ class ZipFile implements ZipConstants, Closeable {
             if (pos <= 0) {
                 byte[] loc = new byte[LOCHDR];
                 pos = -pos;
-                int len = ZipFile.this.res.zsrc.readFullyAt(loc, 0, loc.length, pos);
+                int len = zsrc.readFullyAt(loc, 0, loc.length, pos);
                 if (len != LOCHDR) {
                     throw new ZipException("ZipFile error reading zip file");
                 }
@@ -942,8 +919,13 @@ class ZipFile implements ZipConstants, Closeable {
             return pos;
         }
 
+        /*
+         * Reads are serialized per stream only: the source is read with
+         * positional reads, so streams over different entries of the same
+         * zip file can be read, and inflated, concurrently.
+         */
         public int read(byte b[], int off, int len) throws IOException {
-            synchronized (ZipFile.this) {
+            synchronized (this) {
                 ensureOpenOrZipException();
                 initDataOffset();
                 if (rem == 0) {
@@ -955,7 +937,7 @@ class ZipFile implements ZipConstants, Closeable {
                 if (len <= 0) {
                     return 0;
                 }
-                len = ZipFile.this.res.zsrc.readAt(b, off, len, pos);
+                len = zsrc.readAt(b, off, len, pos);
                 if (len > 0) {
                     pos += len;
                     rem -= len;
@@ -977,7 +959,7 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         public long skip(long n) throws IOException {
-            synchronized (ZipFile.this) {
+            synchronized (this) {
                 initDataOffset();
                 if (n > rem) {
                     n = rem;
@@ -1080,6 +1062,7 @@ class ZipFile implements ZipConstants, Closeable {
         private int refs = 1;
 
         private RandomAccessFile zfile;      // zfile of the underlying zip file
+        private final FileChannel zchannel;  // channel of zfile, for positional reads
         private byte[] cen;                  // CEN & ENDHDR
         private long locpos;                 // position of first LOC header (usually 0)
         private byte[] comment;              // zip file comment
@@ -1205,6 +1188,12 @@ class ZipFile implements ZipConstants, Closeable {
             } else {
                 this.zfile = new RandomAccessFile(key.file, "r");
             }
+            // Positional reads neither move nor depend on the file pointer,
+            // so readers of different entries need not be serialized. The
+            // channel is shared by every ZipFile opened on this file, and
+            // must not be closed when a reading thread is interrupted.
+            this.zchannel = zfile.getChannel();
+            ((FileChannelImpl)zchannel).setUninterruptible();
             try {
                 initCEN(-1);
                 byte[] buf = new byte[4];
@@ -1231,26 +1220,27 @@ class ZipFile implements ZipConstants, Closeable {
         private final int readFullyAt(byte[] buf, int off, int len, long pos)
             throws IOException
         {
-            synchronized (zfile) {
-                zfile.seek(pos);
-                int N = len;
-                while (N > 0) {
-                    int n = Math.min(BUF_SIZE, N);
-                    zfile.readFully(buf, off, n);
-                    off += n;
-                    N -= n;
+            ByteBuffer bb = ByteBuffer.wrap(buf, off, len);
+            int N = len;
+            while (N > 0) {
+                // limit each read, the channel copies through a
+                // temporary direct buffer of the requested size
+                bb.limit(bb.position() + Math.min(BUF_SIZE, N));
+                int n = zchannel.read(bb, pos);
+                if (n < 0) {
+                    throw new EOFException();
                 }
-                return len;
+                pos += n;
+                N -= n;
             }
+            return len;
         }
 
         private final int readAt(byte[] buf, int off, int len, long pos)
             throws IOException
         {
-            synchronized (zfile) {
-                zfile.seek(pos);
-                return zfile.read(buf, off, len);
-            }
+            return zchannel.read(ByteBuffer.wrap(buf, off, Math.min(BUF_SIZE, len)),
+                                 pos);
         }
 
         private static final int hashN(byte[] a, int off, int len) {
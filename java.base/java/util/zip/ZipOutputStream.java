@@ -75,6 +75,10 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
     private long locoff = 0;
     private byte[] comment;
     private int method = DEFLATED;
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private int parallelism = 1;
+    private ParallelDeflaterOutputStream pdos; // created on first use
+    private boolean deflateInParallel;         // current entry uses pdos
     private boolean finished;
 
     private boolean closed = false;
@@ -175,6 +179,32 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
      */
     public void setLevel(int level) {
         def.setLevel(level);
+        this.level = level;
+    }
+
+    /**
+     * Sets the number of threads that may compress the data of each of the
+     * subsequent entries which are DEFLATED. The default setting is 1.
+     *
+     * <p>With a parallelism greater than 1, the data of an entry is
+     * compressed in blocks of 128 KiB by a {@link ParallelDeflaterOutputStream},
+     * on the {@linkplain java.util.concurrent.ForkJoinPool#commonPool()
+     * common pool}. This speeds up the compression of large entries, at
+     * the cost of a slightly lower compression ratio; entries smaller than
+     * a block are compressed by the calling thread, as with a parallelism
+     * of 1.
+     *
+     * @param parallelism the maximum number of blocks of an entry
+     *        compressed at a time
+     * @exception IllegalArgumentException if {@code parallelism} is less
+     *            than 1
+     * @since 12
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism < 1");
+        }
+        this.parallelism = parallelism;
     }
 
     /**
@@ -237,6 +267,16 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
         current = new XEntry(e, written);
         xentries.add(current);
         writeLOC(current);
+        deflateInParallel = e.method == DEFLATED && parallelism > 1;
+        if (deflateInParallel) {
+            if (pdos == null || pdos.parallelism() != parallelism) {
+                if (pdos != null)
+                    pdos.end();
+                pdos = new ParallelDeflaterOutputStream(out, level, parallelism);
+            } else {
+                pdos.setLevel(level);
+            }
+        }
     }
 
     /**
@@ -251,21 +291,31 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
             ZipEntry e = current.entry;
             switch (e.method) {
             case DEFLATED:
-                def.finish();
-                while (!def.finished()) {
-                    deflate();
+                long bytesRead, bytesWritten;
+                if (deflateInParallel) {
+                    pdos.finish();
+                    bytesRead = pdos.getBytesRead();
+                    bytesWritten = pdos.getBytesWritten();
+                    pdos.reset();
+                } else {
+                    def.finish();
+                    while (!def.finished()) {
+                        deflate();
+                    }
+                    bytesRead = def.getBytesRead();
+                    bytesWritten = def.getBytesWritten();
                 }
                 if ((e.flag & 8) == 0) {
                     // verify size, compressed size, and crc-32 settings
-                    if (e.size != def.getBytesRead()) {
+                    if (e.size != bytesRead) {
                         throw new ZipException(
                             "invalid entry size (expected " + e.size +
-                            " but got " + def.getBytesRead() + " bytes)");
+                            " but got " + bytesRead + " bytes)");
                     }
-                    if (e.csize != def.getBytesWritten()) {
+                    if (e.csize != bytesWritten) {
                         throw new ZipException(
                             "invalid entry compressed size (expected " +
-                            e.csize + " but got " + def.getBytesWritten() + " bytes)");
+                            e.csize + " but got " + bytesWritten + " bytes)");
                     }
                     if (e.crc != crc.getValue()) {
                         throw new ZipException(
@@ -274,8 +324,8 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
                             Long.toHexString(crc.getValue()) + ")");
                     }
                 } else {
-                    e.size  = def.getBytesRead();
-                    e.csize = def.getBytesWritten();
+                    e.size  = bytesRead;
+                    e.csize = bytesWritten;
                     e.crc = crc.getValue();
                     writeEXT(e);
                 }
@@ -329,7 +379,11 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
         ZipEntry entry = current.entry;
         switch (entry.method) {
         case DEFLATED:
-            super.write(b, off, len);
+            if (deflateInParallel) {
+                pdos.write(b, off, len);
+            } else {
+                super.write(b, off, len);
+            }
             break;
         case STORED:
             written += len;
@@ -375,7 +429,12 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
      */
     public void close() throws IOException {
         if (!closed) {
-            super.close();
+            try {
+                super.close();
+            } finally {
+                if (pdos != null)
+                    pdos.end();
+            }
             closed = true;
         }
     }
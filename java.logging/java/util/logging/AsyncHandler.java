@@ -0,0 +1,464 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.logging;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import jdk.internal.misc.InnocuousThread;
+
+/**
+ * {@code Handler} that publishes log records asynchronously to a target
+ * {@code Handler}.
+ * <p>
+ * Incoming {@code LogRecords} are stored into a bounded, lock-free ring
+ * buffer, and the calling thread returns at once, without contending for
+ * the target {@code Handler} or waiting for any formatting or I/O.  A
+ * background thread removes the records from the buffer in batches,
+ * publishes them to the target {@code Handler}, and flushes the target
+ * once per batch.
+ * <p>
+ * When the buffer is full, an incoming record is handled according to
+ * the {@linkplain OverflowPolicy overflow policy} of the handler: the
+ * calling thread either waits for room in the buffer, or the record is
+ * dropped.  The number of records in the buffer and the number of
+ * records dropped are available from {@link #getQueueDepth} and
+ * {@link #getDroppedCount}, and through the {@link LoggingMXBean}.
+ * <p>
+ * <b>Configuration:</b>
+ * By default each {@code AsyncHandler} is initialized using the following
+ * {@code LogManager} configuration properties where {@code <handler-name>}
+ * refers to the fully-qualified class name of the handler.
+ * If properties are not defined
+ * (or have invalid values) then the specified default values are used.
+ * If no default value is defined then a RuntimeException is thrown.
+ * <ul>
+ * <li>   &lt;handler-name&gt;.level
+ *        specifies the level for the {@code Handler}
+ *        (defaults to {@code Level.ALL}). </li>
+ * <li>   &lt;handler-name&gt;.filter
+ *        specifies the name of a {@code Filter} class to use
+ *        (defaults to no {@code Filter}). </li>
+ * <li>   &lt;handler-name&gt;.size
+ *        defines the buffer size, rounded up to a power of two
+ *        (defaults to 8192). </li>
+ * <li>   &lt;handler-name&gt;.overflow
+ *        defines the {@code OverflowPolicy}, one of {@code BLOCK},
+ *        {@code DROP} or {@code DROP_BELOW_LEVEL}
+ *        (defaults to {@code BLOCK}). </li>
+ * <li>   &lt;handler-name&gt;.dropLevel
+ *        defines the level below which records are dropped when the
+ *        buffer is full, with the {@code DROP_BELOW_LEVEL} policy
+ *        (defaults to {@code Level.WARNING}). </li>
+ * <li>   &lt;handler-name&gt;.target
+ *        specifies the name of the target {@code Handler } class.
+ *        (no default). </li>
+ * </ul>
+ * <p>
+ * For example, the properties for an {@code AsyncHandler} writing to a
+ * {@code FileHandler} would be:
+ * <ul>
+ * <li>   java.util.logging.AsyncHandler.target=java.util.logging.FileHandler </li>
+ * <li>   java.util.logging.AsyncHandler.overflow=DROP_BELOW_LEVEL </li>
+ * </ul>
+ *
+ * @since 12
+ */
+
+public class AsyncHandler extends Handler {
+
+    /**
+     * The policies for handling an incoming {@code LogRecord} when the
+     * buffer of an {@code AsyncHandler} is full.
+     *
+     * @since 12
+     */
+    public enum OverflowPolicy {
+        /**
+         * The calling thread waits until there is room in the buffer.
+         */
+        BLOCK,
+        /**
+         * The record is dropped.
+         */
+        DROP,
+        /**
+         * The record is dropped if its level is lower than the drop level
+         * of the handler, otherwise the calling thread waits until there
+         * is room in the buffer.
+         */
+        DROP_BELOW_LEVEL
+    }
+
+    private final static int DEFAULT_SIZE = 8192;
+    private final static int MAX_SIZE = 1 << 30;
+    private final static long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private Handler target;
+    private OverflowPolicy overflowPolicy;
+    private volatile Level dropLevel;
+
+    // The ring buffer.  Producers claim a slot by advancing tail, then
+    // store their record into it; the worker thread takes the record,
+    // clears the slot, then advances head to hand the slot back.
+    private AtomicReferenceArray<LogRecord> slots;
+    private int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final LongAdder dropped = new LongAdder();
+    private Thread worker;
+    private volatile boolean waiting;
+    private volatile boolean closed;
+
+    /**
+     * Create an {@code AsyncHandler} and configure it based on
+     * {@code LogManager} configuration properties.
+     */
+    public AsyncHandler() {
+        // configure with specific defaults for AsyncHandler
+        super(Level.ALL, new SimpleFormatter(), null);
+
+        LogManager manager = LogManager.getLogManager();
+        String cname = getClass().getName();
+        int size = manager.getIntProperty(cname + ".size", DEFAULT_SIZE);
+        if (size <= 0) {
+            size = DEFAULT_SIZE;
+        }
+        OverflowPolicy policy = OverflowPolicy.BLOCK;
+        String val = manager.getProperty(cname + ".overflow");
+        if (val != null) {
+            try {
+                policy = OverflowPolicy.valueOf(val.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                // use the default policy
+            }
+        }
+        dropLevel = manager.getLevelProperty(cname + ".dropLevel", Level.WARNING);
+        String targetName = manager.getProperty(cname + ".target");
+        if (targetName == null) {
+            throw new RuntimeException("The handler " + cname
+                    + " does not specify a target");
+        }
+        Handler target;
+        try {
+            Class<?> clz = ClassLoader.getSystemClassLoader().loadClass(targetName);
+            @SuppressWarnings("deprecation")
+            Object o = clz.newInstance();
+            target = (Handler) o;
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException("AsyncHandler can't load handler target \"" + targetName + "\"" , e);
+        }
+        init(target, size, policy);
+    }
+
+    /**
+     * Create an {@code AsyncHandler}.
+     * <p>
+     * The {@code AsyncHandler} is configured based on {@code LogManager}
+     * properties (or their default values) except that the given buffer
+     * size and overflow policy arguments are used.
+     *
+     * @param target  the Handler to which to publish output.
+     * @param size    the number of log records to buffer (must be greater
+     *                than zero), rounded up to a power of two
+     * @param overflowPolicy  the policy for records published when the
+     *                buffer is full
+     *
+     * @throws IllegalArgumentException if {@code size is <= 0}
+     */
+    public AsyncHandler(Handler target, int size, OverflowPolicy overflowPolicy) {
+        // configure with specific defaults for AsyncHandler
+        super(Level.ALL, new SimpleFormatter(), null);
+
+        if (target == null || overflowPolicy == null) {
+            throw new NullPointerException();
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException();
+        }
+        dropLevel = LogManager.getLogManager()
+                .getLevelProperty(getClass().getName() + ".dropLevel", Level.WARNING);
+        init(target, size, overflowPolicy);
+    }
+
+    // Initialize and start the worker thread.  Size is a count of LogRecords.
+    private void init(Handler target, int size, OverflowPolicy policy) {
+        this.target = target;
+        this.overflowPolicy = policy;
+        int capacity = (size >= MAX_SIZE) ? MAX_SIZE
+                     : (size == 1) ? 1 : Integer.highestOneBit(size - 1) << 1;
+        slots = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+        worker = AccessController.doPrivileged(new PrivilegedAction<Thread>() {
+            @Override
+            public Thread run() {
+                Thread t = InnocuousThread.newSystemThread("Logging-AsyncHandler",
+                                                           AsyncHandler.this::run);
+                t.setDaemon(true);
+                t.start();
+                return t;
+            }
+        }, null, new RuntimePermission("modifyThread"));
+    }
+
+    /**
+     * Store a {@code LogRecord} in the buffer, to be published to the
+     * target {@code Handler} by the background thread.
+     * <p>
+     * If there is a {@code Filter}, its {@code isLoggable}
+     * method is called to check if the given log record is loggable.
+     * If not we return.  Otherwise the given record is stored into the
+     * buffer, or handled according to the overflow policy if the buffer
+     * is full.
+     *
+     * @param  record  description of the log event. A null record is
+     *                 silently ignored and is not published
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (record == null || !isLoggable(record)) {
+            return;
+        }
+        // The record is published by another thread, from which the
+        // caller cannot be inferred
+        record.retain();
+        record.inferCallerIfNeeded();
+        if (!offer(record)) {
+            dropped.increment();
+            return;
+        }
+        if (waiting) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Stores a record into the buffer, waiting for room if the overflow
+     * policy requires it, and returns false if the record is dropped.
+     */
+    private boolean offer(LogRecord record) {
+        int spins = 0;
+        for (;;) {
+            long t = tail.get();
+            if (t - head <= mask) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    slots.set((int) t & mask, record);
+                    return true;
+                }
+            } else if (!mustWait(record)) {
+                return false;
+            } else if (++spins < 64) {
+                Thread.yield();
+            } else {
+                LockSupport.unpark(worker);
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+    }
+
+    private boolean mustWait(LogRecord record) {
+        // The worker thread must never wait for itself, which it would if
+        // the target handler logged to this one, and no thread may wait
+        // for a worker which has terminated
+        if (closed || Thread.currentThread() == worker || !worker.isAlive()) {
+            return false;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                return true;
+            case DROP_BELOW_LEVEL:
+                return record.getLevel().intValue() >= dropLevel.intValue();
+            default:
+                return false;
+        }
+    }
+
+    // The body of the worker thread, which runs until the handler is
+    // closed and the buffer is empty.
+    private void run() {
+        for (;;) {
+            if (drain() == 0) {
+                if (closed) {
+                    if (head == tail.get()) {
+                        break;
+                    }
+                    // a record is being stored
+                    Thread.yield();
+                } else {
+                    waiting = true;
+                    if (slots.get((int) head & mask) == null && !closed) {
+                        LockSupport.park(this);
+                    }
+                    waiting = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes the records available in the buffer to the target handler,
+     * flushes it, and returns the number of records published.
+     */
+    private int drain() {
+        int n = 0;
+        long h = head;
+        LogRecord record;
+        while ((record = slots.get((int) h & mask)) != null) {
+            slots.set((int) h & mask, null);
+            try {
+                target.publish(record);
+            } catch (Throwable ex) {
+                reportFailure(ex, ErrorManager.WRITE_FAILURE);
+            }
+            head = ++h;
+            n++;
+        }
+        if (n > 0) {
+            try {
+                target.flush();
+            } catch (Throwable ex) {
+                reportFailure(ex, ErrorManager.FLUSH_FAILURE);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Reports a failure of the target handler to the {@code ErrorManager}.
+     * Errors are reported too, as they must not terminate the worker
+     * thread.
+     */
+    private void reportFailure(Throwable t, int code) {
+        reportError(null, t instanceof Exception ? (Exception) t : new Exception(t), code);
+    }
+
+    /**
+     * Wait for the records stored in the buffer to be published, then
+     * cause a flush on the target {@code Handler}.
+     */
+    @Override
+    public void flush() {
+        if (Thread.currentThread() != worker) {
+            long t = tail.get();
+            while (head < t && worker.isAlive()) {
+                LockSupport.unpark(worker);
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+        target.flush();
+    }
+
+    /**
+     * Close the {@code Handler} and free all associated resources.
+     * The records stored in the buffer are published first, and the
+     * background thread terminates.  This will also close the target
+     * {@code Handler}.
+     *
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have {@code LoggingPermission("control")}.
+     */
+    @Override
+    public void close() throws SecurityException {
+        setLevel(Level.OFF);
+        closed = true;
+        LockSupport.unpark(worker);
+        if (Thread.currentThread() != worker) {
+            boolean interrupted = false;
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        target.close();
+    }
+
+    /**
+     * Get the {@code OverflowPolicy}.
+     *
+     * @return the policy for records published when the buffer is full
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Set the drop level.  When the buffer is full and the overflow
+     * policy is {@code DROP_BELOW_LEVEL}, records of a lower level are
+     * dropped.
+     *
+     * @param newLevel the new value of the drop level
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have {@code LoggingPermission("control")}.
+     */
+    public synchronized void setDropLevel(Level newLevel) throws SecurityException {
+        if (newLevel == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        dropLevel = newLevel;
+    }
+
+    /**
+     * Get the drop level.
+     *
+     * @return the value of the drop level
+     */
+    public Level getDropLevel() {
+        return dropLevel;
+    }
+
+    /**
+     * Returns the number of records stored in the buffer and not yet
+     * published to the target {@code Handler}.
+     *
+     * @return the number of records in the buffer
+     */
+    public int getQueueDepth() {
+        long depth = tail.get() - head;
+        return (depth < 0) ? 0 : (int) Math.min(depth, mask + 1);
+    }
+
+    /**
+     * Returns the number of records dropped because the buffer was full.
+     *
+     * @return the number of records dropped
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
@@ -25,8 +25,9 @@
 
 package java.util.logging;
 
-import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
 import static java.nio.file.StandardOpenOption.WRITE;
 
 import java.io.BufferedOutputStream;
@@ -34,6 +35,8 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.OverlappingFileLockException;
 import java.nio.file.FileAlreadyExistsException;
@@ -45,7 +48,9 @@ import java.nio.file.Paths;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
+import jdk.internal.misc.Unsafe;
 
 /**
  * Simple file logging {@code Handler}.
@@ -61,6 +66,20 @@ import java.util.Set;
  * By default buffering is enabled in the IO libraries but each log
  * record is flushed out when it is complete.
  * <p>
+ * In mapped mode, the output files are instead written through
+ * memory-mapped segments, pre-allocated by {@link FileChannel#map
+ * FileChannel.map}, so that writing a log record is a copy into memory
+ * rather than a system call.  The records are visible to readers of the
+ * file as soon as they are complete, but are followed by NUL bytes up to
+ * the end of the pre-allocated segment, until the unused part of the
+ * segment is truncated when the file is closed or rotated out.  The
+ * number of bytes written to the file is also recorded in the lock file
+ * of the handler.  If the Java virtual machine terminates without closing
+ * the handler, the NUL bytes remain at the end of the file, and the file
+ * is truncated to the recorded length when it is next opened in append
+ * mode.  If the operating system fails, the records and the length which
+ * it had not yet written back from memory to the files may be lost.
+ * <p>
  * By default the {@code XMLFormatter} class is used for formatting.
  * <p>
  * <b>Configuration:</b>
@@ -97,6 +116,10 @@ import java.util.Set;
  * <li>   &lt;handler-name&gt;.maxLocks
  *        specifies the maximum number of concurrent locks held by
  *        FileHandler (defaults to 100). </li>
+ * <li>   &lt;handler-name&gt;.mapped
+ *        specifies whether the FileHandler writes the output files
+ *        in mapped mode (defaults to false). The size of the mapped
+ *        segments is the limit, if any, or else 1 MB. </li>
  * </ul>
  * <p>
  * For example, the properties for {@code FileHandler} would be:
@@ -162,6 +185,12 @@ public class FileHandler extends StreamHandler {
     private static final int MAX_LOCKS = 100;
     private int maxLocks = MAX_LOCKS;
     private static final Set<String> locks = new HashSet<>();
+    private boolean mappedMode;
+    private MappedStream mapped;
+    private MappedByteBuffer lengthRecord;  // in the lock file
+    private long recoveredLength = -1;
+    private static final long DEFAULT_SEGMENT_SIZE = 1 << 20;
+    private static final long MAX_SEGMENT_SIZE = 1 << 30;
 
     /**
      * A metered stream is a subclass of OutputStream that
@@ -206,10 +235,128 @@ public class FileHandler extends StreamHandler {
         }
     }
 
+    /**
+     * A mapped stream is a subclass of OutputStream that
+     * (a) writes its output to a file through consecutive memory-mapped
+     *     segments, mapping the next segment when one is full
+     * (b) keeps track of how many bytes have been written, and records
+     *     their number in the given length record, after each write
+     * Closing the stream leaves the file open, until it is released,
+     * which unmaps the last segment and truncates the pre-allocated part
+     * of the file not written.
+     */
+    private static final class MappedStream extends OutputStream {
+        final FileChannel channel;
+        final long segmentSize;
+        final MappedByteBuffer lengthRecord;
+        MappedByteBuffer segment;
+        long written;
+        boolean closed;
+
+        MappedStream(FileChannel channel, long written, long segmentSize,
+                     MappedByteBuffer lengthRecord) throws IOException {
+            this.channel = channel;
+            this.written = written;
+            this.segmentSize = segmentSize;
+            this.lengthRecord = lengthRecord;
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, written, segmentSize);
+            lengthRecord.putLong(0, written);
+        }
+
+        private void ensureRemaining() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (segment != null && !segment.hasRemaining()) {
+                unmap(segment);
+                segment = null;
+            }
+            if (segment == null) {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, written, segmentSize);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureRemaining();
+            segment.put((byte)b);
+            written++;
+            lengthRecord.putLong(0, written);
+        }
+
+        @Override
+        public void write(byte buff[], int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, buff.length);
+            while (len > 0) {
+                ensureRemaining();
+                int n = Math.min(len, segment.remaining());
+                segment.put(buff, off, n);
+                off += n;
+                len -= n;
+                written += n;
+            }
+            lengthRecord.putLong(0, written);
+        }
+
+        @Override
+        public void flush() {
+            // The segments are in the page cache: nothing to do
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        void release() throws IOException {
+            try {
+                if (segment != null) {
+                    // a file cannot be truncated while it is mapped on
+                    // some platforms
+                    unmap(segment);
+                    segment = null;
+                }
+                channel.truncate(written);
+            } finally {
+                channel.close();
+            }
+        }
+
+        /**
+         * Unmaps a segment, which must no longer be accessed, rather than
+         * waiting for it to be garbage collected.
+         */
+        static void unmap(MappedByteBuffer segment) {
+            Unsafe.getUnsafe().invokeCleaner(segment);
+        }
+    }
+
     private void open(File fname, boolean append) throws IOException {
         long len = 0;
         if (append) {
             len = fname.length();
+            if (recoveredLength >= 0 && recoveredLength < len) {
+                // Drop the NUL bytes pre-allocated by the mapped stream
+                // of a handler which was not closed
+                len = recoveredLength;
+                try (FileChannel channel = FileChannel.open(fname.toPath(), WRITE)) {
+                    channel.truncate(len);
+                }
+            }
+        }
+        if (mappedMode) {
+            long segmentSize = (limit > 0) ? Math.min(limit, MAX_SEGMENT_SIZE)
+                                           : DEFAULT_SEGMENT_SIZE;
+            FileChannel channel = FileChannel.open(fname.toPath(), CREATE, READ, WRITE);
+            try {
+                channel.truncate(len);
+                mapped = new MappedStream(channel, len, segmentSize, lengthRecord);
+            } catch (IOException | RuntimeException x) {
+                channel.close();
+                throw x;
+            }
+            setOutputStream(mapped);
+            return;
         }
         FileOutputStream fout = new FileOutputStream(fname.toString(), append);
         BufferedOutputStream bout = new BufferedOutputStream(fout);
@@ -245,6 +392,7 @@ public class FileHandler extends StreamHandler {
         if(maxLocks <= 0) {
             maxLocks = MAX_LOCKS;
         }
+        mappedMode = manager.getBooleanProperty(cname + ".mapped", false);
         try {
             setEncoding(manager.getStringProperty(cname +".encoding", null));
         } catch (Exception ex) {
@@ -458,6 +606,21 @@ public class FileHandler extends StreamHandler {
         return parent != null && Files.isWritable(parent);
     }
 
+    /**
+     * Returns the length recorded in a lock file by a mapped stream, or -1
+     * if the lock file holds none.
+     */
+    private static long readRecordedLength(FileChannel lockFileChannel)
+            throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(Long.BYTES);
+        while (buf.hasRemaining()) {
+            if (lockFileChannel.read(buf, buf.position()) < 0) {
+                return -1;
+            }
+        }
+        return buf.getLong(0);
+    }
+
     /**
      * Open the set of output files, based on the configured
      * instance variables.
@@ -484,6 +647,7 @@ public class FileHandler extends StreamHandler {
         // Create a lock file.  This grants us exclusive access
         // to our set of output files, as long as we are alive.
         int unique = -1;
+        boolean staleLockFile = false;
         for (;;) {
             unique++;
             if (unique > maxLocks) {
@@ -509,7 +673,7 @@ public class FileHandler extends StreamHandler {
                 while (channel == null && retries++ < 1) {
                     try {
                         channel = FileChannel.open(lockFilePath,
-                                CREATE_NEW, WRITE);
+                                CREATE_NEW, READ, WRITE);
                         fileCreated = true;
                     } catch (FileAlreadyExistsException ix) {
                         // This may be a zombie file left over by a previous
@@ -521,7 +685,7 @@ public class FileHandler extends StreamHandler {
                             && isParentWritable(lockFilePath)) {
                             try {
                                 channel = FileChannel.open(lockFilePath,
-                                    WRITE, APPEND);
+                                    READ, WRITE);
                             } catch (NoSuchFileException x) {
                                 // Race condition - retry once, and if that
                                 // fails again just try the next name in
@@ -570,6 +734,7 @@ public class FileHandler extends StreamHandler {
                 if (available) {
                     // We got the lock.  Remember it.
                     locks.add(lockFileName);
+                    staleLockFile = !fileCreated;
                     break;
                 }
 
@@ -583,12 +748,26 @@ public class FileHandler extends StreamHandler {
             files[i] = generate(pattern, i, unique);
         }
 
+        // A lock file left over by a handler which was not closed holds
+        // the length of its last output file, if it was in mapped mode.
+        if (staleLockFile && append) {
+            recoveredLength = readRecordedLength(lockFileChannel);
+        }
+        if (mappedMode) {
+            lengthRecord = lockFileChannel.map(FileChannel.MapMode.READ_WRITE,
+                                               0, Long.BYTES);
+        }
+
         // Create the initial log file.
         if (append) {
             open(files[0], true);
         } else {
             rotate();
         }
+        recoveredLength = -1;
+        if (!mappedMode) {
+            lockFileChannel.truncate(0);
+        }
 
         // Did we detect any exceptions during initialization?
         Exception ex = em.lastException;
@@ -716,6 +895,16 @@ public class FileHandler extends StreamHandler {
         setLevel(Level.OFF);
 
         super.close();
+        if (mapped != null) {
+            // The file must be unmapped and truncated before it is
+            // renamed, or opened again when there is a single file
+            try {
+                mapped.release();
+            } catch (IOException ix) {
+                reportError(null, ix, ErrorManager.CLOSE_FAILURE);
+            }
+            mapped = null;
+        }
         for (int i = count-2; i >= 0; i--) {
             File f1 = files[i];
             File f2 = files[i+1];
@@ -737,6 +926,10 @@ public class FileHandler extends StreamHandler {
         setLevel(oldLevel);
     }
 
+    private long written() {
+        return (mapped != null) ? mapped.written : meter.written;
+    }
+
     /**
      * Format and publish a {@code LogRecord}.
      *
@@ -750,7 +943,8 @@ public class FileHandler extends StreamHandler {
         }
         super.publish(record);
         flush();
-        if (limit > 0 && (meter.written >= limit || meter.written < 0)) {
+        long written = written();
+        if (limit > 0 && (written >= limit || written < 0)) {
             // We performed access checks in the "init" method to make sure
             // we are only initialized from trusted code.  So we assume
             // it is OK to write the target files, even if we are
@@ -775,6 +969,18 @@ public class FileHandler extends StreamHandler {
     @Override
     public synchronized void close() throws SecurityException {
         super.close();
+        if (mapped != null) {
+            try {
+                mapped.release();
+            } catch (IOException ix) {
+                reportError(null, ix, ErrorManager.CLOSE_FAILURE);
+            }
+            mapped = null;
+        }
+        if (lengthRecord != null) {
+            MappedStream.unmap(lengthRecord);
+            lengthRecord = null;
+        }
         // Unlock any lock file.
         if (lockFileName == null) {
             return;
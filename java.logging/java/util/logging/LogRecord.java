@@ -54,6 +54,24 @@ import static jdk.internal.logger.SurrogateLogger.isFilteredFrame;
  * one of getSourceClassName or getSourceMethodName to force
  * the values to be filled in.
  * <p>
+ * The system property {@code java.util.logging.LogRecord.inferCaller}
+ * selects when the source class name and source method name are
+ * inferred, if not specified explicitly: {@code lazy}, the default,
+ * when first accessed as described above; {@code eager}, when the
+ * LogRecord is logged by a {@link Logger}, on the thread which made the
+ * logging request; or {@code none}, never, so that the call stack is
+ * not analyzed at all and the names are only available when specified
+ * explicitly, for example with {@link Logger#logp Logger.logp}.
+ * <p>
+ * If the system property {@code java.util.logging.LogRecord.reuse} is
+ * {@code "true"}, the LogRecord created by a {@code Logger} for a
+ * logging request is reused for the next logging request of the same
+ * thread, once it has been published.  A LogRecord is not reused once
+ * it has been passed to a {@code Logger} subclass, {@code Filter},
+ * {@code Handler} or {@code Formatter} whose class is not part of the
+ * Java runtime, as these may keep a reference to it, nor once it has been
+ * kept by a {@link MemoryHandler} or an {@link AsyncHandler}.
+ * <p>
  * <b> Serialization notes:</b>
  * <ul>
  * <li>The LogRecord class is serializable.
@@ -90,6 +108,43 @@ public class LogRecord implements java.io.Serializable {
 
     private static final ThreadLocal<Integer> threadIds = new ThreadLocal<>();
 
+    /**
+     * The modes of caller inference, selected by the system property
+     * {@code java.util.logging.LogRecord.inferCaller}.
+     */
+    static final int INFER_LAZY = 0;
+    static final int INFER_EAGER = 1;
+    static final int INFER_NONE = 2;
+
+    static final int inferCallerMode;
+
+    /**
+     * Whether the Logger reuses a LogRecord per thread, as selected by the
+     * system property {@code java.util.logging.LogRecord.reuse}.
+     */
+    static final boolean reuseRecords;
+
+    static {
+        String mode = getProperty("java.util.logging.LogRecord.inferCaller");
+        if ("eager".equalsIgnoreCase(mode)) {
+            inferCallerMode = INFER_EAGER;
+        } else if ("none".equalsIgnoreCase(mode)) {
+            inferCallerMode = INFER_NONE;
+        } else {
+            inferCallerMode = INFER_LAZY;
+        }
+        reuseRecords = Boolean.parseBoolean(getProperty("java.util.logging.LogRecord.reuse"));
+    }
+
+    private static String getProperty(final String key) {
+        return AccessController.doPrivileged(new PrivilegedAction<String>() {
+            @Override
+            public String run() {
+                return System.getProperty(key);
+            }
+        });
+    }
+
     /**
      * Logging message level
      */
@@ -183,6 +238,12 @@ public class LogRecord implements java.io.Serializable {
     private transient Object parameters[];
     private transient ResourceBundle resourceBundle;
 
+    // Set while the record is reused by the Logger of its thread, and
+    // once a handler keeps a reference to the record, so that it is no
+    // longer reused.
+    transient boolean inUse;
+    transient boolean retained;
+
     /**
      * Returns the default value for a new LogRecord's threadID.
      */
@@ -227,9 +288,49 @@ public class LogRecord implements java.io.Serializable {
         sequenceNumber = globalSequenceNumber.getAndIncrement();
         threadID = defaultThreadID();
         instant = Instant.now();
-        needToInferCaller = true;
+        needToInferCaller = (inferCallerMode != INFER_NONE);
    }
 
+    /**
+     * Reinitializes this LogRecord, which is being reused by a Logger,
+     * as if it had been constructed with the given level and message.
+     */
+    void reinit(Level level, String msg) {
+        this.level = Objects.requireNonNull(level);
+        message = msg;
+        sequenceNumber = globalSequenceNumber.getAndIncrement();
+        threadID = defaultThreadID();
+        instant = Instant.now();
+        needToInferCaller = (inferCallerMode != INFER_NONE);
+        sourceClassName = null;
+        sourceMethodName = null;
+        thrown = null;
+        loggerName = null;
+        resourceBundleName = null;
+        parameters = null;
+        resourceBundle = null;
+    }
+
+    /**
+     * Called by handlers which keep a reference to this LogRecord after
+     * it has been published, and by the Logger before it passes this
+     * LogRecord to classes outside of the JDK, so that it is not reused.
+     */
+    void retain() {
+        retained = true;
+    }
+
+    /**
+     * Infers the source class name and method name now, on the thread
+     * which made the logging request, unless they are specified or have
+     * already been inferred.
+     */
+    void inferCallerIfNeeded() {
+        if (needToInferCaller) {
+            inferCaller();
+        }
+    }
+
     /**
      * Get the source Logger's name.
      *
@@ -962,6 +962,9 @@ public class Logger {
             return;
         }
         Filter theFilter = config.filter;
+        if (record.inUse) {
+            retainFor(record, theFilter);
+        }
         if (theFilter != null && !theFilter.isLoggable(record)) {
             return;
         }
@@ -976,6 +979,11 @@ public class Logger {
                 : logger.getHandlers();
 
             for (Handler handler : loggerHandlers) {
+                if (record.inUse) {
+                    retainFor(record, handler);
+                    retainFor(record, handler.getFilter());
+                    retainFor(record, handler.getFormatter());
+                }
                 handler.publish(record);
             }
 
@@ -991,6 +999,61 @@ public class Logger {
         }
     }
 
+    // Per-thread LogRecord reused by the logging methods of all loggers,
+    // if enabled by the java.util.logging.LogRecord.reuse system property.
+    private static final ThreadLocal<LogRecord> reusableRecord =
+            LogRecord.reuseRecords ? new ThreadLocal<>() : null;
+
+    // private support method for logging.
+    // Returns the LogRecord of the current thread reinitialized with the
+    // given level and message if records are reused and it is not being
+    // published already, or a new LogRecord otherwise.
+    private static LogRecord newRecord(Level level, String msg) {
+        if (reusableRecord == null) {
+            return new LogRecord(level, msg);
+        }
+        LogRecord lr = reusableRecord.get();
+        if (lr == null || lr.retained) {
+            lr = new LogRecord(level, msg);
+            reusableRecord.set(lr);
+        } else if (lr.inUse) {
+            // a handler is logging while the record is published
+            return new LogRecord(level, msg);
+        } else {
+            lr.reinit(level, msg);
+        }
+        lr.inUse = true;
+        return lr;
+    }
+
+    // private support method for logging.
+    // Marks a record reused by the Logger as retained, so that it is no
+    // longer reused, before it reaches the given object if the class of
+    // the object is not part of the JDK, as it may keep the record.
+    private static void retainFor(LogRecord lr, Object o) {
+        if (o != null && o.getClass().getClassLoader() != null) {
+            lr.retain();
+        }
+    }
+
+    // private support method for logging.
+    // Infers the caller if it must be eagerly, then calls
+    // "void log(LogRecord)" and makes the record available for reuse.
+    private void doPublish(LogRecord lr) {
+        if (LogRecord.inferCallerMode == LogRecord.INFER_EAGER) {
+            lr.inferCallerIfNeeded();
+        }
+        if (lr.inUse) {
+            // log(LogRecord) may be overridden
+            retainFor(lr, this);
+        }
+        try {
+            log(lr);
+        } finally {
+            lr.inUse = false;
+        }
+    }
+
     // private support method for logging.
     // We fill in the logger name, resource bundle name, and
     // resource bundle and then call "void log(LogRecord)".
@@ -1003,7 +1066,7 @@ public class Logger {
             lr.setResourceBundleName(ebname);
             lr.setResourceBundle(bundle);
         }
-        log(lr);
+        doPublish(lr);
     }
 
 
@@ -1025,7 +1088,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         doLog(lr);
     }
 
@@ -1047,7 +1110,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msgSupplier.get());
+        LogRecord lr = newRecord(level, msgSupplier.get());
         doLog(lr);
     }
 
@@ -1066,7 +1129,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         Object params[] = { param1 };
         lr.setParameters(params);
         doLog(lr);
@@ -1087,7 +1150,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setParameters(params);
         doLog(lr);
     }
@@ -1112,7 +1175,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setThrown(thrown);
         doLog(lr);
     }
@@ -1140,7 +1203,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msgSupplier.get());
+        LogRecord lr = newRecord(level, msgSupplier.get());
         lr.setThrown(thrown);
         doLog(lr);
     }
@@ -1166,7 +1229,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         doLog(lr);
@@ -1193,7 +1256,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msgSupplier.get());
+        LogRecord lr = newRecord(level, msgSupplier.get());
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         doLog(lr);
@@ -1218,7 +1281,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         Object params[] = { param1 };
@@ -1245,7 +1308,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         lr.setParameters(params);
@@ -1276,7 +1339,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         lr.setThrown(thrown);
@@ -1310,7 +1373,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msgSupplier.get());
+        LogRecord lr = newRecord(level, msgSupplier.get());
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         lr.setThrown(thrown);
@@ -1331,7 +1394,7 @@ public class Logger {
             lr.setResourceBundleName(rbname);
             lr.setResourceBundle(findResourceBundle(rbname, false));
         }
-        log(lr);
+        doPublish(lr);
     }
 
     // Private support method for logging for "logrb" methods.
@@ -1341,7 +1404,7 @@ public class Logger {
             lr.setResourceBundleName(rb.getBaseBundleName());
             lr.setResourceBundle(rb);
         }
-        log(lr);
+        doPublish(lr);
     }
 
     /**
@@ -1372,7 +1435,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         doLog(lr, bundleName);
@@ -1407,7 +1470,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         Object params[] = { param1 };
@@ -1444,7 +1507,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         lr.setParameters(params);
@@ -1477,7 +1540,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         if (params != null && params.length != 0) {
@@ -1509,7 +1572,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         if (params != null && params.length != 0) {
             lr.setParameters(params);
         }
@@ -1550,7 +1613,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         lr.setThrown(thrown);
@@ -1589,7 +1652,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         lr.setThrown(thrown);
@@ -1627,7 +1690,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setThrown(thrown);
         doLog(lr, bundle);
     }
@@ -1752,7 +1815,7 @@ public class Logger {
         if (!isLoggable(Level.FINER)) {
             return;
         }
-        LogRecord lr = new LogRecord(Level.FINER, "THROW");
+        LogRecord lr = newRecord(Level.FINER, "THROW");
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         lr.setThrown(thrown);
@@ -130,4 +130,76 @@ public interface LoggingMXBean {
      *         is returned.
      */
     public String getParentLoggerName(String loggerName);
+
+    /**
+     * Returns the number of log records buffered, and not yet published,
+     * by the {@link AsyncHandler}s of the specified logger.
+     * If the specified logger does not exist, {@code -1} is returned.
+     *
+     * @implSpec
+     * The default implementation finds the logger of the given name with
+     * {@link LogManager#getLogger LogManager.getLogManager().getLogger}
+     * and sums the {@link AsyncHandler#getQueueDepth queue depths} of the
+     * {@code AsyncHandler}s among its {@linkplain Logger#getHandlers
+     * handlers}.
+     *
+     * @param loggerName The name of a {@code Logger}.
+     *
+     * @return the sum of the queue depths of the {@code AsyncHandler}s
+     *         of the specified logger; zero if it has none.  If the
+     *         specified logger does not exist, {@code -1} is returned.
+     *
+     * @see AsyncHandler#getQueueDepth
+     * @since 12
+     */
+    public default long getAsyncQueueDepth(String loggerName) {
+        Logger l = LogManager.getLogManager().getLogger(loggerName);
+        if (l == null) {
+            return -1;
+        }
+
+        long depth = 0;
+        for (Handler h : l.getHandlers()) {
+            if (h instanceof AsyncHandler) {
+                depth += ((AsyncHandler) h).getQueueDepth();
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of log records dropped, because their buffer was
+     * full, by the {@link AsyncHandler}s of the specified logger.
+     * If the specified logger does not exist, {@code -1} is returned.
+     *
+     * @implSpec
+     * The default implementation finds the logger of the given name with
+     * {@link LogManager#getLogger LogManager.getLogManager().getLogger}
+     * and sums the {@link AsyncHandler#getDroppedCount dropped counts} of
+     * the {@code AsyncHandler}s among its {@linkplain Logger#getHandlers
+     * handlers}.
+     *
+     * @param loggerName The name of a {@code Logger}.
+     *
+     * @return the sum of the dropped counts of the {@code AsyncHandler}s
+     *         of the specified logger; zero if it has none.  If the
+     *         specified logger does not exist, {@code -1} is returned.
+     *
+     * @see AsyncHandler#getDroppedCount
+     * @since 12
+     */
+    public default long getAsyncDroppedCount(String loggerName) {
+        Logger l = LogManager.getLogManager().getLogger(loggerName);
+        if (l == null) {
+            return -1;
+        }
+
+        long dropped = 0;
+        for (Handler h : l.getHandlers()) {
+            if (h instanceof AsyncHandler) {
+                dropped += ((AsyncHandler) h).getDroppedCount();
+            }
+        }
+        return dropped;
+    }
 }
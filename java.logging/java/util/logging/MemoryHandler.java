@@ -182,6 +182,7 @@ public class MemoryHandler extends Handler {
         if (!isLoggable(record)) {
             return;
         }
+        record.retain();
         int ix = (start+count)%buffer.length;
         buffer[ix] = record;
         if (count < buffer.length) {
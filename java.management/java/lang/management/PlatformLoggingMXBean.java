@@ -131,4 +131,52 @@ public interface PlatformLoggingMXBean extends PlatformManagedObject {
      *         is returned.
      */
     String getParentLoggerName(String loggerName);
+
+    /**
+     * Returns the number of log records buffered, and not yet published,
+     * by the {@linkplain java.util.logging.AsyncHandler asynchronous
+     * handlers} of the specified logger.
+     * If the specified logger does not exist, {@code -1} is returned.
+     * This method first finds the logger of the given name and then
+     * returns the sum of:
+     * <blockquote>
+     *   {@link java.util.logging.AsyncHandler#getQueueDepth
+     *    AsyncHandler.getQueueDepth()}
+     * </blockquote>
+     * for each {@code AsyncHandler} among its
+     * {@linkplain java.util.logging.Logger#getHandlers handlers}.
+     *
+     * @param loggerName The name of a {@code Logger}.
+     *
+     * @return the sum of the queue depths of the {@code AsyncHandler}s
+     *         of the specified logger; zero if it has none.  If the
+     *         specified logger does not exist, {@code -1} is returned.
+     *
+     * @since 12
+     */
+    long getAsyncQueueDepth(String loggerName);
+
+    /**
+     * Returns the number of log records dropped, because their buffer was
+     * full, by the {@linkplain java.util.logging.AsyncHandler asynchronous
+     * handlers} of the specified logger.
+     * If the specified logger does not exist, {@code -1} is returned.
+     * This method first finds the logger of the given name and then
+     * returns the sum of:
+     * <blockquote>
+     *   {@link java.util.logging.AsyncHandler#getDroppedCount
+     *    AsyncHandler.getDroppedCount()}
+     * </blockquote>
+     * for each {@code AsyncHandler} among its
+     * {@linkplain java.util.logging.Logger#getHandlers handlers}.
+     *
+     * @param loggerName The name of a {@code Logger}.
+     *
+     * @return the sum of the dropped counts of the {@code AsyncHandler}s
+     *         of the specified logger; zero if it has none.  If the
+     *         specified logger does not exist, {@code -1} is returned.
+     *
+     * @since 12
+     */
+    long getAsyncDroppedCount(String loggerName);
 }
@@ -330,6 +330,16 @@ public class ManagementFactoryHelper {
             return loggingAccess.invoke("getParentLoggerName", loggerName);
         }
 
+        @Override
+        public long getAsyncQueueDepth(String loggerName) {
+            return loggingAccess.<Long>invoke("getAsyncQueueDepth", loggerName);
+        }
+
+        @Override
+        public long getAsyncDroppedCount(String loggerName) {
+            return loggingAccess.<Long>invoke("getAsyncDroppedCount", loggerName);
+        }
+
         private static PlatformLoggingImpl getInstance() {
             return new PlatformLoggingImpl(new LoggingMXBeanAccess());
          }
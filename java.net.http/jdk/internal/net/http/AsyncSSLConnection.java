@@ -29,6 +29,8 @@ import java.net.InetSocketAddress;
 import java.nio.channels.SocketChannel;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import jdk.internal.net.http.common.ByteBufferPool;
+import jdk.internal.net.http.common.FlowTube;
 import jdk.internal.net.http.common.MinimalFuture;
 import jdk.internal.net.http.common.SSLTube;
 import jdk.internal.net.http.common.Utils;
@@ -55,11 +57,18 @@ class AsyncSSLConnection extends AbstractAsyncSSLConnection {
         return plainConnection
                 .connectAsync(exchange)
                 .thenApply( unused -> {
-                    // create the SSLTube wrapping the SocketTube, with the given engine
+                    // create the SSLTube wrapping the SocketTube, with the given engine.
+                    // Encrypted buffers are returned to the pool once written.
+                    FlowTube tube = plainConnection.getConnectionFlow();
+                    ByteBufferPool netBuffers = client().getSSLNetBufferPool();
+                    if (tube instanceof SocketTube) {
+                        ((SocketTube)tube).setWrittenBuffersRecycler(netBuffers::release);
+                    }
                     flow = new SSLTube(engine,
                                        client().theExecutor(),
                                        client().getSSLBufferSupplier()::recycle,
-                                       plainConnection.getConnectionFlow());
+                                       netBuffers,
+                                       tube);
                     return null; } );
     }
 
@@ -26,28 +26,35 @@
 package jdk.internal.net.http;
 
 import java.io.IOException;
-import java.lang.System.Logger.Level;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.Flow;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import jdk.internal.net.http.common.FlowTube;
 import jdk.internal.net.http.common.Logger;
 import jdk.internal.net.http.common.Utils;
 
 /**
  * Http 1.1 connection pool.
+ *
+ * <p> Idle connections are kept in a lock free deque per {@link CacheKey}.
+ * The most recently returned connection is handed out first, so that
+ * connections which are not needed under the current load get to expire.
+ * A connection belongs to whichever thread manages to remove its
+ * {@link IdleEntry} from the deque, whether that is a caller of
+ * {@link #getConnection}, the purge of expired connections, the eviction
+ * of connections above the pool limits, or the cleanup triggered by the
+ * connection being closed by the peer. No monitor is held on the pool
+ * on any of these paths.
  */
 final class ConnectionPool {
 
@@ -55,15 +62,22 @@ final class ConnectionPool {
             "jdk.httpclient.keepalive.timeout", 1200); // seconds
     static final long MAX_POOL_SIZE = Utils.getIntegerNetProperty(
             "jdk.httpclient.connectionPoolSize", 0); // unbounded
+    static final long MAX_POOL_SIZE_PER_ROUTE = Utils.getIntegerNetProperty(
+            "jdk.httpclient.connectionPoolSizePerRoute", 0); // unbounded
     final Logger debug = Utils.getDebugLogger(this::dbgString, Utils.DEBUG);
 
     // Pools of idle connections
 
-    private final HashMap<CacheKey,LinkedList<HttpConnection>> plainPool;
-    private final HashMap<CacheKey,LinkedList<HttpConnection>> sslPool;
-    private final ExpiryList expiryList;
+    private final ConcurrentHashMap<CacheKey,Route> plainPool;
+    private final ConcurrentHashMap<CacheKey,Route> sslPool;
     private final String dbgTag; // used for debug
-    boolean stopped;
+    volatile boolean stopped;
+
+    // Statistics
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
 
     /**
      * Entries in connection pool are keyed by destination address and/or
@@ -106,6 +120,37 @@ final class ConnectionPool {
         }
     }
 
+    /**
+     * An idle connection and the time at which it expires.
+     */
+    static final class IdleEntry {
+        final HttpConnection connection;
+        final Instant expiry; // absolute time in seconds of expiry time
+        IdleEntry(HttpConnection connection, Instant expiry) {
+            this.connection = connection;
+            this.expiry = expiry;
+        }
+    }
+
+    /**
+     * The idle connections for one CacheKey. Newest entries are at the
+     * head of the deque, oldest at the tail. {@code size} is only an
+     * approximation of the deque size, used to enforce the per route limit.
+     * A route is removed from its pool when its deque becomes empty, and
+     * entries are only added to a route while it is mapped in its pool, so
+     * that no entry is added to a route which has been removed.
+     */
+    private static final class Route {
+        final ConcurrentHashMap<CacheKey,Route> pool;
+        final CacheKey key;
+        final ConcurrentLinkedDeque<IdleEntry> idle = new ConcurrentLinkedDeque<>();
+        final AtomicInteger size = new AtomicInteger();
+        Route(ConcurrentHashMap<CacheKey,Route> pool, CacheKey key) {
+            this.pool = pool;
+            this.key = key;
+        }
+    }
+
     ConnectionPool(long clientId) {
         this("ConnectionPool("+clientId+")");
     }
@@ -115,16 +160,15 @@ final class ConnectionPool {
      */
     private ConnectionPool(String tag) {
         dbgTag = tag;
-        plainPool = new HashMap<>();
-        sslPool = new HashMap<>();
-        expiryList = new ExpiryList();
+        plainPool = new ConcurrentHashMap<>();
+        sslPool = new ConcurrentHashMap<>();
     }
 
     final String dbgString() {
         return dbgTag;
     }
 
-    synchronized void start() {
+    void start() {
         assert !stopped : "Already stopped";
     }
 
@@ -134,15 +178,20 @@ final class ConnectionPool {
         return new CacheKey(destination, proxy);
     }
 
-    synchronized HttpConnection getConnection(boolean secure,
-                                              InetSocketAddress addr,
-                                              InetSocketAddress proxy) {
+    HttpConnection getConnection(boolean secure,
+                                 InetSocketAddress addr,
+                                 InetSocketAddress proxy) {
         if (stopped) return null;
         CacheKey key = new CacheKey(addr, proxy);
-        HttpConnection c = secure ? findConnection(key, sslPool)
-                                  : findConnection(key, plainPool);
-        //System.out.println ("getConnection returning: " + c);
-        return c;
+        Route route = (secure ? sslPool : plainPool).get(key);
+        IdleEntry entry = route == null ? null : route.idle.pollFirst();
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        removed(route);
+        hits.incrementAndGet();
+        return entry.connection;
     }
 
     /**
@@ -155,39 +204,60 @@ final class ConnectionPool {
     // Called also by whitebox tests
     void returnToPool(HttpConnection conn, Instant now, long keepAlive) {
 
-        // Don't call registerCleanupTrigger while holding a lock,
-        // but register it before the connection is added to the pool,
-        // since we don't want to trigger the cleanup if the connection
-        // is not in the pool.
+        // Register the cleanup trigger before the connection is added to
+        // the pool, since we don't want to trigger the cleanup if the
+        // connection is not in the pool.
         CleanupTrigger cleanup = registerCleanupTrigger(conn);
 
         // it's possible that cleanup may have been called.
-        HttpConnection toClose = null;
-        synchronized(this) {
-            if (cleanup.isDone()) {
-                return;
-            } else if (stopped) {
-                conn.close();
-                return;
+        if (cleanup.isDone()) {
+            return;
+        } else if (stopped) {
+            conn.close();
+            return;
+        }
+
+        IdleEntry entry = new IdleEntry(conn, expiry(now, keepAlive));
+        Route route = add(entry);
+
+        // The cleanup may have run, or the pool may have been stopped,
+        // while the entry was being added. In both cases the entry
+        // must not stay in the pool.
+        if (cleanup.isDone() || stopped) {
+            if (route.idle.remove(entry)) {
+                removed(route);
+                close(conn);
             }
-            if (MAX_POOL_SIZE > 0 && expiryList.size() >= MAX_POOL_SIZE) {
-                toClose = expiryList.removeOldest();
-                if (toClose != null) removeFromPool(toClose);
+            return;
+        }
+
+        List<HttpConnection> toClose = null;
+        if (MAX_POOL_SIZE_PER_ROUTE > 0) {
+            while (route.size.get() > MAX_POOL_SIZE_PER_ROUTE) {
+                IdleEntry oldest = route.idle.pollLast();
+                if (oldest == null) break;
+                removed(route);
+                if (toClose == null) toClose = new ArrayList<>();
+                toClose.add(oldest.connection);
             }
-            if (conn instanceof PlainHttpConnection) {
-                putConnection(conn, plainPool);
-            } else {
-                assert conn.isSecure();
-                putConnection(conn, sslPool);
+        }
+        if (MAX_POOL_SIZE > 0) {
+            while (idleCount.get() > MAX_POOL_SIZE) {
+                HttpConnection oldest = removeOldest();
+                if (oldest == null) break;
+                if (toClose == null) toClose = new ArrayList<>();
+                toClose.add(oldest);
             }
-            expiryList.add(conn, now, keepAlive);
         }
         if (toClose != null) {
-            if (debug.on()) {
-                debug.log("Maximum pool size reached: removing oldest connection %s",
-                          toClose.dbgString());
+            evictions.addAndGet(toClose.size());
+            for (HttpConnection c : toClose) {
+                if (debug.on()) {
+                    debug.log("Maximum pool size reached: removing oldest connection %s",
+                              c.dbgString());
+                }
+                close(c);
             }
-            close(toClose);
         }
         //System.out.println("Return to pool: " + conn);
     }
@@ -203,44 +273,90 @@ final class ConnectionPool {
         return cleanup;
     }
 
-    private HttpConnection
-    findConnection(CacheKey key,
-                   HashMap<CacheKey,LinkedList<HttpConnection>> pool) {
-        LinkedList<HttpConnection> l = pool.get(key);
-        if (l == null || l.isEmpty()) {
-            return null;
+    private static Instant expiry(Instant now, long keepAlive) {
+        return now.truncatedTo(ChronoUnit.SECONDS)
+                .plus(keepAlive, ChronoUnit.SECONDS);
+    }
+
+    private ConcurrentHashMap<CacheKey,Route> poolFor(HttpConnection c) {
+        if (c instanceof PlainHttpConnection) {
+            return plainPool;
         } else {
-            HttpConnection c = l.removeFirst();
-            expiryList.remove(c);
-            return c;
+            assert c.isSecure();
+            return sslPool;
         }
     }
 
-    /* called from cache cleaner only  */
-    private boolean
-    removeFromPool(HttpConnection c,
-                   HashMap<CacheKey,LinkedList<HttpConnection>> pool) {
-        //System.out.println("cacheCleaner removing: " + c);
-        assert Thread.holdsLock(this);
-        CacheKey k = c.cacheKey();
-        List<HttpConnection> l = pool.get(k);
-        if (l == null || l.isEmpty()) {
-            pool.remove(k);
-            return false;
+    // Adds the entry at the head of the deque of its route, creating the
+    // route if needed, and returns the route.
+    private Route add(IdleEntry entry) {
+        HttpConnection c = entry.connection;
+        ConcurrentHashMap<CacheKey,Route> pool = poolFor(c);
+        Route route = pool.compute(c.cacheKey(), (k, r) -> {
+            if (r == null) r = new Route(pool, k);
+            r.idle.addFirst(entry);
+            return r;
+        });
+        route.size.incrementAndGet();
+        idleCount.incrementAndGet();
+        return route;
+    }
+
+    // Must be called once for each entry removed from the deque of route.
+    // Removes the route from its pool if its deque is now empty.
+    private void removed(Route route) {
+        route.size.decrementAndGet();
+        idleCount.decrementAndGet();
+        if (route.idle.isEmpty()) {
+            route.pool.computeIfPresent(route.key,
+                    (k, r) -> r == route && r.idle.isEmpty() ? null : r);
         }
-        return l.remove(c);
     }
 
-    private void
-    putConnection(HttpConnection c,
-                  HashMap<CacheKey,LinkedList<HttpConnection>> pool) {
-        CacheKey key = c.cacheKey();
-        LinkedList<HttpConnection> l = pool.get(key);
-        if (l == null) {
-            l = new LinkedList<>();
-            pool.put(key, l);
+    // Removes the entry for the given connection, returning false if it
+    // was not in the pool.
+    private boolean removeFromPool(HttpConnection c) {
+        Route route = poolFor(c).get(c.cacheKey());
+        if (route == null) return false;
+        for (IdleEntry e : route.idle) {
+            if (e.connection == c) {
+                if (route.idle.remove(e)) {
+                    removed(route);
+                    return true;
+                }
+                return false;
+            }
         }
-        l.add(c);
+        return false;
+    }
+
+    // Removes the entry which expires first across all routes,
+    // returning its connection, or null if the pool is empty.
+    private HttpConnection removeOldest() {
+        while (true) {
+            Route oldestRoute = null;
+            IdleEntry oldest = null;
+            for (Route route : routes()) {
+                IdleEntry e = route.idle.peekLast();
+                if (e != null && (oldest == null || e.expiry.isBefore(oldest.expiry))) {
+                    oldest = e;
+                    oldestRoute = route;
+                }
+            }
+            if (oldest == null) return null;
+            if (oldestRoute.idle.remove(oldest)) {
+                removed(oldestRoute);
+                return oldest.connection;
+            }
+            // lost a race with another thread; look again
+        }
+    }
+
+    private Iterable<Route> routes() {
+        List<Route> l = new ArrayList<>(plainPool.size() + sslPool.size());
+        l.addAll(plainPool.values());
+        l.addAll(sslPool.values());
+        return l;
     }
 
     /**
@@ -251,38 +367,37 @@ final class ConnectionPool {
      *         expire.
      */
     long purgeExpiredConnectionsAndReturnNextDeadline() {
-        if (!expiryList.purgeMaybeRequired()) return 0;
+        if (idleCount.get() <= 0) return 0;
         return purgeExpiredConnectionsAndReturnNextDeadline(Instant.now());
     }
 
     // Used for whitebox testing
     long purgeExpiredConnectionsAndReturnNextDeadline(Instant now) {
-        long nextPurge = 0;
-
-        // We may be in the process of adding new elements
-        // to the expiry list - but those elements will not
-        // have outlast their keep alive timer yet since we're
-        // just adding them.
-        if (!expiryList.purgeMaybeRequired()) return nextPurge;
-
-        List<HttpConnection> closelist;
-        synchronized (this) {
-            closelist = expiryList.purgeUntil(now);
-            for (HttpConnection c : closelist) {
-                if (c instanceof PlainHttpConnection) {
-                    boolean wasPresent = removeFromPool(c, plainPool);
-                    assert wasPresent;
-                } else {
-                    boolean wasPresent = removeFromPool(c, sslPool);
-                    assert wasPresent;
+        if (idleCount.get() <= 0) return 0;
+
+        // Entries returned with a different keep alive may be out of
+        // order, so each deque is scanned completely. Idle deques are
+        // expected to be short.
+        List<HttpConnection> closelist = new ArrayList<>();
+        Instant next = null;
+        for (Route route : routes()) {
+            Iterator<IdleEntry> it = route.idle.descendingIterator();
+            while (it.hasNext()) {
+                IdleEntry e = it.next();
+                // use !isAfter instead of isBefore in order to
+                // remove the entry if its expiry == now
+                if (!e.expiry.isAfter(now)) {
+                    if (route.idle.remove(e)) {
+                        removed(route);
+                        closelist.add(e.connection);
+                    }
+                } else if (next == null || e.expiry.isBefore(next)) {
+                    next = e.expiry;
                 }
             }
-            nextPurge = now.until(
-                    expiryList.nextExpiryDeadline().orElse(now),
-                    ChronoUnit.MILLIS);
         }
         closelist.forEach(this::close);
-        return nextPurge;
+        return next == null ? 0 : now.until(next, ChronoUnit.MILLIS);
     }
 
     private void close(HttpConnection c) {
@@ -292,190 +407,65 @@ final class ConnectionPool {
     }
 
     void stop() {
-        List<HttpConnection> closelist = Collections.emptyList();
+        stopped = true;
+        List<HttpConnection> closelist = new ArrayList<>();
         try {
-            synchronized (this) {
-                stopped = true;
-                closelist = expiryList.stream()
-                    .map(e -> e.connection)
-                    .collect(Collectors.toList());
-                expiryList.clear();
-                plainPool.clear();
-                sslPool.clear();
+            for (Route route : routes()) {
+                IdleEntry e;
+                while ((e = route.idle.pollFirst()) != null) {
+                    removed(route);
+                    closelist.add(e.connection);
+                }
             }
+            plainPool.clear();
+            sslPool.clear();
         } finally {
             closelist.forEach(this::close);
         }
     }
 
-    static final class ExpiryEntry {
-        final HttpConnection connection;
-        final Instant expiry; // absolute time in seconds of expiry time
-        ExpiryEntry(HttpConnection connection, Instant expiry) {
-            this.connection = connection;
-            this.expiry = expiry;
-        }
-    }
-
-    /**
-     * Manages a LinkedList of sorted ExpiryEntry. The entry with the closer
-     * deadline is at the tail of the list, and the entry with the farther
-     * deadline is at the head. In the most common situation, new elements
-     * will need to be added at the head (or close to it), and expired elements
-     * will need to be purged from the tail.
-     */
-    private static final class ExpiryList {
-        private final LinkedList<ExpiryEntry> list = new LinkedList<>();
-        private volatile boolean mayContainEntries;
-
-        int size() { return list.size(); }
-
-        // A loosely accurate boolean whose value is computed
-        // at the end of each operation performed on ExpiryList;
-        // Does not require synchronizing on the ConnectionPool.
-        boolean purgeMaybeRequired() {
-            return mayContainEntries;
-        }
-
-        // Returns the next expiry deadline
-        // should only be called while holding a synchronization
-        // lock on the ConnectionPool
-        Optional<Instant> nextExpiryDeadline() {
-            if (list.isEmpty()) return Optional.empty();
-            else return Optional.of(list.getLast().expiry);
-        }
-
-        // should only be called while holding a synchronization
-        // lock on the ConnectionPool
-        HttpConnection removeOldest() {
-            ExpiryEntry entry = list.pollLast();
-            return entry == null ? null : entry.connection;
-        }
-
-        // should only be called while holding a synchronization
-        // lock on the ConnectionPool
-        void add(HttpConnection conn) {
-            add(conn, Instant.now(), KEEP_ALIVE);
-        }
-
-        // Used by whitebox test.
-        void add(HttpConnection conn, Instant now, long keepAlive) {
-            Instant then = now.truncatedTo(ChronoUnit.SECONDS)
-                    .plus(keepAlive, ChronoUnit.SECONDS);
-
-            // Elements with the farther deadline are at the head of
-            // the list. It's more likely that the new element will
-            // have the farthest deadline, and will need to be inserted
-            // at the head of the list, so we're using an ascending
-            // list iterator to find the right insertion point.
-            ListIterator<ExpiryEntry> li = list.listIterator();
-            while (li.hasNext()) {
-                ExpiryEntry entry = li.next();
-
-                if (then.isAfter(entry.expiry)) {
-                    li.previous();
-                    // insert here
-                    li.add(new ExpiryEntry(conn, then));
-                    mayContainEntries = true;
-                    return;
-                }
-            }
-            // last (or first) element of list (the last element is
-            // the first when the list is empty)
-            list.add(new ExpiryEntry(conn, then));
-            mayContainEntries = true;
-        }
-
-        // should only be called while holding a synchronization
-        // lock on the ConnectionPool
-        void remove(HttpConnection c) {
-            if (c == null || list.isEmpty()) return;
-            ListIterator<ExpiryEntry> li = list.listIterator();
-            while (li.hasNext()) {
-                ExpiryEntry e = li.next();
-                if (e.connection.equals(c)) {
-                    li.remove();
-                    mayContainEntries = !list.isEmpty();
-                    return;
-                }
+    // Used by tests
+    boolean contains(HttpConnection c) {
+        final CacheKey key = c.cacheKey();
+        Route route;
+        if ((route = plainPool.get(key)) != null) {
+            for (IdleEntry e : route.idle) {
+                if (e.connection == c) return true;
             }
         }
-
-        // should only be called while holding a synchronization
-        // lock on the ConnectionPool.
-        // Purge all elements whose deadline is before now (now included).
-        List<HttpConnection> purgeUntil(Instant now) {
-            if (list.isEmpty()) return Collections.emptyList();
-
-            List<HttpConnection> closelist = new ArrayList<>();
-
-            // elements with the closest deadlines are at the tail
-            // of the queue, so we're going to use a descending iterator
-            // to remove them, and stop when we find the first element
-            // that has not expired yet.
-            Iterator<ExpiryEntry> li = list.descendingIterator();
-            while (li.hasNext()) {
-                ExpiryEntry entry = li.next();
-                // use !isAfter instead of isBefore in order to
-                // remove the entry if its expiry == now
-                if (!entry.expiry.isAfter(now)) {
-                    li.remove();
-                    HttpConnection c = entry.connection;
-                    closelist.add(c);
-                } else break; // the list is sorted
+        if ((route = sslPool.get(key)) != null) {
+            for (IdleEntry e : route.idle) {
+                if (e.connection == c) return true;
             }
-            mayContainEntries = !list.isEmpty();
-            return closelist;
         }
+        return false;
+    }
 
-        // should only be called while holding a synchronization
-        // lock on the ConnectionPool
-        java.util.stream.Stream<ExpiryEntry> stream() {
-            return list.stream();
-        }
+    /** The number of idle connections currently in the pool. */
+    int idleConnections() {
+        return Math.max(idleCount.get(), 0);
+    }
 
-        // should only be called while holding a synchronization
-        // lock on the ConnectionPool
-        void clear() {
-            list.clear();
-            mayContainEntries = false;
-        }
+    /** The number of times an idle connection was found in the pool. */
+    long hits() {
+        return hits.get();
     }
 
-    // Remove a connection from the pool.
-    // should only be called while holding a synchronization
-    // lock on the ConnectionPool
-    private void removeFromPool(HttpConnection c) {
-        assert Thread.holdsLock(this);
-        if (c instanceof PlainHttpConnection) {
-            removeFromPool(c, plainPool);
-        } else {
-            assert c.isSecure();
-            removeFromPool(c, sslPool);
-        }
+    /** The number of times no idle connection was found in the pool. */
+    long misses() {
+        return misses.get();
     }
 
-    // Used by tests
-    synchronized boolean contains(HttpConnection c) {
-        final CacheKey key = c.cacheKey();
-        List<HttpConnection> list;
-        if ((list = plainPool.get(key)) != null) {
-            if (list.contains(c)) return true;
-        }
-        if ((list = sslPool.get(key)) != null) {
-            if (list.contains(c)) return true;
-        }
-        return false;
+    /** The number of idle connections closed to stay within the pool limits. */
+    long evictions() {
+        return evictions.get();
     }
 
     void cleanup(HttpConnection c, Throwable error) {
         if (debug.on())
             debug.log("%s : ConnectionPool.cleanup(%s)",
                     String.valueOf(c.getConnectionFlow()), error);
-        synchronized(this) {
-            removeFromPool(c);
-            expiryList.remove(c);
-        }
+        removeFromPool(c);
         c.close();
     }
 
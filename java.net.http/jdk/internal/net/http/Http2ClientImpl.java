@@ -30,9 +30,12 @@ import java.io.UncheckedIOException;
 import java.net.ConnectException;
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -56,14 +59,26 @@ class Http2ClientImpl {
     final static Logger debug =
             Utils.getDebugLogger("Http2ClientImpl"::toString, Utils.DEBUG);
 
+    /*
+     * The maximum number of HTTP/2 connections cached for one destination.
+     * When more than one is allowed, new streams are given to the cached
+     * connection with the fewest active streams, and another connection
+     * is opened when all the cached ones are already carrying streams.
+     */
+    static final int MAX_CONNECTIONS = getParameter(
+            "jdk.httpclient.http2.maxconnections", 1, Integer.MAX_VALUE, 1);
+
     private final HttpClientImpl client;
 
     Http2ClientImpl(HttpClientImpl client) {
         this.client = client;
     }
 
-    /* Map key is "scheme:host:port" */
-    private final Map<String,Http2Connection> connections = new ConcurrentHashMap<>();
+    /* Map key is "scheme:host:port". Lists are guarded by this. */
+    private final Map<String,List<Http2Connection>> connections = new ConcurrentHashMap<>();
+
+    /* Number of connections being opened for each key, guarded by this */
+    private final Map<String,Integer> pending = new HashMap<>();
 
     private final Set<String> failures = Collections.synchronizedSet(new HashSet<>());
 
@@ -97,13 +112,29 @@ class Http2ClientImpl {
         String key = Http2Connection.keyFor(uri, proxy);
 
         synchronized (this) {
-            Http2Connection connection = connections.get(key);
-            if (connection != null) {
+            List<Http2Connection> pool = connections.get(key);
+            while (pool != null && !pool.isEmpty()) {
+                Http2Connection connection = leastLoaded(pool);
+                if ((connection == null || connection.activeClientStreams() > 0)
+                        && pool.size() + pending(key) < MAX_CONNECTIONS) {
+                    // all cached connections are busy or have reached their
+                    // concurrent stream limit: open another one
+                    if (debug.on())
+                        debug.log("all %d connections busy for %s", pool.size(), key);
+                    break;
+                }
+                if (connection == null) {
+                    // every connection has reached its concurrent stream limit,
+                    // and no more connections may be opened. Use the first one:
+                    // reserveStream reports the error.
+                    connection = pool.get(0);
+                }
                 try {
                     if (connection.closed || !connection.reserveStream(true)) {
                         if (debug.on())
                             debug.log("removing found closed or closing connection: %s", connection);
                         deleteConnection(connection);
+                        pool = connections.get(key);
                     } else {
                         // fast path if connection already exists
                         if (debug.on())
@@ -122,11 +153,13 @@ class Http2ClientImpl {
                 if (debug.on()) debug.log("not found in connection pool");
                 return MinimalFuture.completedFuture(null);
             }
+            pending.merge(key, 1, Integer::sum);
         }
         return Http2Connection
                 .createAsync(req, this, exchange)
                 .whenComplete((conn, t) -> {
                     synchronized (Http2ClientImpl.this) {
+                        pending.computeIfPresent(key, (k, n) -> n == 1 ? null : n - 1);
                         if (conn != null) {
                             try {
                                 conn.reserveStream(true);
@@ -143,9 +176,37 @@ class Http2ClientImpl {
                 });
     }
 
+    // must hold this
+    private int pending(String key) {
+        assert Thread.holdsLock(this);
+        return pending.getOrDefault(key, 0);
+    }
+
     /*
-     * Cache the given connection, if no connection to the same
-     * destination exists. If one exists, then we let the initial stream
+     * Returns the open connection in the list with the fewest active
+     * streams that can accept another stream, preferring the one with
+     * the larger send window. Returns null if there is none.
+     */
+    private static Http2Connection leastLoaded(List<Http2Connection> pool) {
+        Http2Connection best = null;
+        int bestStreams = 0, bestWindow = 0;
+        for (Http2Connection c : pool) {
+            if (c.closed || !c.canReserveClientStream()) continue;
+            int streams = c.activeClientStreams();
+            int window = c.connectionSendWindow();
+            if (best == null || streams < bestStreams
+                    || (streams == bestStreams && window > bestWindow)) {
+                best = c;
+                bestStreams = streams;
+                bestWindow = window;
+            }
+        }
+        return best;
+    }
+
+    /*
+     * Cache the given connection, if fewer than MAX_CONNECTIONS connections
+     * to the same destination exist. Otherwise, we let the initial stream
      * complete but allow it to close itself upon completion.
      * This situation should not arise with https because the request
      * has not been sent as part of the initial alpn negotiation
@@ -160,15 +221,21 @@ class Http2ClientImpl {
 
         String key = c.key();
         synchronized(this) {
-            Http2Connection c1 = connections.putIfAbsent(key, c);
-            if (c1 != null) {
+            List<Http2Connection> pool =
+                    connections.computeIfAbsent(key, k -> new ArrayList<>(1));
+            if (pool.contains(c)) {
+                return true;
+            }
+            if (pool.size() >= MAX_CONNECTIONS) {
                 c.setFinalStream();
                 if (debug.on())
-                    debug.log("existing entry in connection pool for %s", key);
+                    debug.log("existing entries in connection pool for %s", key);
                 return false;
             }
+            pool.add(c);
             if (debug.on())
-                debug.log("put in the connection pool: %s", c);
+                debug.log("put in the connection pool: %s (%d for %s)",
+                          c, pool.size(), key);
             return true;
         }
     }
@@ -177,19 +244,34 @@ class Http2ClientImpl {
         if (debug.on())
             debug.log("removing from the connection pool: %s", c);
         synchronized (this) {
-            Http2Connection c1 = connections.get(c.key());
-            if (c1 != null && c1.equals(c)) {
-                connections.remove(c.key());
+            List<Http2Connection> pool = connections.get(c.key());
+            if (pool != null && pool.remove(c)) {
+                if (pool.isEmpty()) {
+                    connections.remove(c.key());
+                }
                 if (debug.on())
                     debug.log("removed from the connection pool: %s", c);
             }
         }
     }
 
+    /** Returns the number of cached HTTP/2 connections */
+    synchronized long connectionCount() {
+        long count = 0;
+        for (List<Http2Connection> pool : connections.values()) {
+            count += pool.size();
+        }
+        return count;
+    }
+
     void stop() {
         if (debug.on()) debug.log("stopping");
-        connections.values().forEach(this::close);
-        connections.clear();
+        List<Http2Connection> all = new ArrayList<>();
+        synchronized (this) {
+            connections.values().forEach(all::addAll);
+            connections.clear();
+        }
+        all.forEach(this::close);
     }
 
     private void close(Http2Connection h2c) {
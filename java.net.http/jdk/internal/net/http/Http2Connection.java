@@ -502,6 +502,25 @@ class Http2Connection  {
         return finalStream;
     }
 
+    /** Returns the number of client initiated streams currently reserved. */
+    synchronized int activeClientStreams() {
+        return numReservedClientStreams;
+    }
+
+    /**
+     * Returns true if another client stream could be reserved without
+     * exceeding the server's concurrent stream limit.
+     */
+    synchronized boolean canReserveClientStream() {
+        return !finalStream
+                && numReservedClientStreams < maxConcurrentClientInitiatedStreams();
+    }
+
+    /** Returns the Send Window size available on the connection. */
+    int connectionSendWindow() {
+        return windowController.connectionWindowSize();
+    }
+
     /**
      * Mark this connection so no more streams created on it and it will close when
      * all are complete.
@@ -77,6 +77,7 @@ import java.net.http.HttpResponse.BodyHandler;
 import java.net.http.HttpResponse.PushPromiseHandler;
 import java.net.http.WebSocket;
 import jdk.internal.net.http.common.BufferSupplier;
+import jdk.internal.net.http.common.ByteBufferPool;
 import jdk.internal.net.http.common.Log;
 import jdk.internal.net.http.common.Logger;
 import jdk.internal.net.http.common.Pair;
@@ -99,6 +100,10 @@ final class HttpClientImpl extends HttpClient implements Trackable {
     final Logger debugelapsed = Utils.getDebugLogger(this::dbgString, DEBUGELAPSED);
     final Logger debugtimeout = Utils.getDebugLogger(this::dbgString, DEBUGTIMEOUT);
     static final AtomicLong CLIENT_IDS = new AtomicLong();
+    // maximum number of idle buffers kept per size class in the SSL
+    // network buffer pool.
+    static final int SSL_NET_BUFFERS = Utils.getIntegerNetProperty(
+            "jdk.httpclient.sslNetBufferPoolSize", 64);
 
     // Define the default factory as a static inner class
     // that embeds all the necessary logic to avoid
@@ -180,6 +185,11 @@ final class HttpClientImpl extends HttpClient implements Trackable {
     // SSLFlowDelegate reader.
     private final SSLDirectBufferSupplier sslBufferSupplier
             = new SSLDirectBufferSupplier(this);
+    // The pool of heap buffers that SSL connections wrap outgoing data
+    // into. These are handed to the SocketTube for writing, possibly
+    // on another thread, and are returned to the pool once written.
+    private final ByteBufferPool sslNetBufferPool
+            = new ByteBufferPool("SSLNetBuffers", false, SSL_NET_BUFFERS);
 
     // This reference is used to keep track of the facade HttpClient
     // that was returned to the application code.
@@ -435,18 +445,24 @@ final class HttpClientImpl extends HttpClient implements Trackable {
         final AtomicLong http2Count;
         final AtomicLong websocketCount;
         final AtomicLong operationsCount;
+        final ConnectionPool pool;
+        final Http2ClientImpl client2;
         final Reference<?> reference;
         final String name;
         HttpClientTracker(AtomicLong http,
                           AtomicLong http2,
                           AtomicLong ws,
                           AtomicLong ops,
+                          ConnectionPool pool,
+                          Http2ClientImpl client2,
                           Reference<?> ref,
                           String name) {
             this.httpCount = http;
             this.http2Count = http2;
             this.websocketCount = ws;
             this.operationsCount = ops;
+            this.pool = pool;
+            this.client2 = client2;
             this.reference = ref;
             this.name = name;
         }
@@ -465,6 +481,16 @@ final class HttpClientImpl extends HttpClient implements Trackable {
             return websocketCount.get();
         }
         @Override
+        public long getHttp2Connections() { return client2.connectionCount(); }
+        @Override
+        public long getIdleHttpConnections() { return pool.idleConnections(); }
+        @Override
+        public long getPooledConnectionHits() { return pool.hits(); }
+        @Override
+        public long getPooledConnectionMisses() { return pool.misses(); }
+        @Override
+        public long getPooledConnectionEvictions() { return pool.evictions(); }
+        @Override
         public boolean isFacadeReferenced() {
             return reference.get() != null;
         }
@@ -479,6 +505,8 @@ final class HttpClientImpl extends HttpClient implements Trackable {
                 pendingHttp2StreamCount,
                 pendingWebSocketCount,
                 pendingOperationCount,
+                connections,
+                client2,
                 facadeRef,
                 dbgTag);
     }
@@ -1288,6 +1316,11 @@ final class HttpClientImpl extends HttpClient implements Trackable {
         return sslBufferSupplier;
     }
 
+    // Returns the pool of buffers used for encrypting outgoing data.
+    ByteBufferPool getSSLNetBufferPool() {
+        return sslNetBufferPool;
+    }
+
     // An implementation of BufferSupplier that manages a pool of
     // maximum 3 direct byte buffers (SocketTube.MAX_BUFFERS) that
     // are used for reading encrypted bytes off the channel before
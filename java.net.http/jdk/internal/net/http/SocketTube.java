@@ -66,6 +66,8 @@ final class SocketTube implements FlowTube {
     private final InternalReadPublisher readPublisher;
     private final InternalWriteSubscriber writeSubscriber;
     private final long id = IDS.incrementAndGet();
+    // Called with each buffer once it has been completely written, if set.
+    private volatile Consumer<ByteBuffer> writtenBuffersRecycler;
 
     public SocketTube(HttpClientImpl client, SocketChannel channel,
                       Supplier<ByteBuffer> buffersFactory) {
@@ -77,6 +79,19 @@ final class SocketTube implements FlowTube {
         this.writeSubscriber = new InternalWriteSubscriber();
     }
 
+    /**
+     * Sets a consumer to which each written buffer is handed once its
+     * content has been written to the channel. This should only be set
+     * when all the buffers written to this tube are owned by the tube's
+     * publisher, and not retained elsewhere, as is the case with the
+     * encrypted buffers produced by an SSLFlowDelegate.
+     *
+     * @param recycler the consumer of written buffers, or null
+     */
+    public void setWrittenBuffersRecycler(Consumer<ByteBuffer> recycler) {
+        this.writtenBuffersRecycler = recycler;
+    }
+
     /**
      * Returns {@code true} if this flow is finished.
      * This happens when this flow internal read subscription is completed,
@@ -345,6 +360,10 @@ final class SocketTube implements FlowTube {
                 assert written <= remaining;
                 if (remaining - written == 0) {
                     current = null;
+                    Consumer<ByteBuffer> recycler = writtenBuffersRecycler;
+                    if (recycler != null) {
+                        bufs.forEach(recycler);
+                    }
                     if (writeDemand.tryDecrement()) {
                         Runnable requestMore = this::requestMore;
                         if (inSelectorThread) {
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package jdk.internal.net.http.common;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread safe pool of byte buffers of the same kind (heap or
+ * direct), organized in size classes. Each size class holds buffers of
+ * one exact capacity, so that a buffer obtained from the pool has the
+ * capacity that was asked for.
+ *
+ * <p> Unlike {@link BufferSupplier}, which is confined to the selector
+ * manager thread, buffers can be acquired and released from any thread.
+ * This makes the pool suitable for buffers that are produced on one
+ * thread and consumed on another, such as encrypted buffers produced
+ * by the {@link SSLFlowDelegate} writer and written by the SocketTube.
+ *
+ * <p> A buffer must only be released once its last user has finished
+ * with it. Buffers which are never released are simply garbage collected.
+ * Buffers which do not belong to one of the pool's size classes are
+ * ignored on release. When debug logging is on, the pool additionally
+ * tracks the buffers it has handed out and reports buffers which are
+ * released twice, or which were not obtained from the pool.
+ */
+public final class ByteBufferPool {
+
+    // maximum number of size classes, to keep the pool bounded when
+    // callers ask for many different capacities.
+    private static final int MAX_SIZE_CLASSES = 8;
+
+    private final String name;
+    private final boolean direct;
+    private final int maxPerClass;
+    private final ConcurrentHashMap<Integer,SizeClass> classes =
+            new ConcurrentHashMap<>();
+    private final Logger debug;
+
+    // Statistics
+    private final AtomicLong allocated = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong recycled = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    // buffers handed out but not yet released, only tracked in debug mode
+    private final Set<ByteBuffer> outstanding;
+
+    private static final class SizeClass {
+        final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+        final AtomicInteger count = new AtomicInteger();
+    }
+
+    /**
+     * Creates a new pool.
+     * @param name        a name used for debugging
+     * @param direct      whether the pool holds direct buffers
+     * @param maxPerClass the maximum number of free buffers retained
+     *                    in each size class
+     */
+    public ByteBufferPool(String name, boolean direct, int maxPerClass) {
+        if (maxPerClass <= 0) {
+            throw new IllegalArgumentException("maxPerClass: " + maxPerClass);
+        }
+        this.name = name;
+        this.direct = direct;
+        this.maxPerClass = maxPerClass;
+        this.debug = Utils.getDebugLogger(this::dbgString, Utils.DEBUG);
+        this.outstanding = debug.on()
+                ? Collections.synchronizedSet(
+                        Collections.newSetFromMap(new IdentityHashMap<>()))
+                : null;
+    }
+
+    /**
+     * Returns a buffer whose capacity is exactly {@code capacity}, with
+     * its position set to zero and its limit set to its capacity. The
+     * content of the buffer is undefined.
+     * @param capacity the capacity of the buffer
+     * @return a buffer from the pool, or a newly allocated one
+     */
+    public ByteBuffer acquire(int capacity) {
+        SizeClass sc = sizeClass(capacity);
+        ByteBuffer buf = sc == null ? null : sc.free.poll();
+        if (buf != null) {
+            sc.count.decrementAndGet();
+            reused.incrementAndGet();
+        } else {
+            allocated.incrementAndGet();
+            buf = direct ? ByteBuffer.allocateDirect(capacity)
+                         : ByteBuffer.allocate(capacity);
+        }
+        if (outstanding != null) {
+            outstanding.add(buf);
+        }
+        return buf;
+    }
+
+    /**
+     * Returns the given buffer to the pool. The caller must not touch
+     * the buffer, or any buffer sharing its content, after this method
+     * has been called.
+     * @param buf a buffer previously obtained from {@link #acquire(int)}
+     */
+    public void release(ByteBuffer buf) {
+        if (buf.isDirect() != direct || buf.isReadOnly()) {
+            return;
+        }
+        SizeClass sc = classes.get(buf.capacity());
+        if (sc == null) {
+            return;
+        }
+        if (outstanding != null && !outstanding.remove(buf)) {
+            debug.log("release of a buffer not obtained from %s, "
+                      + "or released twice: %s", name, buf);
+            return;
+        }
+        if (sc.count.incrementAndGet() > maxPerClass) {
+            sc.count.decrementAndGet();
+            discarded.incrementAndGet();
+            return;
+        }
+        buf.clear();
+        sc.free.offer(buf);
+        recycled.incrementAndGet();
+    }
+
+    private SizeClass sizeClass(int capacity) {
+        SizeClass sc = classes.get(capacity);
+        if (sc == null && classes.size() < MAX_SIZE_CLASSES) {
+            sc = classes.computeIfAbsent(capacity, c -> new SizeClass());
+        }
+        return sc;
+    }
+
+    /** The number of buffers allocated because the pool was empty. */
+    public long allocated() { return allocated.get(); }
+
+    /** The number of buffers obtained from the pool. */
+    public long reused() { return reused.get(); }
+
+    /** The number of buffers returned to the pool. */
+    public long recycled() { return recycled.get(); }
+
+    /** The number of released buffers dropped because the pool was full. */
+    public long discarded() { return discarded.get(); }
+
+    /** The number of free buffers currently retained by the pool. */
+    public int retained() {
+        int n = 0;
+        for (SizeClass sc : classes.values()) {
+            n += Math.max(sc.count.get(), 0);
+        }
+        return n;
+    }
+
+    /** The total capacity, in bytes, of the free buffers retained. */
+    public long retainedBytes() {
+        long n = 0;
+        for (Map.Entry<Integer,SizeClass> e : classes.entrySet()) {
+            n += (long)e.getKey() * Math.max(e.getValue().count.get(), 0);
+        }
+        return n;
+    }
+
+    /**
+     * The number of buffers handed out and not yet released, or -1 if
+     * the pool does not track them (debug logging is off).
+     */
+    public int outstanding() {
+        return outstanding == null ? -1 : outstanding.size();
+    }
+
+    String dbgString() {
+        return "ByteBufferPool(" + name + ")";
+    }
+
+    @Override
+    public String toString() {
+        return dbgString() + "[allocated=" + allocated() + ", reused=" + reused()
+                + ", retained=" + retained() + ", outstanding=" + outstanding() + "]";
+    }
+}
@@ -51,8 +51,21 @@ public final class OperationTrackers {
         long getOutstandingHttpOperations();
         // The number of active HTTP/2 streams
         long getOutstandingHttp2Streams();
+        // The number of cached HTTP/2 connections, over which
+        // the active HTTP/2 streams are spread
+        long getHttp2Connections();
         // The number of active WebSockets
         long getOutstandingWebSocketOperations();
+        // The number of idle HTTP/1.1 connections in the pool
+        long getIdleHttpConnections();
+        // The number of HTTP/1.1 connections obtained from the pool
+        long getPooledConnectionHits();
+        // The number of times no idle HTTP/1.1 connection was pooled
+        // for the requested destination
+        long getPooledConnectionMisses();
+        // The number of idle HTTP/1.1 connections closed to
+        // keep the pool within its configured limits
+        long getPooledConnectionEvictions();
         // Whether the facade returned to the
         // user is still referenced
         boolean isFacadeReferenced();
@@ -110,6 +110,9 @@ public class SSLFlowDelegate {
     final CompletableFuture<Void> readerCF;
     final CompletableFuture<Void> writerCF;
     final Consumer<ByteBuffer> recycler;
+    // pool of buffers to wrap encrypted data into, may be null. Buffers
+    // sent downstream are released by the SocketTube once written.
+    final ByteBufferPool netBuffers;
     static AtomicInteger scount = new AtomicInteger(1);
     final int id;
 
@@ -136,10 +139,28 @@ public class SSLFlowDelegate {
             Consumer<ByteBuffer> recycler,
             Subscriber<? super List<ByteBuffer>> downReader,
             Subscriber<? super List<ByteBuffer>> downWriter)
+    {
+        this(engine, exec, recycler, null, downReader, downWriter);
+    }
+
+    /**
+     * Creates an SSLFlowDelegate fed from two Flow.Subscribers, which
+     * obtains the buffers it wraps encrypted data into from the given
+     * pool. Each Flow.Subscriber requires an associated
+     * {@link CompletableFuture} for errors that need to be signaled from
+     * downstream to upstream.
+     */
+    public SSLFlowDelegate(SSLEngine engine,
+            Executor exec,
+            Consumer<ByteBuffer> recycler,
+            ByteBufferPool netBuffers,
+            Subscriber<? super List<ByteBuffer>> downReader,
+            Subscriber<? super List<ByteBuffer>> downWriter)
         {
         this.id = scount.getAndIncrement();
         this.tubeName = String.valueOf(downWriter);
         this.recycler = recycler;
+        this.netBuffers = netBuffers;
         this.reader = new Reader();
         this.writer = new Writer();
         this.engine = engine;
@@ -1183,7 +1204,8 @@ public class SSLFlowDelegate {
         if (netSize <= 0) {
             packetBufferSize = netSize = engine.getSession().getPacketBufferSize();
         }
-        return ByteBuffer.allocate(netSize);
+        ByteBufferPool pool = netBuffers;
+        return pool == null ? ByteBuffer.allocate(netSize) : pool.acquire(netSize);
     }
 
     // The maximum application buffer size negotiated during
@@ -84,6 +84,14 @@ public class SSLTube implements FlowTube {
                    Executor executor,
                    Consumer<ByteBuffer> recycler,
                    FlowTube tube) {
+        this(engine, executor, recycler, null, tube);
+    }
+
+    public SSLTube(SSLEngine engine,
+                   Executor executor,
+                   Consumer<ByteBuffer> recycler,
+                   ByteBufferPool netBuffers,
+                   FlowTube tube) {
         Objects.requireNonNull(engine);
         Objects.requireNonNull(executor);
         this.tube = Objects.requireNonNull(tube);
@@ -93,6 +101,7 @@ public class SSLTube implements FlowTube {
         sslDelegate = new SSLTubeFlowDelegate(engine,
                                               executor,
                                               recycler,
+                                              netBuffers,
                                               readSubscriber,
                                               tube);
     }
@@ -100,9 +109,10 @@ public class SSLTube implements FlowTube {
     final class SSLTubeFlowDelegate extends SSLFlowDelegate {
         SSLTubeFlowDelegate(SSLEngine engine, Executor executor,
                             Consumer<ByteBuffer> recycler,
+                            ByteBufferPool netBuffers,
                             SSLSubscriberWrapper readSubscriber,
                             FlowTube tube) {
-            super(engine, executor, recycler, readSubscriber, tube);
+            super(engine, executor, recycler, netBuffers, readSubscriber, tube);
         }
         protected SchedulingAction enterReadScheduling() {
             readSubscriber.processPendingSubscriber();
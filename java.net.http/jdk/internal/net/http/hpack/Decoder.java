@@ -397,14 +397,19 @@ public final class Decoder {
                             intValue, value, valueHuffmanEncoded));
                 }
                 SimpleHeaderTable.HeaderField f = getHeaderFieldAt(intValue);
-                action.onLiteral(intValue, f.name, value, valueHuffmanEncoded);
+                action.onLiteral(intValue, f.name,
+                                 SimpleHeaderTable.staticValue(f.name, value),
+                                 valueHuffmanEncoded);
             } else {
                 if (logger.isLoggable(NORMAL)) {
                     logger.log(NORMAL, () -> format(
                             "literal without indexing ('%s', huffman=%b, '%s', huffman=%b)",
                             name, nameHuffmanEncoded, value, valueHuffmanEncoded));
                 }
-                action.onLiteral(name, nameHuffmanEncoded, value, valueHuffmanEncoded);
+                CharSequence n = SimpleHeaderTable.staticName(name);
+                action.onLiteral(n, nameHuffmanEncoded,
+                                 SimpleHeaderTable.staticValue(n, value),
+                                 valueHuffmanEncoded);
             }
         } finally {
             cleanUpAfterReading();
@@ -447,8 +452,10 @@ public final class Decoder {
             // ------------------------------------------------------------------------
             //    Let's create those string beforehand (and only once!) to benefit everyone
             //
+            // Names and values found in the static table are not copied.
+            //
             String n;
-            String v = value.toString();
+            String v;
             if (firstValueIndex) {
                 if (logger.isLoggable(NORMAL)) {
                     logger.log(NORMAL, () -> format(
@@ -457,9 +464,11 @@ public final class Decoder {
                 }
                 SimpleHeaderTable.HeaderField f = getHeaderFieldAt(intValue);
                 n = f.name;
+                v = SimpleHeaderTable.staticValue(n, value).toString();
                 action.onLiteralWithIndexing(intValue, n, v, valueHuffmanEncoded);
             } else {
-                n = name.toString();
+                n = SimpleHeaderTable.staticName(name).toString();
+                v = SimpleHeaderTable.staticValue(n, value).toString();
                 if (logger.isLoggable(NORMAL)) {
                     logger.log(NORMAL, () -> format(
                             "literal with incremental indexing ('%s', huffman=%b, '%s', huffman=%b)",
@@ -509,14 +518,19 @@ public final class Decoder {
                             intValue, value, valueHuffmanEncoded));
                 }
                 SimpleHeaderTable.HeaderField f = getHeaderFieldAt(intValue);
-                action.onLiteralNeverIndexed(intValue, f.name, value, valueHuffmanEncoded);
+                action.onLiteralNeverIndexed(intValue, f.name,
+                                             SimpleHeaderTable.staticValue(f.name, value),
+                                             valueHuffmanEncoded);
             } else {
                 if (logger.isLoggable(NORMAL)) {
                     logger.log(NORMAL, () -> format(
                             "literal never indexed ('%s', huffman=%b, '%s', huffman=%b)",
                             name, nameHuffmanEncoded, value, valueHuffmanEncoded));
                 }
-                action.onLiteralNeverIndexed(name, nameHuffmanEncoded, value, valueHuffmanEncoded);
+                CharSequence n = SimpleHeaderTable.staticName(name);
+                action.onLiteralNeverIndexed(n, nameHuffmanEncoded,
+                                             SimpleHeaderTable.staticValue(n, value),
+                                             valueHuffmanEncoded);
             }
         } finally {
             cleanUpAfterReading();
@@ -53,6 +53,11 @@ import java.nio.ByteBuffer;
  *
  * <p> That said, if a passed {@code CharSequence} needs to outlast the method
  * call, it needs to be copied.
+ * <p> A name or a value that is equal to a name or a value of the same header
+ * in the <a href="https://tools.ietf.org/html/rfc7541#appendix-A">static
+ * table</a> is passed as the {@code String} held by the table, whether or not
+ * it was represented literally. Calling {@code toString()} on it creates no
+ * objects, which makes well-known headers free to retain.
  *
  * @since 9
  */
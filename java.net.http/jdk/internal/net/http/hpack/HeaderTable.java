@@ -26,11 +26,6 @@ package jdk.internal.net.http.hpack;
 
 import jdk.internal.net.http.hpack.HPACK.Logger;
 
-import java.util.Deque;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Map;
-
 /*
  * Adds reverse lookup to SimpleHeaderTable. Separated from SimpleHeaderTable
  * for performance reasons. Decoder does not need this functionality. On the
@@ -103,33 +98,33 @@ final class HeaderTable extends SimpleHeaderTable {
     // Long.MAX_VALUE :-)
     //
 
-    /* An immutable map of static header fields' indexes */
-    private static final Map<String, Map<String, Integer>> staticIndexes;
+    //
+    // The map itself is a hash table of entries chained by the hash of their
+    // names. The table is keyed by CharSequence contents rather than by
+    // Strings, so that looking up a header does not require creating Strings
+    // for its name and value. Within a chain, newer entries come first.
+    //
+    private static final class Entry {
+
+        final HeaderField field;
+        final int nameHash;
+        final long counter;
+        Entry next;
 
-    static {
-        Map<String, Map<String, Integer>> map
-                = new HashMap<>(STATIC_TABLE_LENGTH);
-        for (int i = 1; i <= STATIC_TABLE_LENGTH; i++) {
-            HeaderField f = staticTable.get(i);
-            Map<String, Integer> values
-                    = map.computeIfAbsent(f.name, k -> new HashMap<>());
-            values.put(f.value, i);
-        }
-        // create an immutable deep copy
-        Map<String, Map<String, Integer>> copy = new HashMap<>(map.size());
-        for (Map.Entry<String, Map<String, Integer>> e : map.entrySet()) {
-            copy.put(e.getKey(), Map.copyOf(e.getValue()));
+        Entry(HeaderField field, int nameHash, long counter, Entry next) {
+            this.field = field;
+            this.nameHash = nameHash;
+            this.counter = counter;
+            this.next = next;
         }
-        staticIndexes = Map.copyOf(copy);
     }
 
-    //                name  ->    (value ->    [index])
-    private final Map<String, Map<String, Deque<Long>>> map;
+    private Entry[] buckets = new Entry[16];
+    private int entries;
     private long counter = 1;
 
     public HeaderTable(int maxSize, Logger logger) {
         super(maxSize, logger);
-        map = new HashMap<>();
     }
 
     //
@@ -149,91 +144,99 @@ final class HeaderTable extends SimpleHeaderTable {
     // (the idea is the same as in java.util.Arrays.binarySearch(int[], int)).
     //
     public int indexOf(CharSequence name, CharSequence value) {
-        // Invoking toString() will possibly allocate Strings for the sake of
-        // the search, which doesn't feel right.
-        String n = name.toString();
-        String v = value.toString();
-
+        int hash = hash(name);
         // 1. Try exact match in the static region
-        Map<String, Integer> values = staticIndexes.get(n);
-        if (values != null) {
-            Integer idx = values.get(v);
-            if (idx != null) {
-                return idx;
-            }
+        int sidx = staticIndexOf(name, hash, value);
+        if (sidx > 0) {
+            return sidx;
         }
         // 2. Try exact match in the dynamic region
-        int didx = search(n, v);
+        int didx = search(name, hash, value);
         if (didx > 0) {
             return STATIC_TABLE_LENGTH + didx;
+        } else if (sidx < 0) {
+            // 3. Return name match from the static region
+            return sidx;
         } else if (didx < 0) {
-            if (values != null) {
-                // 3. Return name match from the static region
-                return -values.values().iterator().next(); // Iterator allocation
-            } else {
-                // 4. Return name match from the dynamic region
-                return -STATIC_TABLE_LENGTH + didx;
-            }
+            // 4. Return name match from the dynamic region
+            return -STATIC_TABLE_LENGTH + didx;
         } else {
-            if (values != null) {
-                // 3. Return name match from the static region
-                return -values.values().iterator().next(); // Iterator allocation
-            } else {
-                return 0;
-            }
+            return 0;
         }
     }
 
     @Override
     protected void add(HeaderField f) {
         super.add(f);
-        Map<String, Deque<Long>> values = map.computeIfAbsent(f.name, k -> new HashMap<>());
-        Deque<Long> indexes = values.computeIfAbsent(f.value, k -> new LinkedList<>());
-        long counterSnapshot = counter++;
-        indexes.add(counterSnapshot);
-        assert indexesUniqueAndOrdered(indexes);
+        if (entries == buckets.length) {
+            rehash(buckets.length << 1);
+        }
+        int hash = f.name.hashCode();
+        int i = hash & (buckets.length - 1);
+        buckets[i] = new Entry(f, hash, counter++, buckets[i]);
+        entries++;
     }
 
-    private boolean indexesUniqueAndOrdered(Deque<Long> indexes) {
-        long maxIndexSoFar = -1;
-        for (long l : indexes) {
-            if (l <= maxIndexSoFar) {
-                return false;
-            } else {
-                maxIndexSoFar = l;
+    private void rehash(int newLength) {
+        Entry[] newBuckets = new Entry[newLength];
+        // Relink chains back to front, so that newer entries stay first
+        for (Entry head : buckets) {
+            Entry[] chain = new Entry[chainLength(head)];
+            int n = 0;
+            for (Entry e = head; e != null; e = e.next) {
+                chain[n++] = e;
+            }
+            while (--n >= 0) {
+                Entry e = chain[n];
+                int i = e.nameHash & (newLength - 1);
+                e.next = newBuckets[i];
+                newBuckets[i] = e;
             }
         }
-        return true;
+        buckets = newBuckets;
     }
 
-    int search(String name, String value) {
-        Map<String, Deque<Long>> values = map.get(name);
-        if (values == null) {
-            return 0;
+    private static int chainLength(Entry e) {
+        int n = 0;
+        for (; e != null; e = e.next) {
+            n++;
         }
-        Deque<Long> indexes = values.get(value);
-        if (indexes != null) {
-            return (int) (counter - indexes.peekLast());
-        } else {
-            assert !values.isEmpty();
-            Long any = values.values().iterator().next().peekLast(); // Iterator allocation
-            return -(int) (counter - any);
+        return n;
+    }
+
+    int search(CharSequence name, int hash, CharSequence value) {
+        Entry nameMatch = null;
+        for (Entry e = buckets[hash & (buckets.length - 1)]; e != null; e = e.next) {
+            if (e.nameHash != hash || !contentEquals(e.field.name, name)) {
+                continue;
+            }
+            if (contentEquals(e.field.value, value)) {
+                return (int) (counter - e.counter);
+            }
+            if (nameMatch == null) {
+                nameMatch = e;
+            }
         }
+        return nameMatch == null ? 0 : -(int) (counter - nameMatch.counter);
     }
 
     @Override
     protected HeaderField remove() {
         HeaderField f = super.remove();
-        Map<String, Deque<Long>> values = map.get(f.name);
-        Deque<Long> indexes = values.get(f.value);
-        Long index = indexes.pollFirst();
-        if (indexes.isEmpty()) {
-            values.remove(f.value);
-        }
-        assert index != null;
-        if (values.isEmpty()) {
-            map.remove(f.name);
+        // Each field is a distinct instance, so its entry is found by identity
+        int i = f.name.hashCode() & (buckets.length - 1);
+        Entry prev = null;
+        for (Entry e = buckets[i]; e != null; prev = e, e = e.next) {
+            if (e.field == f) {
+                if (prev == null) {
+                    buckets[i] = e.next;
+                } else {
+                    prev.next = e.next;
+                }
+                entries--;
+                return f;
+            }
         }
-        return f;
+        throw new InternalError("entry not indexed: " + f);
     }
 }
@@ -26,6 +26,7 @@ package jdk.internal.net.http.hpack;
 
 import jdk.internal.net.http.hpack.HPACK.Logger;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -110,6 +111,125 @@ class SimpleHeaderTable {
     protected static final int STATIC_TABLE_LENGTH = staticTable.size() - 1;
     protected static final int ENTRY_SIZE = 32;
 
+    //
+    // A perfect hash of the static table's names. The static table never
+    // changes, so a multiplier that maps each of its distinct names into a
+    // slot of its own is searched for once, when this class is initialized.
+    // This allows a name to be looked up without allocating a String and
+    // with a single comparison. Entries with the same name are adjacent in
+    // the static table, so for each name only the range of indexes it
+    // occupies needs to be recorded.
+    //
+    private static final int STATIC_HASH_BITS = 8;
+    private static final int STATIC_HASH_MULTIPLIER;
+    private static final String[] staticNames = new String[1 << STATIC_HASH_BITS];
+    private static final int[] staticFirstIndexes = new int[1 << STATIC_HASH_BITS];
+    private static final int[] staticLastIndexes = new int[1 << STATIC_HASH_BITS];
+
+    static {
+        int multiplier = 0x9E3779B1;
+        search:
+        while (true) {
+            Arrays.fill(staticNames, null);
+            for (int i = 1; i <= STATIC_TABLE_LENGTH; i++) {
+                String name = staticTable.get(i).name;
+                int slot = staticSlot(name.hashCode(), multiplier);
+                if (staticNames[slot] == null) {
+                    staticNames[slot] = name;
+                    staticFirstIndexes[slot] = i;
+                } else if (!staticNames[slot].equals(name)) {
+                    multiplier += 2; // collision, try the next odd multiplier
+                    continue search;
+                }
+                staticLastIndexes[slot] = i;
+            }
+            break;
+        }
+        STATIC_HASH_MULTIPLIER = multiplier;
+    }
+
+    private static int staticSlot(int hash, int multiplier) {
+        return (hash * multiplier) >>> (32 - STATIC_HASH_BITS);
+    }
+
+    /*
+     * Returns the hash code a String with the same contents as the given
+     * CharSequence would have, without creating such a String.
+     */
+    static int hash(CharSequence s) {
+        if (s instanceof String) {
+            return s.hashCode(); // cached
+        }
+        int h = 0;
+        for (int i = 0, len = s.length(); i < len; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h;
+    }
+
+    static boolean contentEquals(String s, CharSequence cs) {
+        return s == cs || s.contentEquals(cs);
+    }
+
+    /*
+     * Returns the slot of the given name in the static names' hash, or -1 if
+     * there is no entry with that name in the static table.
+     */
+    private static int staticSlotOf(CharSequence name, int hash) {
+        int slot = staticSlot(hash, STATIC_HASH_MULTIPLIER);
+        String n = staticNames[slot];
+        return n != null && contentEquals(n, name) ? slot : -1;
+    }
+
+    /*
+     * Returns the index of the first entry in the static table with the given
+     * name, or 0 if there's no such entry.
+     */
+    static int staticNameIndexOf(CharSequence name, int hash) {
+        int slot = staticSlotOf(name, hash);
+        return slot < 0 ? 0 : staticFirstIndexes[slot];
+    }
+
+    /*
+     * Returns the index of the entry in the static table with the given name
+     * and value, or, if there's no such entry, the negated index of the first
+     * entry with the given name, or 0 if there's no entry with that name.
+     * The same convention as in HeaderTable.indexOf is used.
+     */
+    static int staticIndexOf(CharSequence name, int hash, CharSequence value) {
+        int slot = staticSlotOf(name, hash);
+        if (slot < 0) {
+            return 0;
+        }
+        int first = staticFirstIndexes[slot];
+        for (int i = first, last = staticLastIndexes[slot]; i <= last; i++) {
+            if (contentEquals(staticTable.get(i).value, value)) {
+                return i;
+            }
+        }
+        return -first;
+    }
+
+    /*
+     * Returns the String held by the static table which is equal to the
+     * given name, or the name itself if there's none. This allows a decoder to
+     * hand out well-known header names without creating new Strings.
+     */
+    static CharSequence staticName(CharSequence name) {
+        int slot = staticSlotOf(name, hash(name));
+        return slot < 0 ? name : staticNames[slot];
+    }
+
+    /*
+     * Returns the String held by the static table which is equal to the given
+     * value of a header with the given name, or the value itself if there's
+     * none.
+     */
+    static CharSequence staticValue(CharSequence name, CharSequence value) {
+        int idx = staticIndexOf(name, hash(name), value);
+        return idx > 0 ? staticTable.get(idx).value : value;
+    }
+
     private final Logger logger;
 
     private int maxSize;
@@ -347,7 +467,7 @@ class SimpleHeaderTable {
 
             elements = newElements;
             tail = 0;
-            head = size;
+            head = size & (capacity - 1); // the buffer may be full
             this.capacity = capacity;
         }
     }
@@ -29,6 +29,7 @@ import java.io.*;
 import java.nio.*;
 import java.nio.channels.*;
 import java.net.*;
+import java.util.concurrent.Flow;
 import javax.net.ssl.*;
 import java.util.*;
 
@@ -134,6 +135,30 @@ public abstract class HttpExchange {
      */
     public abstract InputStream getRequestBody () ;
 
+    /**
+     * Returns a {@link Flow.Publisher} of the request body. The publisher
+     * reads from the stream returned by {@link #getRequestBody()}, so the
+     * two must not both be used to consume the body. Data is read on the
+     * thread which calls {@link Flow.Subscription#request(long)}, only as
+     * much as is requested, and that thread may block waiting for data
+     * from the client. The stream is closed when the publisher completes
+     * or the subscription is cancelled.
+     * <p>
+     * The publisher reuses one buffer for all the data it reads, so a
+     * {@code ByteBuffer} passed to {@link Flow.Subscriber#onNext onNext}
+     * is valid only until that method returns. A subscriber which keeps
+     * the data after returning must copy it.
+     * <p>
+     * Each call returns a new publisher over the same stream. A publisher
+     * supports only one subscriber; further subscribers are signalled
+     * with an {@link IllegalStateException}.
+     * @return a publisher of the request body
+     * @since 12
+     */
+    public Flow.Publisher<ByteBuffer> getRequestBodyPublisher () {
+        return new RequestBodyPublisher (getRequestBody());
+    }
+
     /**
      * returns a stream to which the response body must be
      * written. {@link #sendResponseHeaders(int,long)}) must be called prior to calling
@@ -156,6 +181,102 @@ public abstract class HttpExchange {
      */
     public abstract OutputStream getResponseBody () ;
 
+    /**
+     * Writes the remaining bytes of the given buffers to the response body.
+     * This method is equivalent to writing the same bytes to the stream
+     * returned by {@link #getResponseBody()}, and the same rules about the
+     * response body length apply. {@link #sendResponseHeaders(int,long)}
+     * must be called first. The stream must still be closed (or
+     * {@link #close()} called) to terminate the exchange.
+     * <p>
+     * The default implementation copies the bytes to the stream returned by
+     * {@link #getResponseBody()}. Implementations may instead write the
+     * buffers directly to the underlying connection, which avoids copying
+     * large bodies through intermediate byte arrays.
+     * <p>
+     * On return the position of each buffer is advanced by the number of
+     * bytes written.
+     * @param srcs the buffers containing the bytes to write
+     * @throws IOException if an I/O error occurs
+     * @throws NullPointerException if {@code srcs} or any of its elements
+     *         is {@code null}
+     * @since 12
+     */
+    public void writeResponseBody (ByteBuffer... srcs) throws IOException {
+        OutputStream os = getResponseBody();
+        byte[] buf = null;
+        for (ByteBuffer src : srcs) {
+            if (src.hasArray()) {
+                int n = src.remaining();
+                os.write (src.array(), src.arrayOffset() + src.position(), n);
+                src.position (src.position() + n);
+            } else {
+                if (buf == null) {
+                    buf = new byte [TRANSFER_BUFSIZE];
+                }
+                while (src.hasRemaining()) {
+                    int n = Math.min (buf.length, src.remaining());
+                    src.get (buf, 0, n);
+                    os.write (buf, 0, n);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes up to {@code count} bytes of the given file, starting at
+     * {@code position}, to the response body. Fewer bytes are written if
+     * the end of the file is reached first. This method is equivalent to
+     * writing the same bytes to the stream returned by
+     * {@link #getResponseBody()}, and the same rules about the response
+     * body length apply. {@link #sendResponseHeaders(int,long)} must be
+     * called first. The stream must still be closed (or {@link #close()}
+     * called) to terminate the exchange.
+     * <p>
+     * The default implementation reads the file into a buffer and copies it
+     * to the stream returned by {@link #getResponseBody()}. Implementations
+     * may instead use {@link FileChannel#transferTo FileChannel.transferTo}
+     * to send the file directly to the underlying connection.
+     * <p>
+     * The position of {@code src} is not modified.
+     * @param src the file to send
+     * @param position the position within the file at which to start
+     * @param count the maximum number of bytes to write
+     * @return the number of bytes written
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if {@code position} or {@code count}
+     *         is negative
+     * @throws NullPointerException if {@code src} is {@code null}
+     * @since 12
+     */
+    public long transferResponseBody (FileChannel src, long position, long count)
+        throws IOException
+    {
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException ("negative position or count");
+        }
+        OutputStream os = getResponseBody();
+        ByteBuffer buf = ByteBuffer.allocate (
+            (int)Math.min (TRANSFER_BUFSIZE, Math.max (count, 1))
+        );
+        long written = 0;
+        while (written < count) {
+            buf.clear();
+            if (count - written < buf.capacity()) {
+                buf.limit ((int)(count - written));
+            }
+            int n = src.read (buf, position + written);
+            if (n == -1) {
+                break;
+            }
+            os.write (buf.array(), 0, n);
+            written += n;
+        }
+        return written;
+    }
+
+    private static final int TRANSFER_BUFSIZE = 8 * 1024;
+
 
     /**
      * Starts sending the response back to the client using the current set of response headers
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package com.sun.net.httpserver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Flow.Publisher} view of a request body stream. Data is read
+ * from the stream on the thread which calls {@link Flow.Subscription#request},
+ * and only as much as has been requested. A single subscriber is supported.
+ * The data is read into one buffer per subscription, which is passed to
+ * each call of onNext and reused once it returns.
+ */
+final class RequestBodyPublisher implements Flow.Publisher<ByteBuffer> {
+
+    private static final int BUFSIZE = 8 * 1024;
+
+    private final InputStream in;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    RequestBodyPublisher (InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public void subscribe (Flow.Subscriber<? super ByteBuffer> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException ("null subscriber");
+        }
+        BodySubscription s = new BodySubscription (subscriber);
+        if (!subscribed.compareAndSet (false, true)) {
+            s.done = true;
+            subscriber.onSubscribe (s);
+            subscriber.onError (new IllegalStateException ("already subscribed"));
+            return;
+        }
+        subscriber.onSubscribe (s);
+    }
+
+    private final class BodySubscription implements Flow.Subscription {
+
+        final Flow.Subscriber<? super ByteBuffer> subscriber;
+        final AtomicLong demand = new AtomicLong();
+        /* guards against re-entrant delivery from within onNext */
+        final AtomicInteger wip = new AtomicInteger();
+        volatile boolean done;
+        volatile Throwable error;
+        /* read buffer, allocated on the first read */
+        byte[] buf;
+
+        BodySubscription (Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request (long n) {
+            if (done) {
+                return;
+            }
+            if (n <= 0) {
+                error = new IllegalArgumentException (
+                    "non-positive subscription request: " + n);
+            } else {
+                demand.getAndAccumulate (n, (a, b) -> {
+                    long r = a + b;
+                    return r < 0 ? Long.MAX_VALUE : r;
+                });
+            }
+            deliver();
+        }
+
+        @Override
+        public void cancel () {
+            done = true;
+            try {
+                in.close();
+            } catch (IOException e) {}
+        }
+
+        private void deliver () {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (!done) {
+                    Throwable t = error;
+                    if (t != null) {
+                        done = true;
+                        subscriber.onError (t);
+                        break;
+                    }
+                    if (demand.get() == 0) {
+                        break;
+                    }
+                    if (buf == null) {
+                        buf = new byte [BUFSIZE];
+                    }
+                    int n;
+                    try {
+                        n = in.read (buf);
+                        if (n == -1) {
+                            in.close();
+                        }
+                    } catch (IOException e) {
+                        done = true;
+                        subscriber.onError (e);
+                        break;
+                    }
+                    if (n == -1) {
+                        done = true;
+                        subscriber.onComplete();
+                        break;
+                    }
+                    if (n > 0) {
+                        demand.decrementAndGet();
+                        subscriber.onNext (ByteBuffer.wrap (buf, 0, n));
+                    }
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+    }
+}
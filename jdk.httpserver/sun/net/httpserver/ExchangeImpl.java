@@ -27,6 +27,8 @@ package sun.net.httpserver;
 
 import java.io.*;
 import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import javax.net.ssl.*;
 import java.util.*;
 import java.lang.System.Logger;
@@ -198,6 +200,47 @@ class ExchangeImpl {
         return uos_orig;
     }
 
+    /* returns the stream which can write the response body straight
+     * to the channel, or null if the body must be copied through the
+     * user visible stream. This is only possible for fixed length
+     * responses on plain connections, when no filter has wrapped
+     * the response body.
+     */
+    private FixedLengthOutputStream directResponseBody () {
+        if (uos_orig == null || uos != uos_orig) {
+            return null;
+        }
+        OutputStream os = uos_orig.wrapped;
+        if (os instanceof FixedLengthOutputStream) {
+            FixedLengthOutputStream fos = (FixedLengthOutputStream)os;
+            if (fos.isDirect()) {
+                return fos;
+            }
+        }
+        return null;
+    }
+
+    /* returns false if the buffers could not be written directly */
+    boolean writeResponseBody (ByteBuffer[] srcs) throws IOException {
+        FixedLengthOutputStream os = directResponseBody();
+        if (os == null) {
+            return false;
+        }
+        os.write (srcs);
+        return true;
+    }
+
+    /* returns -1 if the file could not be transferred directly */
+    long transferResponseBody (FileChannel src, long position, long count)
+        throws IOException
+    {
+        FixedLengthOutputStream os = directResponseBody();
+        if (os == null) {
+            return -1;
+        }
+        return os.transferFrom (src, position, count);
+    }
+
     public void sendResponseHeaders (int rCode, long contentLen)
     throws IOException
     {
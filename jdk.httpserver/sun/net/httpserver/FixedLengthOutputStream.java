@@ -27,6 +27,8 @@ package sun.net.httpserver;
 
 import java.io.*;
 import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import com.sun.net.httpserver.*;
 import com.sun.net.httpserver.spi.*;
 
@@ -79,6 +81,65 @@ class FixedLengthOutputStream extends FilterOutputStream
         remaining -= len;
     }
 
+    /* true if data can be written to the channel without copying */
+    boolean isDirect () {
+        return out instanceof Request.WriteStream;
+    }
+
+    /* gathering write of the buffers. Only called if isDirect() */
+    void write (ByteBuffer[] srcs) throws IOException {
+        if (closed) {
+            throw new IOException ("stream closed");
+        }
+        long len = 0;
+        for (ByteBuffer src : srcs) {
+            len += src.remaining();
+        }
+        if (len == 0) {
+            return;
+        }
+        eof = (remaining == 0);
+        if (eof) {
+            throw new StreamClosedException();
+        }
+        if (len > remaining) {
+            // stream is still open, caller can retry
+            throw new IOException ("too many bytes to write to stream");
+        }
+        ((Request.WriteStream)out).write (srcs, len);
+        remaining -= len;
+    }
+
+    /* sends part of a file using FileChannel.transferTo. Only called
+     * if isDirect(). Returns the number of bytes sent.
+     */
+    long transferFrom (FileChannel src, long position, long count)
+        throws IOException
+    {
+        if (closed) {
+            throw new IOException ("stream closed");
+        }
+        long size = src.size();
+        if (position >= size) {
+            return 0;
+        }
+        count = Math.min (count, size - position);
+        if (count == 0) {
+            return 0;
+        }
+        eof = (remaining == 0);
+        if (eof) {
+            throw new StreamClosedException();
+        }
+        if (count > remaining) {
+            // stream is still open, caller can retry
+            throw new IOException ("too many bytes to write to stream");
+        }
+        long n = ((Request.WriteStream)out).transferFrom (src, position, count);
+        remaining -= n;
+        return n;
+    }
+
     public void close () throws IOException {
         if (closed) {
             return;
@@ -54,6 +54,8 @@ class HttpConnection {
 
     SocketChannel chan;
     SelectionKey selectionKey;
+    /* the selector loop which owns this connection */
+    ServerImpl.Dispatcher dispatcher;
     String protocol;
     long time;
     volatile long creationTime; // time this connection was created
@@ -119,6 +121,9 @@ class HttpConnection {
             return;
         }
         closed = true;
+        if (dispatcher != null) {
+            dispatcher.connectionClosed();
+        }
         if (logger != null && chan != null) {
             logger.log (Level.TRACE, "Closing connection: " + chan.toString());
         }
@@ -78,6 +78,25 @@ class HttpExchangeImpl extends HttpExchange {
         return impl.getResponseBody();
     }
 
+    public void writeResponseBody (ByteBuffer... srcs) throws IOException {
+        if (!impl.writeResponseBody (srcs)) {
+            super.writeResponseBody (srcs);
+        }
+    }
+
+    public long transferResponseBody (FileChannel src, long position, long count)
+        throws IOException
+    {
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException ("negative position or count");
+        }
+        long n = impl.transferResponseBody (src, position, count);
+        if (n == -1) {
+            n = super.transferResponseBody (src, position, count);
+        }
+        return n;
+    }
+
 
     public void sendResponseHeaders (int rCode, long contentLen)
     throws IOException
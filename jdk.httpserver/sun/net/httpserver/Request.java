@@ -58,7 +58,7 @@ class Request {
 
     char[] buf = new char [BUF_LEN];
     int pos;
-    StringBuffer lineBuf;
+    StringBuilder lineBuf;
 
     public InputStream inputStream () {
         return is;
@@ -75,7 +75,7 @@ class Request {
 
     public String readLine () throws IOException {
         boolean gotCR = false, gotLF = false;
-        pos = 0; lineBuf = new StringBuffer();
+        pos = 0; lineBuf = new StringBuilder();
         while (!gotLF) {
             int c = is.read();
             if (c == -1) {
@@ -395,6 +395,37 @@ class Request {
             }
         }
 
+        /* gathering write of exactly len bytes from srcs */
+        public synchronized void write (ByteBuffer[] srcs, long len) throws IOException {
+            if (closed)
+                throw new IOException ("stream is closed");
+
+            while (len > 0) {
+                len -= channel.write (srcs);
+            }
+        }
+
+        /* writes up to count bytes of the file, returning the number
+         * written, which is less than count only if the end of the file
+         * was reached.
+         */
+        public synchronized long transferFrom (FileChannel src, long position, long count)
+            throws IOException
+        {
+            if (closed)
+                throw new IOException ("stream is closed");
+
+            long written = 0;
+            while (written < count) {
+                long n = src.transferTo (position + written, count - written, channel);
+                if (n == 0 && position + written >= src.size()) {
+                    break;
+                }
+                written += n;
+            }
+            return written;
+        }
+
         public void close () throws IOException {
             if (closed)
                 return;
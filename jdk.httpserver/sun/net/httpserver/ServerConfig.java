@@ -47,6 +47,8 @@ class ServerConfig {
     private static final long DEFAULT_TIMER_MILLIS = 1000;
     private static final int  DEFAULT_MAX_REQ_HEADERS = 200;
     private static final long DEFAULT_DRAIN_AMOUNT = 64 * 1024;
+    private static final int  DEFAULT_DISPATCHERS = 0; // single dispatcher
+    private static final String DEFAULT_DISPATCHER_POLICY = "roundrobin";
 
     private static int clockTick;
     private static long idleInterval;
@@ -60,6 +62,11 @@ class ServerConfig {
     private static long maxRspTime;
     private static long timerMillis;
     private static boolean debug;
+    // number of selector loops that connections are spread over.
+    // Zero means the acceptor thread also services all connections
+    private static int dispatchers;
+    // how accepted connections are assigned to selector loops
+    private static String dispatcherPolicy;
 
     // the value of the TCP_NODELAY socket-level option
     private static boolean noDelay;
@@ -99,6 +106,17 @@ class ServerConfig {
 
                     noDelay = Boolean.getBoolean("sun.net.httpserver.nodelay");
 
+                    dispatchers = Integer.getInteger(
+                            "sun.net.httpserver.dispatchers",
+                            DEFAULT_DISPATCHERS);
+                    if (dispatchers < 0) {
+                        dispatchers = DEFAULT_DISPATCHERS;
+                    }
+
+                    dispatcherPolicy = System.getProperty(
+                            "sun.net.httpserver.dispatcherPolicy",
+                            DEFAULT_DISPATCHER_POLICY);
+
                     return null;
                 }
             });
@@ -184,4 +202,16 @@ class ServerConfig {
     static boolean noDelay() {
         return noDelay;
     }
+
+    static int getDispatchers() {
+        return dispatchers;
+    }
+
+    /**
+     * Returns true if accepted connections are given to the selector
+     * loop with the fewest open connections, false for round-robin.
+     */
+    static boolean leastLoadedDispatcher() {
+        return "leastload".equalsIgnoreCase(dispatcherPolicy);
+    }
 }
@@ -30,6 +30,7 @@ import java.io.*;
 import java.nio.channels.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.lang.System.Logger;
 import java.lang.System.Logger.Level;
 import javax.net.ssl.*;
@@ -61,8 +62,6 @@ class ServerImpl implements TimeSource {
      */
     private Set<HttpConnection> reqConnections;
     private Set<HttpConnection> rspConnections;
-    private List<Event> events;
-    private Object lolock = new Object();
     private volatile boolean finished = false;
     private volatile boolean terminating = false;
     private boolean bound = false;
@@ -79,10 +78,26 @@ class ServerImpl implements TimeSource {
     final static long MAX_REQ_TIME=getTimeMillis(ServerConfig.getMaxReqTime());
     final static long MAX_RSP_TIME=getTimeMillis(ServerConfig.getMaxRspTime());
     final static boolean timer1Enabled = MAX_REQ_TIME != -1 || MAX_RSP_TIME != -1;
+    final static int DISPATCHERS = ServerConfig.getDispatchers();
+    final static boolean LEAST_LOADED = ServerConfig.leastLoadedDispatcher();
+    final static int MAX_PIPELINE_DEPTH = 16;
+
+    /* number of exchanges started by addEvent on the current thread, and
+     * not yet returned from it. Nonzero only if the executor runs the
+     * next exchange on the calling thread.
+     */
+    private static final ThreadLocal<int[]> pipelineDepth =
+        ThreadLocal.withInitial (() -> new int [1]);
 
     private Timer timer, timer1;
     private final Logger logger;
     private Thread dispatcherThread;
+    /* selector loops servicing connections when more than one
+     * dispatcher is configured. Empty if the acceptor does it all.
+     */
+    private Dispatcher[] workers;
+    private Thread[] workerThreads;
+    private int nextWorker;
 
     ServerImpl (
         HttpServer wrapper, String protocol, InetSocketAddress addr, int backlog
@@ -104,7 +119,11 @@ class ServerImpl implements TimeSource {
         selector = Selector.open ();
         schan.configureBlocking (false);
         listenerKey = schan.register (selector, SelectionKey.OP_ACCEPT);
-        dispatcher = new Dispatcher();
+        dispatcher = new Dispatcher (selector);
+        workers = new Dispatcher [DISPATCHERS > 1 ? DISPATCHERS : 0];
+        for (int i=0; i<workers.length; i++) {
+            workers[i] = new Dispatcher (Selector.open());
+        }
         idleConnections = Collections.synchronizedSet (new HashSet<HttpConnection>());
         allConnections = Collections.synchronizedSet (new HashSet<HttpConnection>());
         reqConnections = Collections.synchronizedSet (new HashSet<HttpConnection>());
@@ -119,7 +138,6 @@ class ServerImpl implements TimeSource {
             logger.log (Level.DEBUG, "MAX_REQ_TIME:  "+MAX_REQ_TIME);
             logger.log (Level.DEBUG, "MAX_RSP_TIME:  "+MAX_RSP_TIME);
         }
-        events = new LinkedList<Event>();
         logger.log (Level.DEBUG, "HttpServer created "+protocol+" "+ addr);
     }
 
@@ -143,7 +161,16 @@ class ServerImpl implements TimeSource {
             executor = new DefaultExecutor();
         }
         dispatcherThread = new Thread(null, dispatcher, "HTTP-Dispatcher", 0, false);
+        workerThreads = new Thread [workers.length];
+        for (int i=0; i<workers.length; i++) {
+            workerThreads[i] = new Thread (
+                null, workers[i], "HTTP-Dispatcher-" + (i+1), 0, false
+            );
+        }
         started = true;
+        for (Thread t : workerThreads) {
+            t.start();
+        }
         dispatcherThread.start();
     }
 
@@ -199,6 +226,9 @@ class ServerImpl implements TimeSource {
         }
         finished = true;
         selector.wakeup();
+        for (Dispatcher d : workers) {
+            d.selector.wakeup();
+        }
         synchronized (allConnections) {
             for (HttpConnection c : allConnections) {
                 c.close();
@@ -218,6 +248,16 @@ class ServerImpl implements TimeSource {
                 logger.log (Level.TRACE, "ServerImpl.stop: ", e);
             }
         }
+        if (workerThreads != null) {
+            for (Thread t : workerThreads) {
+                try {
+                    t.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.log (Level.TRACE, "ServerImpl.stop: ", e);
+                }
+            }
+        }
     }
 
     Dispatcher dispatcher;
@@ -274,42 +314,158 @@ class ServerImpl implements TimeSource {
     }
 
     void addEvent (Event r) {
-        synchronized (lolock) {
-            events.add (r);
-            selector.wakeup();
+        /* If the client has pipelined its next request and it is already
+         * buffered, finish this exchange and start the next one on the
+         * calling thread, saving a hand off through the dispatcher.
+         * Responses stay in order, as the next exchange only starts once
+         * this response has been sent. An executor which runs tasks on the
+         * calling thread recurses through here for each pipelined request,
+         * so beyond MAX_PIPELINE_DEPTH nested exchanges the event is left
+         * to the dispatcher, which unwinds the stack. Not done for the
+         * default executor, which runs the exchanges on the dispatcher
+         * thread itself.
+         */
+        if (r instanceof WriteFinishedEvent
+                && !(executor instanceof DefaultExecutor)
+                && isNextRequestBuffered (r.exchange)) {
+            int[] depth = pipelineDepth.get();
+            if (depth[0] < MAX_PIPELINE_DEPTH) {
+                depth[0]++;
+                try {
+                    boolean register = exchangeFinished (r.exchange);
+                    assert !register;
+                } catch (IOException e) {
+                    logger.log (Level.TRACE, "ServerImpl.addEvent", e);
+                    closeConnection (r.exchange.getConnection());
+                } finally {
+                    depth[0]--;
+                }
+                return;
+            }
         }
+        /* events must be handled by the loop that owns the connection */
+        Dispatcher d = r.exchange.getConnection().dispatcher;
+        if (d == null) {
+            d = dispatcher;
+        }
+        d.addEvent (r);
     }
 
-    /* main server listener task */
+    private boolean isNextRequestBuffered (ExchangeImpl t) {
+        LeftOverInputStream is = t.getOriginalInputStream();
+        try {
+            return !t.close && is.isEOF() && is.isDataBuffered();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /* Called after the response for an exchange has been completely sent,
+     * by the dispatcher which owns the connection, or by addEvent if the
+     * next request is buffered. If the next request on the connection has
+     * already been buffered it is handed to the executor straight away.
+     * Returns true if the connection should be registered with its
+     * selector to wait for the next request.
+     */
+    private boolean exchangeFinished (ExchangeImpl t) throws IOException {
+        HttpConnection c = t.getConnection();
+        int exchanges = endExchange();
+        if (terminating && exchanges == 0) {
+            finished = true;
+        }
+        responseCompleted (c);
+        LeftOverInputStream is = t.getOriginalInputStream();
+        if (!is.isEOF()) {
+            t.close = true;
+        }
+        if (t.close || idleConnections.size() >= MAX_IDLE_CONNECTIONS) {
+            c.close();
+            allConnections.remove (c);
+        } else {
+            if (is.isDataBuffered()) {
+                /* don't re-enable the interestops, just handle it */
+                requestStarted (c);
+                dispatcher.handle (c.getChannel(), c);
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* chooses the selector loop for a newly accepted connection */
+    private Dispatcher nextDispatcher () {
+        if (workers.length == 0) {
+            return dispatcher;
+        }
+        if (LEAST_LOADED) {
+            Dispatcher least = workers[0];
+            for (int i=1; i<workers.length; i++) {
+                if (workers[i].load() < least.load()) {
+                    least = workers[i];
+                }
+            }
+            return least;
+        }
+        /* only called from the acceptor thread */
+        Dispatcher d = workers[nextWorker];
+        nextWorker = (nextWorker + 1) % workers.length;
+        return d;
+    }
+
+    /* main server listener task. The dispatcher created with the
+     * server accepts new connections. Unless additional dispatchers are
+     * configured with sun.net.httpserver.dispatchers it also reads the
+     * requests on all connections, otherwise each accepted connection
+     * is handed to one of the worker dispatchers for its lifetime.
+     */
 
     class Dispatcher implements Runnable {
 
+        final Selector selector;
+        private final Object lolock = new Object();
+        private List<Event> events = new LinkedList<Event>();
+        /* accepted channels waiting to be registered with this selector */
+        private final LinkedList<SocketChannel> newConnections =
+                new LinkedList<SocketChannel>();
+        /* number of open connections owned by this dispatcher */
+        private final AtomicInteger connCount = new AtomicInteger();
+
+        Dispatcher (Selector selector) {
+            this.selector = selector;
+        }
+
+        int load () {
+            return connCount.get();
+        }
+
+        void connectionClosed () {
+            connCount.decrementAndGet();
+        }
+
+        void addEvent (Event r) {
+            synchronized (lolock) {
+                events.add (r);
+                selector.wakeup();
+            }
+        }
+
+        /* called by the acceptor to transfer a channel to this dispatcher */
+        void addConnection (SocketChannel chan) {
+            connCount.incrementAndGet();
+            synchronized (lolock) {
+                newConnections.add (chan);
+                selector.wakeup();
+            }
+        }
+
         private void handleEvent (Event r) {
             ExchangeImpl t = r.exchange;
             HttpConnection c = t.getConnection();
             try {
                 if (r instanceof WriteFinishedEvent) {
-
-                    int exchanges = endExchange();
-                    if (terminating && exchanges == 0) {
-                        finished = true;
-                    }
-                    responseCompleted (c);
-                    LeftOverInputStream is = t.getOriginalInputStream();
-                    if (!is.isEOF()) {
-                        t.close = true;
-                    }
-                    if (t.close || idleConnections.size() >= MAX_IDLE_CONNECTIONS) {
-                        c.close();
-                        allConnections.remove (c);
-                    } else {
-                        if (is.isDataBuffered()) {
-                            /* don't re-enable the interestops, just handle it */
-                            requestStarted (c);
-                            handle (c.getChannel(), c);
-                        } else {
-                            connsToRegister.add (c);
-                        }
+                    if (exchangeFinished (t)) {
+                        connsToRegister.add (c);
                     }
                 }
             } catch (IOException e) {
@@ -340,15 +496,52 @@ class ServerImpl implements TimeSource {
             }
         }
 
+        /* register a newly accepted channel with this selector.
+         * The channel has already been counted in connCount.
+         */
+        private void register (SocketChannel chan) {
+            try {
+                register0 (chan);
+            } catch (IOException e) {
+                logger.log (Level.TRACE, "Dispatcher (9)", e);
+                connectionClosed();
+                try { chan.close(); } catch (IOException e1) {}
+            }
+        }
+
+        private void register0 (SocketChannel chan) throws IOException {
+            chan.configureBlocking (false);
+            SelectionKey newkey =
+                chan.register (selector, SelectionKey.OP_READ);
+            HttpConnection c = new HttpConnection ();
+            c.selectionKey = newkey;
+            c.dispatcher = this;
+            c.setChannel (chan);
+            newkey.attach (c);
+            requestStarted (c);
+            allConnections.add (c);
+        }
+
         public void run() {
             while (!finished) {
                 try {
                     List<Event> list = null;
+                    List<SocketChannel> accepted = null;
                     synchronized (lolock) {
                         if (events.size() > 0) {
                             list = events;
                             events = new LinkedList<Event>();
                         }
+                        if (newConnections.size() > 0) {
+                            accepted = new ArrayList<SocketChannel>(newConnections);
+                            newConnections.clear();
+                        }
+                    }
+
+                    if (accepted != null) {
+                        for (SocketChannel chan : accepted) {
+                            register (chan);
+                        }
                     }
 
                     if (list != null) {
@@ -382,15 +575,13 @@ class ServerImpl implements TimeSource {
                                 if (ServerConfig.noDelay()) {
                                     chan.socket().setTcpNoDelay(true);
                                 }
-                                chan.configureBlocking (false);
-                                SelectionKey newkey =
-                                    chan.register (selector, SelectionKey.OP_READ);
-                                HttpConnection c = new HttpConnection ();
-                                c.selectionKey = newkey;
-                                c.setChannel (chan);
-                                newkey.attach (c);
-                                requestStarted (c);
-                                allConnections.add (c);
+                                Dispatcher d = nextDispatcher();
+                                if (d == this) {
+                                    connCount.incrementAndGet();
+                                    register (chan);
+                                } else {
+                                    d.addConnection (chan);
+                                }
                             }
                         } else {
                             try {
@@ -51,8 +51,11 @@ import java.util.regex.Pattern;
 import java.util.zip.CRC32;
 import java.util.zip.Inflater;
 import java.util.zip.Deflater;
+import java.util.zip.DeflaterPool;
 import java.util.zip.InflaterInputStream;
+import java.util.zip.InflaterPool;
 import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ParallelDeflaterOutputStream;
 import java.util.zip.ZipException;
 import static java.lang.Boolean.*;
 import static jdk.nio.zipfs.ZipConstants.*;
@@ -84,6 +87,13 @@ class ZipFileSystem extends FileSystem {
     private final boolean forceEnd64;
     private final int defaultMethod;     // METHOD_STORED if "noCompression=true"
                                          // METHOD_DEFLATED otherwise
+    private final boolean incrementalSync; // append updates to the existing
+                                           // zip file instead of rewriting it
+    private final int compactionThreshold; // percentage of dead bytes in the
+                                           // zip file above which an
+                                           // incremental sync rewrites it
+    private final int compressionParallelism; // number of threads deflating
+                                              // each entry written by sync()
 
     ZipFileSystem(ZipFileSystemProvider provider,
                   Path zfpath,
@@ -96,6 +106,13 @@ class ZipFileSystem extends FileSystem {
         this.useTempFile  = isTrue(env, "useTempFile");
         this.forceEnd64 = isTrue(env, "forceZIP64End");
         this.defaultMethod = isTrue(env, "noCompression") ? METHOD_STORED: METHOD_DEFLATED;
+        this.incrementalSync = isTrue(env, "incrementalSync");
+        this.compactionThreshold = intValue(env, "compactionThreshold", 50);
+        if (compactionThreshold < 0 || compactionThreshold > 100)
+            throw new IllegalArgumentException("compactionThreshold: " + compactionThreshold);
+        this.compressionParallelism = intValue(env, "compressionParallelism", 1);
+        if (compressionParallelism < 1)
+            throw new IllegalArgumentException("compressionParallelism: " + compressionParallelism);
         if (Files.notExists(zfpath)) {
             // create a new zip if not exists
             if (isTrue(env, "create")) {
@@ -133,6 +150,21 @@ class ZipFileSystem extends FileSystem {
         return "true".equals(env.get(name)) || TRUE.equals(env.get(name));
     }
 
+    // returns the int value of a name=Number/"number" setting in env, or
+    // the default value if there is none
+    private static int intValue(Map<String, ?> env, String name, int dflt) {
+        Object v = env.get(name);
+        if (v == null)
+            return dflt;
+        if (v instanceof Number)
+            return ((Number)v).intValue();
+        try {
+            return Integer.parseInt(v.toString());
+        } catch (NumberFormatException x) {
+            throw new IllegalArgumentException(name + ": " + v);
+        }
+    }
+
     @Override
     public FileSystemProvider provider() {
         return provider;
@@ -285,14 +317,8 @@ class ZipFileSystem extends FileSystem {
             endWrite();
         }
 
-        synchronized (inflaters) {
-            for (Inflater inf : inflaters)
-                inf.end();
-        }
-        synchronized (deflaters) {
-            for (Deflater def : deflaters)
-                def.end();
-        }
+        inflaters.close();
+        deflaters.close();
 
         IOException ioe = null;
         synchronized (tmppaths) {
@@ -1201,7 +1227,9 @@ class ZipFileSystem extends FileSystem {
 
         long written = 0;
         try (OutputStream os2 = e.method == METHOD_STORED ?
-            new EntryOutputStreamCRC32(e, os) : new EntryOutputStreamDef(e, os)) {
+            new EntryOutputStreamCRC32(e, os) :
+            compressionParallelism > 1 ?
+            new EntryOutputStreamParallelDef(e, os) : new EntryOutputStreamDef(e, os)) {
             if (e.bytes != null) {                 // in-memory
                 os2.write(e.bytes, 0, e.bytes.length);
             } else if (e.file != null) {           // tmp file
@@ -1226,6 +1254,8 @@ class ZipFileSystem extends FileSystem {
 
         if (!hasUpdate)
             return;
+        if (incrementalSync && syncIncrementally())
+            return;
         Path tmpFile = createTempFileInSameDirectoryAs(zfpath);
         try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tmpFile, WRITE)))
         {
@@ -1289,6 +1319,90 @@ class ZipFileSystem extends FileSystem {
         hasUpdate = false;    // clear
     }
 
+    // Appends the updated entries, followed by a new central directory and
+    // END header, to the end of the zip file; the entries that did not
+    // change are not copied. The LOC entries that are no longer referenced,
+    // and the old central directory, are left in place as dead bytes. Returns
+    // false, without writing anything, if the zip file has to be rewritten
+    // instead: when it has a prefix before the first LOC, or when its dead
+    // bytes would exceed compactionThreshold percent of its length.
+    private boolean syncIncrementally() throws IOException {
+        if (locpos != 0)
+            return false;
+        long appendpos = ch.size();
+        // bytes of the LOC entries kept as they are, approximated by their
+        // CEN headers as the LOC extra data may differ
+        long live = 0;
+        for (IndexNode inode : inodes.values()) {
+            if (!(inode instanceof Entry) && inode.pos != -1 &&
+                !(inode.name.length == 1 && inode.name[0] == '/')) {
+                live += LOCHDR + CENNAM(cen, inode.pos) + CENEXT(cen, inode.pos) +
+                        CENSIZ(cen, inode.pos);
+            }
+        }
+        if ((appendpos - live) * 100 > appendpos * compactionThreshold)
+            return false;
+
+        try (FileChannel fch = FileChannel.open(zfpath, WRITE)) {
+            try {
+                fch.position(appendpos);
+                OutputStream os = new BufferedOutputStream(Channels.newOutputStream(fch));
+                ArrayList<Entry> elist = new ArrayList<>(inodes.size());
+                long written = appendpos;
+                byte[] buf = new byte[8192];
+                Entry e = null;
+
+                // write the loc of the updated entries only
+                for (IndexNode inode : inodes.values()) {
+                    if (inode instanceof Entry) {    // an updated inode
+                        e = (Entry)inode;
+                        try {
+                            if (e.type == Entry.COPY) {
+                                written += copyLOCEntry(e, true, os, written, buf);
+                            } else {                          // NEW, FILECH or CEN
+                                e.locoff = written;
+                                written += e.writeLOC(os);    // write loc header
+                                written += writeEntry(e, os, buf);
+                            }
+                            elist.add(e);
+                        } catch (IOException x) {
+                            x.printStackTrace();    // skip any in-accurate entry
+                        }
+                    } else {                        // unchanged inode, stays put
+                        if (inode.pos == -1) {
+                            continue;               // pseudo directory node
+                        }
+                        if (inode.name.length == 1 && inode.name[0] == '/') {
+                            continue;               // no root '/' directory
+                        }
+                        elist.add(Entry.readCEN(this, inode));
+                    }
+                }
+
+                // now write the new cen and end table
+                end.cenoff = written;
+                for (Entry entry : elist) {
+                    written += entry.writeCEN(os);
+                }
+                end.centot = elist.size();
+                end.cenlen = written - end.cenoff;
+                end.write(os, written, forceEnd64);
+                os.flush();
+            } catch (IOException | RuntimeException x) {
+                // leave the zip file as it was
+                try {
+                    fch.truncate(appendpos);
+                } catch (IOException xx) {
+                    x.addSuppressed(xx);
+                }
+                throw x;
+            }
+        }
+        ch.close();
+        hasUpdate = false;    // clear
+        return true;
+    }
+
     IndexNode getInode(byte[] path) {
         if (path == null)
             throw new NullPointerException("path");
@@ -1455,6 +1569,59 @@ class ZipFileSystem extends FileSystem {
             e.size  = def.getBytesRead();
             e.csize = def.getBytesWritten();
             e.crc = crc.getValue();
+            releaseDeflater(def);
+        }
+    }
+
+    // Wrapper output stream class to write out a "deflated" entry, the
+    // blocks of which are deflated by compressionParallelism threads.
+    // (1) this class does not close the underlying out stream when
+    //     being closed.
+    // (2) no need to be "synchronized", only used by sync()
+    private class EntryOutputStreamParallelDef extends FilterOutputStream {
+        private ParallelDeflaterOutputStream pdos;
+        private CRC32 crc;
+        private Entry e;
+        private boolean isClosed;
+
+        EntryOutputStreamParallelDef(Entry e, OutputStream os) throws IOException {
+            super(os);
+            this.e =  Objects.requireNonNull(e, "Zip entry is null");
+            this.crc = new CRC32();
+            this.pdos = new ParallelDeflaterOutputStream(new FilterOutputStream(os) {
+                    @Override
+                    public void write(byte b[], int off, int len)
+                            throws IOException {
+                        out.write(b, off, len);
+                    }
+
+                    @Override
+                    public void close() {}    // keep os open
+                }, Deflater.DEFAULT_COMPRESSION, compressionParallelism);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            pdos.write(b);
+            crc.update(b);
+        }
+
+        @Override
+        public void write(byte b[], int off, int len)
+                throws IOException {
+            pdos.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (isClosed)
+                return;
+            isClosed = true;
+            pdos.close();
+            e.size  = pdos.getBytesRead();
+            e.csize = pdos.getBytesWritten();
+            e.crc = crc.getValue();
         }
     }
 
@@ -1640,62 +1807,33 @@ class ZipFileSystem extends FileSystem {
 
     // Maxmum number of de/inflater we cache
     private final int MAX_FLATER = 20;
-    // List of available Inflater objects for decompression
-    private final List<Inflater> inflaters = new ArrayList<>();
+    // Pool of available Inflater objects for decompression
+    private final InflaterPool inflaters = new InflaterPool(true, MAX_FLATER);
 
-    // Gets an inflater from the list of available inflaters or allocates
+    // Gets an inflater from the pool of available inflaters or allocates
     // a new one.
     private Inflater getInflater() {
-        synchronized (inflaters) {
-            int size = inflaters.size();
-            if (size > 0) {
-                Inflater inf = inflaters.remove(size - 1);
-                return inf;
-            } else {
-                return new Inflater(true);
-            }
-        }
+        return inflaters.acquire();
     }
 
-    // Releases the specified inflater to the list of available inflaters.
+    // Releases the specified inflater to the pool of available inflaters.
     private void releaseInflater(Inflater inf) {
-        synchronized (inflaters) {
-            if (inflaters.size() < MAX_FLATER) {
-                inf.reset();
-                inflaters.add(inf);
-            } else {
-                inf.end();
-            }
-        }
+        inflaters.release(inf);
     }
 
-    // List of available Deflater objects for compression
-    private final List<Deflater> deflaters = new ArrayList<>();
+    // Pool of available Deflater objects for compression
+    private final DeflaterPool deflaters =
+        new DeflaterPool(Deflater.DEFAULT_COMPRESSION, true, MAX_FLATER);
 
-    // Gets an deflater from the list of available deflaters or allocates
+    // Gets an deflater from the pool of available deflaters or allocates
     // a new one.
     private Deflater getDeflater() {
-        synchronized (deflaters) {
-            int size = deflaters.size();
-            if (size > 0) {
-                Deflater def = deflaters.remove(size - 1);
-                return def;
-            } else {
-                return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
-            }
-        }
+        return deflaters.acquire();
     }
 
-    // Releases the specified inflater to the list of available inflaters.
+    // Releases the specified deflater to the pool of available deflaters.
     private void releaseDeflater(Deflater def) {
-        synchronized (deflaters) {
-            if (inflaters.size() < MAX_FLATER) {
-               def.reset();
-               deflaters.add(def);
-            } else {
-               def.end();
-            }
-        }
+        deflaters.release(def);
     }
 
     // End of central directory record
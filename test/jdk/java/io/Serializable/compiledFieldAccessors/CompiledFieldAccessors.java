@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ * @test
+ * @summary Check that the field accessors compiled when the
+ *          jdk.serialCompileFieldAccessors property is set write the same
+ *          stream as the reflective field access, read it back into equal
+ *          objects, and leave ObjectInputFilter checks in place
+ * @run main/othervm -Djdk.serialCompileFieldAccessors=false
+ *                   CompiledFieldAccessors write
+ * @run main/othervm -Djdk.serialCompileFieldAccessors=true
+ *                   CompiledFieldAccessors compare
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+public class CompiledFieldAccessors {
+
+    /** stream written with the reflective field access, in the scratch dir */
+    static final Path REFLECTIVE = Paths.get("reflective.ser");
+
+    static class Prims implements Serializable {
+        private static final long serialVersionUID = 1L;
+        boolean z; byte b; char c; short s;
+        int i; long j; float f; double d;
+
+        Prims(int n) {
+            z = (n & 1) != 0; b = (byte) n; c = (char) (n * 31);
+            s = (short) -n; i = n * 1000003; j = (long) n << 40 | n;
+            f = n / 3.0f; d = -n / 7.0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Prims)) {
+                return false;
+            }
+            Prims p = (Prims) o;
+            return getClass() == p.getClass() && z == p.z && b == p.b
+                && c == p.c && s == p.s && i == p.i && j == p.j
+                && Float.compare(f, p.f) == 0 && Double.compare(d, p.d) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return i;
+        }
+    }
+
+    /** subclass mixing primitive, object, array and transient fields */
+    static class Mixed extends Prims {
+        private static final long serialVersionUID = 1L;
+        String name;
+        int[] ints;
+        Object next;
+        long count;
+        transient int ignored;
+
+        Mixed(int n, Object next) {
+            super(n);
+            name = "mixed" + n;
+            ints = new int[] { n, -n, n * n };
+            this.next = next;
+            count = n * 17L;
+            ignored = n;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!super.equals(o)) {
+                return false;
+            }
+            Mixed m = (Mixed) o;
+            return name.equals(m.name) && Arrays.equals(ints, m.ints)
+                && Objects.equals(next, m.next) && count == m.count
+                && m.ignored == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return super.hashCode();
+        }
+    }
+
+    /** default field access from writeObject and readObject */
+    static class Custom implements Serializable {
+        private static final long serialVersionUID = 1L;
+        int x;
+        String y;
+        transient int sum;
+
+        Custom(int x, String y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            out.writeInt(x + y.length());
+        }
+
+        private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException
+        {
+            in.defaultReadObject();
+            sum = in.readInt();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Custom)) {
+                return false;
+            }
+            Custom c = (Custom) o;
+            return x == c.x && y.equals(c.y) && c.sum == x + y.length();
+        }
+
+        @Override
+        public int hashCode() {
+            return x;
+        }
+    }
+
+    /**
+     * serialPersistentFields naming a field which the class does not
+     * declare, for which no accessor is compiled
+     */
+    static class Persistent implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("a", int.class),
+            new ObjectStreamField("missing", long.class),
+            new ObjectStreamField("text", String.class)
+        };
+        int a;
+        String text;
+
+        Persistent(int a, String text) {
+            this.a = a;
+            this.text = text;
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            ObjectOutputStream.PutField fields = out.putFields();
+            fields.put("a", a);
+            fields.put("missing", (long) a << 32);
+            fields.put("text", text);
+            out.writeFields();
+        }
+
+        private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException
+        {
+            ObjectInputStream.GetField fields = in.readFields();
+            a = fields.get("a", 0);
+            if (fields.get("missing", 0L) != (long) a << 32) {
+                throw new InvalidObjectException("missing field not read");
+            }
+            text = (String) fields.get("text", null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Persistent)) {
+                return false;
+            }
+            Persistent p = (Persistent) o;
+            return a == p.a && text.equals(p.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return a;
+        }
+    }
+
+    static List<Object> graph() {
+        List<Object> graph = new ArrayList<>();
+        Object next = null;
+        for (int n = 0; n < 100; n++) {
+            graph.add(new Prims(n));
+            next = new Mixed(n, next);
+            graph.add(next);
+            graph.add(new Custom(n, "c" + n));
+            graph.add(new Persistent(n, "p" + n));
+        }
+        return graph;
+    }
+
+    static byte[] serialize(Object obj) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(obj);
+        }
+        return bos.toByteArray();
+    }
+
+    static Object deserialize(byte[] bytes, ObjectInputFilter filter)
+        throws IOException, ClassNotFoundException
+    {
+        try (ObjectInputStream ois =
+                 new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            if (filter != null) {
+                ois.setObjectInputFilter(filter);
+            }
+            return ois.readObject();
+        }
+    }
+
+    static void checkRoundTrip(List<Object> graph, byte[] bytes)
+        throws Exception
+    {
+        Object result = deserialize(bytes, null);
+        if (!graph.equals(result)) {
+            throw new RuntimeException("objects read differ from the ones written");
+        }
+    }
+
+    static void checkFilter(byte[] bytes) throws Exception {
+        ObjectInputFilter rejectMixed = info ->
+            info.serialClass() == Mixed.class ? ObjectInputFilter.Status.REJECTED
+                                              : ObjectInputFilter.Status.UNDECIDED;
+        try {
+            deserialize(bytes, rejectMixed);
+            throw new RuntimeException("filter did not reject " + Mixed.class);
+        } catch (InvalidClassException expected) {
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Object> graph = graph();
+        byte[] bytes = serialize(graph);
+        checkRoundTrip(graph, bytes);
+        checkFilter(bytes);
+
+        switch (args[0]) {
+            case "write":
+                Files.write(REFLECTIVE, bytes);
+                break;
+            case "compare":
+                byte[] reflective = Files.readAllBytes(REFLECTIVE);
+                if (!Arrays.equals(reflective, bytes)) {
+                    throw new RuntimeException("compiled accessors wrote " +
+                        bytes.length + " bytes which differ from the " +
+                        reflective.length + " bytes written reflectively");
+                }
+                checkRoundTrip(graph, reflective);
+                break;
+            default:
+                throw new IllegalArgumentException(args[0]);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ * @test
+ * @summary Check that DeflaterWritableChannel and GZIPWritableChannel
+ *          do not compress stale data of a source buffer which the caller
+ *          reuses and clears after each write
+ * @run main DeflaterChannelBufferReuse
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DeflaterWritableChannel;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPWritableChannel;
+import java.util.zip.InflaterInputStream;
+
+public class DeflaterChannelBufferReuse {
+
+    public static void main(String[] args) throws Exception {
+        byte[] data = new byte[81000];
+        Random r = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + r.nextInt(8));
+        }
+        for (boolean direct : new boolean[] { false, true }) {
+            for (boolean flush : new boolean[] { false, true }) {
+                check(data, deflate(data, direct, flush, false), false);
+                check(data, deflate(data, direct, flush, true), true);
+            }
+        }
+    }
+
+    /**
+     * Writes the data through the channel in chunks copied to one source
+     * buffer, which is cleared after each write, as in the usual copy loop.
+     */
+    static byte[] deflate(byte[] data, boolean direct, boolean flush,
+                          boolean gzip) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        WritableByteChannel dst = Channels.newChannel(bos);
+        DeflaterWritableChannel ch = gzip ? new GZIPWritableChannel(dst)
+                                          : new DeflaterWritableChannel(dst);
+        ByteBuffer src = direct ? ByteBuffer.allocateDirect(4096)
+                                : ByteBuffer.allocate(4096);
+        int off = 0;
+        while (off < data.length) {
+            int n = Math.min(1000, data.length - off);
+            src.put(data, off, n);
+            src.flip();
+            ch.write(src);
+            if (src.hasRemaining()) {
+                throw new RuntimeException("source buffer not consumed");
+            }
+            src.clear();
+            off += n;
+            if (flush && off % 10000 == 0) {
+                ch.flush();
+            }
+        }
+        ch.close();
+        return bos.toByteArray();
+    }
+
+    static void check(byte[] data, byte[] compressed, boolean gzip)
+        throws IOException
+    {
+        InputStream in = new ByteArrayInputStream(compressed);
+        in = gzip ? new GZIPInputStream(in) : new InflaterInputStream(in);
+        byte[] result = in.readAllBytes();
+        if (!Arrays.equals(data, result)) {
+            throw new RuntimeException((gzip ? "gzip" : "deflate") +
+                ": inflated " + result.length + " bytes, expected " +
+                data.length);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package org.openjdk.bench.java.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares writing and reading a graph of objects with many primitive
+ * fields through the reflective field access of ObjectStreamClass and
+ * through the field accessors compiled when the
+ * jdk.serialCompileFieldAccessors property is set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializationFieldAccess {
+
+    private static final String REFLECTIVE =
+        "-Djdk.serialCompileFieldAccessors=false";
+    private static final String COMPILED =
+        "-Djdk.serialCompileFieldAccessors=true";
+
+    static class Fields implements Serializable {
+        private static final long serialVersionUID = 1L;
+        boolean z = true; byte b = 1; char c = 'c'; short s = 2;
+        int i, i2 = 7, i3 = 8, i4 = 9;
+        long j = 4, j2 = 10, j3 = 11;
+        float f = 5; double d = 6;
+        String str = "x";
+        int[] arr = { 1, 2 };
+    }
+
+    @Param({"2000"})
+    private int size;
+
+    private Fields[] graph;
+    private ByteArrayOutputStream bos;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+        graph = new Fields[size];
+        for (int n = 0; n < size; n++) {
+            graph[n] = new Fields();
+            graph[n].i = n;
+        }
+        bos = new ByteArrayOutputStream();
+        bytes = write();
+    }
+
+    private byte[] write() throws IOException {
+        bos.reset();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(graph);
+        }
+        return bos.toByteArray();
+    }
+
+    private Object read() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois =
+                 new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return ois.readObject();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 3, jvmArgsAppend = REFLECTIVE)
+    public byte[] writeReflective() throws IOException {
+        return write();
+    }
+
+    @Benchmark
+    @Fork(value = 3, jvmArgsAppend = COMPILED)
+    public byte[] writeCompiled() throws IOException {
+        return write();
+    }
+
+    @Benchmark
+    @Fork(value = 3, jvmArgsAppend = REFLECTIVE)
+    public Object readReflective() throws Exception {
+        return read();
+    }
+
+    @Benchmark
+    @Fork(value = 3, jvmArgsAppend = COMPILED)
+    public Object readCompiled() throws Exception {
+        return read();
+    }
+}